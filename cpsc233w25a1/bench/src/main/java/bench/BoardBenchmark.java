@@ -0,0 +1,147 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Board win checks, hint and canPlay over a fixed set of positions
+ *
+ * Each invocation runs the operation once on every position of the set, so scores are per POSITIONS boards.
+ * Positions come from a fixed seed, so every run (and every branch being compared) measures the same boards.
+ *
+ * Run: java -jar target/benchmarks.jar BoardBenchmark
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /**
+     * Boards in the position set
+     */
+    public static final int POSITIONS = 64;
+    /**
+     * Seed of the position set
+     */
+    public static final long SEED = 233L;
+
+    /**
+     * Board size and win length as rowsxcolumns/length, from the smallest to the largest board the game allows
+     */
+    @Param({"4x4/3", "5x4/4", "6x7/4", "8x8/4", "8x8/6"})
+    public String geometry;
+    /**
+     * Fraction of the board filled
+     */
+    @Param({"0.25", "0.5", "0.75"})
+    public double fill;
+
+    private int length;
+    private int[][][] boards;
+    private int[][] lastPlays;
+    private Object[] packed;
+
+    @Setup
+    public void setup() {
+        int[] size = ConnectL.geometry(geometry);
+        length = size[2];
+        boards = ConnectL.positions(size[0], size[1], length, fill, POSITIONS, SEED);
+        packed = new Object[POSITIONS];
+        lastPlays = new int[POSITIONS][];
+        for (int i = 0; i < POSITIONS; i++) {
+            packed[i] = ConnectL.pack(boards[i], length);
+            //Top piece of the first non-empty column stands in for the last play
+            lastPlays[i] = topPiece(boards[i]);
+        }
+    }
+
+    /**
+     * Full-board win check for both pieces (Board.won)
+     */
+    @Benchmark
+    public void won(Blackhole blackhole) {
+        for (int[][] board : boards) {
+            blackhole.consume(ConnectL.won(board, ConnectL.RED, length));
+            blackhole.consume(ConnectL.won(board, ConnectL.BLU, length));
+        }
+    }
+
+    /**
+     * Win check on an already packed board for both pieces (BitBoard.won)
+     */
+    @Benchmark
+    public void packedWon(Blackhole blackhole) {
+        for (Object board : packed) {
+            blackhole.consume(ConnectL.packedWon(board, ConnectL.RED));
+            blackhole.consume(ConnectL.packedWon(board, ConnectL.BLU));
+        }
+    }
+
+    /**
+     * Last-move win check (Board.wins)
+     */
+    @Benchmark
+    public void wins(Blackhole blackhole) {
+        for (int i = 0; i < POSITIONS; i++) {
+            int[] last = lastPlays[i];
+            blackhole.consume(last != null && ConnectL.wins(boards[i], last[0], last[1], length));
+        }
+    }
+
+    /**
+     * Immediate win hint for the piece to move (Board.hint)
+     */
+    @Benchmark
+    public void hint(Blackhole blackhole) {
+        for (int[][] board : boards) {
+            blackhole.consume(ConnectL.hint(board, ConnectL.toMove(board), length));
+        }
+    }
+
+    /**
+     * Every column of every board (Board.canPlay)
+     */
+    @Benchmark
+    public void canPlay(Blackhole blackhole) {
+        for (int[][] board : boards) {
+            for (int column = 0; column < board[0].length; column++) {
+                blackhole.consume(ConnectL.canPlay(board, column));
+            }
+        }
+    }
+
+    /**
+     * Game over check (Board.isGameOver)
+     */
+    @Benchmark
+    public void isGameOver(Blackhole blackhole) {
+        for (int[][] board : boards) {
+            blackhole.consume(ConnectL.isGameOver(board, length));
+        }
+    }
+
+    /**
+     * The (row, column) of the top piece of the left-most column that has one
+     *
+     * @param board The board
+     * @return The spot, null for an empty board
+     */
+    private static int[] topPiece(int[][] board) {
+        for (int column = 0; column < board[0].length; column++) {
+            for (int row = 0; row < board.length; row++) {
+                if (board[row][column] != 0) {
+                    return new int[]{row, column};
+                }
+            }
+        }
+        return null;
+    }
+}
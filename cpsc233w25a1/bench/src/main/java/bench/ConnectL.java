@@ -0,0 +1,292 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+
+/**
+ * Access to the Assignment 1 classes for the benchmarks
+ *
+ * The assignment classes are in the default package, which a JMH benchmark (or any named package) cannot import, so
+ * they are reached through method handles. The handles are static final, so the JIT inlines them and a call costs the
+ * same as calling the method directly. Assignment objects (BitBoard, AlphaBetaSearch, TranspositionTable) are passed
+ * around as Object.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class ConnectL {
+
+    /**
+     * Red piece, same as Game.RED
+     */
+    public static final int RED = 1;
+    /**
+     * Blue piece, same as Game.BLU
+     */
+    public static final int BLU = 2;
+
+    private static final MethodHandle WON;
+    private static final MethodHandle WINS;
+    private static final MethodHandle HINT;
+    private static final MethodHandle CAN_PLAY;
+    private static final MethodHandle PLAY;
+    private static final MethodHandle IS_GAME_OVER;
+    private static final MethodHandle PACK;
+    private static final MethodHandle PACKED_WON;
+    private static final MethodHandle NEW_TABLE;
+    private static final MethodHandle NEW_SEARCH;
+    private static final MethodHandle SEARCH;
+    private static final MethodHandle NODES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> board = Class.forName("Board");
+            Class<?> bitBoard = Class.forName("BitBoard");
+            Class<?> table = Class.forName("TranspositionTable");
+            Class<?> search = Class.forName("AlphaBetaSearch");
+            WON = lookup.findStatic(board, "won", MethodType.methodType(boolean.class, int[][].class, int.class, int.class));
+            WINS = lookup.findStatic(board, "wins", MethodType.methodType(boolean.class, int[][].class, int.class, int.class, int.class));
+            HINT = lookup.findStatic(board, "hint", MethodType.methodType(int[].class, int[][].class, int.class, int.class));
+            CAN_PLAY = lookup.findStatic(board, "canPlay", MethodType.methodType(boolean.class, int[][].class, int.class));
+            PLAY = lookup.findStatic(board, "play", MethodType.methodType(int.class, int[][].class, int.class, int.class));
+            IS_GAME_OVER = lookup.findStatic(board, "isGameOver", MethodType.methodType(boolean.class, int[][].class, int.class));
+            PACK = lookup.findStatic(bitBoard, "of", MethodType.methodType(bitBoard, int[][].class, int.class))
+                    .asType(MethodType.methodType(Object.class, int[][].class, int.class));
+            PACKED_WON = lookup.findVirtual(bitBoard, "won", MethodType.methodType(boolean.class, int.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class, int.class));
+            NEW_TABLE = lookup.findConstructor(table, MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            NEW_SEARCH = lookup.findConstructor(search, MethodType.methodType(void.class, bitBoard, int.class, int.class, table))
+                    .asType(MethodType.methodType(Object.class, Object.class, int.class, int.class, Object.class));
+            SEARCH = lookup.findVirtual(search, "search", MethodType.methodType(int[].class, int.class))
+                    .asType(MethodType.methodType(int[].class, Object.class, int.class));
+            NODES = lookup.findVirtual(search, "getNodes", MethodType.methodType(long.class))
+                    .asType(MethodType.methodType(long.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * No instances, only static calls
+     */
+    private ConnectL() {
+    }
+
+    /**
+     * Board.won
+     */
+    public static boolean won(int[][] board, int piece, int length) {
+        try {
+            return (boolean) WON.invokeExact(board, piece, length);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Board.wins
+     */
+    public static boolean wins(int[][] board, int row, int column, int length) {
+        try {
+            return (boolean) WINS.invokeExact(board, row, column, length);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Board.hint
+     */
+    public static int[] hint(int[][] board, int piece, int length) {
+        try {
+            return (int[]) HINT.invokeExact(board, piece, length);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Board.canPlay
+     */
+    public static boolean canPlay(int[][] board, int column) {
+        try {
+            return (boolean) CAN_PLAY.invokeExact(board, column);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Board.play
+     */
+    public static int play(int[][] board, int column, int piece) {
+        try {
+            return (int) PLAY.invokeExact(board, column, piece);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Board.isGameOver
+     */
+    public static boolean isGameOver(int[][] board, int length) {
+        try {
+            return (boolean) IS_GAME_OVER.invokeExact(board, length);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * BitBoard.of
+     */
+    public static Object pack(int[][] board, int length) {
+        try {
+            return (Object) PACK.invokeExact(board, length);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * BitBoard.won
+     */
+    public static boolean packedWon(Object bitBoard, int piece) {
+        try {
+            return (boolean) PACKED_WON.invokeExact(bitBoard, piece);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * new TranspositionTable(bits)
+     */
+    public static Object newTable(int bits) {
+        try {
+            return (Object) NEW_TABLE.invokeExact(bits);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * new AlphaBetaSearch(bitBoard, player1, player2, table), table may be null
+     */
+    public static Object newSearch(Object bitBoard, int player1, int player2, Object table) {
+        try {
+            return (Object) NEW_SEARCH.invokeExact(bitBoard, player1, player2, table);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * AlphaBetaSearch.search
+     */
+    public static int[] search(Object search, int plies) {
+        try {
+            return (int[]) SEARCH.invokeExact(search, plies);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * AlphaBetaSearch.getNodes
+     */
+    public static long nodes(Object search) {
+        try {
+            return (long) NODES.invokeExact(search);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * A fixed set of game positions, the same for the same arguments on every run
+     * Each position is reached by random plays from an empty board, and is not game over
+     *
+     * @param rows    Board rows
+     * @param columns Board columns
+     * @param length  Win length
+     * @param fill    Fraction of the board filled (0 to 1)
+     * @param count   Number of positions
+     * @param seed    Random seed
+     * @return count boards (see toMove for the piece to move on each)
+     */
+    public static int[][][] positions(int rows, int columns, int length, double fill, int count, long seed) {
+        Random random = new Random(seed);
+        int plays = (int) Math.round(fill * rows * columns);
+        int[][][] positions = new int[count][][];
+        for (int i = 0; i < count; i++) {
+            int[][] board;
+            int player;
+            //Retry until the random game lasts the wanted number of plays
+            do {
+                board = new int[rows][columns];
+                player = RED;
+                for (int play = 0; play < plays && !isGameOver(board, length); play++) {
+                    int column;
+                    do {
+                        column = random.nextInt(columns);
+                    } while (!canPlay(board, column));
+                    play(board, column, player);
+                    player = player == RED ? BLU : RED;
+                }
+            } while (isGameOver(board, length));
+            positions[i] = board;
+        }
+        return positions;
+    }
+
+    /**
+     * The piece to move on a board from positions (RED moves first)
+     *
+     * @param board The board
+     * @return RED or BLU
+     */
+    public static int toMove(int[][] board) {
+        int pieces = 0;
+        for (int[] row : board) {
+            for (int spot : row) {
+                if (spot != 0) {
+                    pieces++;
+                }
+            }
+        }
+        return pieces % 2 == 0 ? RED : BLU;
+    }
+
+    /**
+     * Parse a "rowsxcolumns/length" geometry parameter
+     *
+     * @param geometry For example "6x7/4"
+     * @return {rows, columns, length}
+     */
+    public static int[] geometry(String geometry) {
+        String[] parts = geometry.split("[x/]");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    /**
+     * Unchecked form of an exception thrown through a method handle
+     *
+     * @param e The exception
+     * @return The exception to throw (errors are thrown directly)
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+}
@@ -0,0 +1,97 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the AI search (AlphaBetaSearch, what Game.AI runs) over a fixed set of positions
+ *
+ * The score is searches of the whole set per second, and the nodes counter reports nodes searched per second.
+ * Each search gets a new transposition table (when used), so no search is helped by the one before it.
+ *
+ * Run: java -jar target/benchmarks.jar SearchBenchmark
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    /**
+     * Boards in the position set
+     */
+    public static final int POSITIONS = 8;
+    /**
+     * Transposition table size when the table is used (2^12 entries, small so making it is not what is measured)
+     */
+    public static final int TABLE_BITS = 12;
+
+    /**
+     * Board size and win length as rowsxcolumns/length
+     */
+    @Param({"4x4/3", "5x4/4", "6x7/4", "8x8/4"})
+    public String geometry;
+    /**
+     * Fraction of the board filled
+     */
+    @Param({"0.25", "0.5"})
+    public double fill;
+    /**
+     * Plays looked ahead (2 per AI level)
+     */
+    @Param({"2", "4", "6"})
+    public int plies;
+    /**
+     * Search with a transposition table
+     */
+    @Param({"true", "false"})
+    public boolean table;
+
+    private Object[] packed;
+    private int[] toMove;
+
+    /**
+     * Nodes searched, reported by JMH as nodes per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setup() {
+        int[] size = ConnectL.geometry(geometry);
+        int[][][] boards = ConnectL.positions(size[0], size[1], size[2], fill, POSITIONS, BoardBenchmark.SEED);
+        packed = new Object[POSITIONS];
+        toMove = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            packed[i] = ConnectL.pack(boards[i], size[2]);
+            toMove[i] = ConnectL.toMove(boards[i]);
+        }
+    }
+
+    /**
+     * Search every position of the set to the given depth
+     *
+     * @param nodes Counter of nodes searched
+     * @return Sum of the moves found, so the searches cannot be optimised away
+     */
+    @Benchmark
+    public int search(Nodes nodes) {
+        int sum = 0;
+        for (int i = 0; i < POSITIONS; i++) {
+            int other = toMove[i] == ConnectL.RED ? ConnectL.BLU : ConnectL.RED;
+            Object search = ConnectL.newSearch(packed[i], toMove[i], other, table ? ConnectL.newTable(TABLE_BITS) : null);
+            sum += ConnectL.search(search, plies)[1];
+            nodes.nodes += ConnectL.nodes(search);
+        }
+        return sum;
+    }
+}
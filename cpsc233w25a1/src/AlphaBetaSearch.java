@@ -0,0 +1,1024 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alpha-beta search for the Connect-L AI
+ *
+ * Gives the same (row, col, score) as a full minimax to the same depth, but prunes moves that cannot change the result.
+ * Scores are the same as the minimax evaluation: WIN - depth for a player1 win, depth - WIN for a player1 loss, 0 otherwise.
+ *
+ * Optionally positions where the search runs out of depth are scored by a ThreatEvaluator instead of 0, so a shallow
+ * search can still tell a strong position from a weak one. Those scores are kept below MAX_EVALUATION, far from any
+ * win or loss score.
+ *
+ * If given a TranspositionTable, positions already searched (in either left-right orientation) are looked up instead of
+ * searched again. Only entries searched to the same depth (or to the end of the game) are trusted for a score, so the
+ * result stays the same as minimax; any entry's best move is still used to order moves.
+ *
+ * Moves are tried in an order that makes cut-offs happen early:
+ * 0. the best move stored in the transposition table
+ * 1. killer moves (the last two moves that caused a cut-off at this depth)
+ * 2. history (how often and how deep a move has caused cut-offs anywhere in the tree)
+ * 3. center columns before edge columns
+ *
+ * At the root every move is searched with a window that still tells apart equal scores, so ties go to the left-most
+ * column exactly as they do in minimax.
+ *
+ * On big boards most columns are far from any piece and not worth searching, so optionally only columns whose next
+ * spot is within a radius of a piece already played are searched (only the center column on an empty board).
+ *
+ * Optionally principal variation search (PVS) is used, which searches every move after the first with a null window
+ * and only re-searches it if it turns out better than the first.
+ *
+ * iterate searches 1, 2, 3... plays ahead until a time budget runs out and returns the move of the deepest search that
+ * finished. Each search starts with the best root move of the one before it, and the transposition table gives the
+ * best move found below the root for the rest of that line, so the deeper searches are mostly spent on new plays.
+ *
+ * Given a ForkJoinPool the root moves after the first are split between the pool's workers. They share the best root
+ * score so far and the transposition table, and still pick the same move as a search on one thread.
+ *
+ * Another thread can cancel a running search (for example a search run while waiting for the human to play), it then
+ * stops within CLOCK_MASK + 1 nodes.
+ *
+ * Every search fills a SearchStats (see getStats) with its node, cut-off and table counts and the time of each
+ * iteration, and is recorded as a flight recorder event.
+ *
+ * A search keeps its own copy of the board, so one search should only be used by one thread at a time.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * Bigger than any score the evaluation can give
+     */
+    private static final int INFINITY = 1_000_000;
+    /**
+     * Score for a win at depth 0, a win at depth d is WIN - d
+     * (big enough that a win on the biggest board still scores more than any evaluation)
+     */
+    public static final int WIN = 1 << 14;
+    /**
+     * Biggest evaluation score of a position that is not won or lost
+     */
+    public static final int MAX_EVALUATION = (1 << 12) - 1;
+    /**
+     * Ordering bonus for the first killer move of a depth
+     */
+    private static final int KILLER_FIRST = 1 << 29;
+    /**
+     * Ordering bonus for the second killer move of a depth
+     */
+    private static final int KILLER_SECOND = 1 << 28;
+    /**
+     * Ordering bonus for the move stored in the transposition table
+     */
+    private static final int TABLE_MOVE = 1 << 30;
+    /**
+     * The clock is checked once every CLOCK_MASK + 1 nodes
+     */
+    private static final long CLOCK_MASK = 1023;
+
+    /**
+     * The board being searched (a copy, changed and restored during search)
+     */
+    private final BitBoard board;
+    /**
+     * The piece we are finding a move for (maximizing)
+     */
+    private final int player1;
+    /**
+     * The other piece (minimizing)
+     */
+    private final int player2;
+    /**
+     * Columns ordered center first, used to break ties in move ordering
+     */
+    private final int[] centerOrder;
+    /**
+     * Two killer columns per depth, -1 if none
+     */
+    private int[][] killers;
+    /**
+     * Ordered columns per depth, filled by orderMoves so the search itself allocates nothing
+     */
+    private int[][] moveBuffers;
+    /**
+     * Ordering scores per depth, used while sorting moveBuffers
+     */
+    private int[][] orderBuffers;
+    /**
+     * History score per piece per spot (column * rows + height), halved before each search and kept below KILLER_SECOND
+     */
+    private final int[][] history;
+    /**
+     * Results of earlier searches, null if not used
+     */
+    private final TranspositionTable table;
+    /**
+     * Scores at least this big (or this small negated) are wins (or losses), not evaluations
+     */
+    private final int winBound;
+    /**
+     * Use principal variation search for non-first moves
+     */
+    private boolean principalVariation;
+    /**
+     * The depth at which the search stops and evaluates
+     */
+    private int maxDepth;
+    /**
+     * Nodes visited in the last search
+     */
+    private long nodes;
+    /**
+     * Bytes allocated by the threads of the last search, -1 if the JVM cannot measure it
+     */
+    private long allocated;
+    /**
+     * System.nanoTime after which the search gives up, Long.MAX_VALUE for never
+     */
+    private long deadline;
+    /**
+     * The search ran out of time, scores found after this are not to be used
+     */
+    private boolean aborted;
+    /**
+     * Set by another thread to stop the search for good, checked with the clock
+     */
+    private volatile boolean cancelled;
+    /**
+     * Plays looked ahead by the deepest search iterate finished
+     */
+    private int depthReached;
+    /**
+     * Pool the root moves are split over, null to search on the calling thread only
+     */
+    private ForkJoinPool pool;
+    /**
+     * One search (with its own board copy) per worker of the pool
+     */
+    private AlphaBetaSearch[] helpers;
+    /**
+     * Scores positions at the depth limit, kept up to date with board, null to score them 0
+     */
+    private ThreatEvaluator evaluator;
+    /**
+     * Only columns whose next spot is this close to a piece are searched, 0 to search every column
+     */
+    private int radius;
+    /**
+     * Counters of the last search
+     */
+    private final SearchStats stats = new SearchStats();
+
+    /**
+     * Create a search of the given board for player1, the board is copied so the original is never modified
+     *
+     * @param board   The packed board to search
+     * @param player1 The piece of player1 (to move at the root)
+     * @param player2 The piece of player2
+     */
+    public AlphaBetaSearch(BitBoard board, int player1, int player2) {
+        this(board, player1, player2, null);
+    }
+
+    /**
+     * Create a search of the given board for player1 that shares a transposition table
+     * The board is copied so the original is never modified
+     *
+     * @param board   The packed board to search
+     * @param player1 The piece of player1 (to move at the root)
+     * @param player2 The piece of player2
+     * @param table   The transposition table to read and fill (may be shared between searches), null for none
+     */
+    public AlphaBetaSearch(BitBoard board, int player1, int player2, TranspositionTable table) {
+        this.board = board.copy();
+        this.table = table;
+        //The deepest possible win is after every spot is filled
+        this.winBound = WIN - (board.rows() * board.columns() + 1);
+        this.player1 = player1;
+        this.player2 = player2;
+        this.centerOrder = centerOrder(board.columns());
+        this.killers = new int[0][];
+        this.moveBuffers = new int[0][];
+        this.orderBuffers = new int[0][];
+        this.history = new int[2][board.rows() * board.columns()];
+        this.principalVariation = false;
+        this.deadline = Long.MAX_VALUE;
+        this.helpers = new AlphaBetaSearch[0];
+    }
+
+    /**
+     * Columns of a board sorted by distance from the center, left of center first on a tie
+     *
+     * @param columns The number of columns
+     * @return The column indices center first
+     */
+    public static int[] centerOrder(int columns) {
+        int[] order = new int[columns];
+        int index = 0;
+        //Twice the distance from the center is |2 * col - (columns - 1)|, walk out from 0 (or 1 for even boards)
+        for (int distance = (columns - 1) % 2; index < columns; distance += 2) {
+            for (int col = 0; col < columns; col++) {
+                if (Math.abs(2 * col - (columns - 1)) == distance) {
+                    order[index++] = col;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Turn on or off principal variation search
+     *
+     * @param principalVariation True to use null window searches after the first move
+     */
+    public void setPrincipalVariation(boolean principalVariation) {
+        this.principalVariation = principalVariation;
+    }
+
+    /**
+     * Split root moves over the workers of a pool (one worker per parallelism of the pool)
+     * The move found is the same as searching on one thread, only faster
+     *
+     * @param pool The pool to search with, null to search on the calling thread only
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        this.helpers = new AlphaBetaSearch[pool == null ? 0 : pool.getParallelism()];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new AlphaBetaSearch(board, player1, player2, table);
+            helpers[i].setEvaluation(evaluator != null);
+            helpers[i].setCandidateRadius(radius);
+            if (cancelled) {
+                helpers[i].cancel();
+            }
+        }
+    }
+
+    /**
+     * Turn on or off scoring positions at the depth limit by their open windows (ThreatEvaluator)
+     * Without it those positions score 0 and the result is the same as minimax
+     *
+     * @param evaluation True to use the evaluation
+     */
+    public void setEvaluation(boolean evaluation) {
+        this.evaluator = evaluation ? new ThreatEvaluator(board) : null;
+        for (AlphaBetaSearch helper : helpers) {
+            helper.setEvaluation(evaluation);
+        }
+    }
+
+    /**
+     * Search only columns whose next spot is within radius spots (in any direction) of a piece already played
+     * Without it every column is searched and the result is the same as minimax
+     *
+     * @param radius The distance from a piece, 0 to search every column
+     */
+    public void setCandidateRadius(int radius) {
+        this.radius = radius;
+        for (AlphaBetaSearch helper : helpers) {
+            helper.setCandidateRadius(radius);
+        }
+    }
+
+    /**
+     * Stop the search running on another thread (and every search after it), the running search returns as if it ran
+     * out of time
+     */
+    public void cancel() {
+        cancelled = true;
+        for (AlphaBetaSearch helper : helpers) {
+            helper.cancel();
+        }
+    }
+
+    /**
+     * Was this search cancelled
+     *
+     * @return True if cancel was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Nodes visited by the last search
+     *
+     * @return The node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Counters of the last search (search or iterate), the same object every time
+     *
+     * @return The counters
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Bytes allocated on the heap during the last search (search or iterate, all threads of a parallel search)
+     * The per node search allocates nothing, so this stays small and does not grow with the node count
+     *
+     * @return The allocated bytes, -1 if the JVM cannot measure allocation
+     */
+    public long getAllocatedBytes() {
+        return allocated;
+    }
+
+    /**
+     * Plays looked ahead by the deepest search the last iterate finished
+     *
+     * @return The plies of the returned move (maxPlies if it was reached)
+     */
+    public int getDepthReached() {
+        return depthReached;
+    }
+
+    /**
+     * Search a number of plays ahead (both players' plays count), Integer.MAX_VALUE searches to the end of the game
+     *
+     * @param plies How many plays to look ahead
+     * @return The (row, col, score) to play, row and col are -1 if there is no move or the search was cancelled
+     */
+    public int[] search(int plies) {
+        long start = System.nanoTime();
+        SearchStats.SearchEvent event = new SearchStats.SearchEvent();
+        event.begin();
+        stats.reset();
+        deadline = Long.MAX_VALUE;
+        int[] result = searchRoot(plies, -1);
+        stats.iteration(Math.min(plies, board.rows() * board.columns() - board.count()), nodes, System.nanoTime() - start, aborted);
+        finish(event, start);
+        return result;
+    }
+
+    /**
+     * Iterative deepening, search 1, 2, 3... plays ahead up to maxPlies while there is time left
+     * The first search always finishes, after that a search that runs past the budget is stopped and thrown away
+     * When maxPlies is reached the result is the same as search(maxPlies)
+     *
+     * @param maxPlies     The most plays to look ahead, Integer.MAX_VALUE for up to the end of the game
+     * @param budgetMillis Wall-clock time allowed in milliseconds
+     * @return The (row, col, score) of the deepest finished search, row and col are -1 if there is no move, null if the
+     * search was cancelled before any search finished
+     */
+    public int[] iterate(int maxPlies, long budgetMillis) {
+        long begin = System.nanoTime();
+        SearchStats.SearchEvent event = new SearchStats.SearchEvent();
+        event.begin();
+        stats.reset();
+        long stop = begin + budgetMillis * 1_000_000L;
+        int empty = board.rows() * board.columns() - board.count();
+        long total = 0;
+        long totalAllocated = 0;
+        int[] best = null;
+        depthReached = 0;
+        for (int plies = 1; ; plies++) {
+            //Once a search reaches the end of the game, looking further ahead changes nothing
+            int limit = plies >= maxPlies || plies >= empty ? maxPlies : plies;
+            deadline = best == null ? Long.MAX_VALUE : stop;
+            long start = System.nanoTime();
+            SearchStats.IterationEvent iteration = new SearchStats.IterationEvent();
+            iteration.begin();
+            int[] result = searchRoot(limit, best == null ? -1 : best[1]);
+            stats.iteration(Math.min(limit, empty), nodes, System.nanoTime() - start, aborted);
+            if (iteration.shouldCommit()) {
+                iteration.plies = Math.min(limit, empty);
+                iteration.nodes = nodes;
+                iteration.aborted = aborted;
+                iteration.commit();
+            }
+            total += nodes;
+            totalAllocated = totalAllocated < 0 || allocated < 0 ? -1 : totalAllocated + allocated;
+            if (aborted) {
+                break;
+            }
+            best = result;
+            depthReached = limit;
+            //A win or loss found is exact, any deeper search finds the same score and column
+            if (limit == maxPlies || best[1] == -1 || Math.abs(best[2]) >= winBound) {
+                break;
+            }
+        }
+        nodes = total;
+        allocated = totalAllocated;
+        finish(event, begin);
+        deadline = Long.MAX_VALUE;
+        return best;
+    }
+
+    /**
+     * Score every root column exactly (each with a full window), slower than search which only proves the best move
+     * Every open column is scored even with a candidate radius, so any move a player made can be compared to the best
+     *
+     * @param plies How many plays to look ahead
+     * @return The score of playing each column for player1, Integer.MIN_VALUE for full columns (all of them if the
+     * game is over or plies is 0)
+     */
+    public int[] scoreColumns(int plies) {
+        long start = System.nanoTime();
+        stats.reset();
+        deadline = Long.MAX_VALUE;
+        prepare(plies);
+        if (table != null) {
+            table.newSearch();
+        }
+        int[] scores = new int[board.columns()];
+        Arrays.fill(scores, Integer.MIN_VALUE);
+        if (maxDepth > 1 && !board.isGameOver()) {
+            for (int col : centerOrder) {
+                if (board.canPlay(col)) {
+                    play(col, player1);
+                    scores[col] = -alphaBeta(player2, 2, -INFINITY, INFINITY, col);
+                    undo(col, player1);
+                }
+            }
+        }
+        stats.iteration(Math.min(plies, board.rows() * board.columns() - board.count()), nodes, System.nanoTime() - start, false);
+        stats.nodes = nodes;
+        stats.nanos = System.nanoTime() - start;
+        return scores;
+    }
+
+    /**
+     * Fill in the totals of a search and record its flight recorder event
+     *
+     * @param event The event begun with the search
+     * @param start System.nanoTime at the start of the search
+     */
+    private void finish(SearchStats.SearchEvent event, long start) {
+        stats.nodes = nodes;
+        stats.nanos = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.depth = stats.getDepth();
+            event.nodes = nodes;
+            event.cutoffs = stats.cutoffs;
+            event.hits = stats.hits;
+            event.branchingFactor = stats.branchingFactor();
+            event.commit();
+        }
+    }
+
+    /**
+     * Search from the root a number of plays ahead until the deadline
+     *
+     * @param plies       How many plays to look ahead
+     * @param firstColumn The column to search first (best of the last iteration), -1 for center first
+     * @return The (row, col, score) to play, row and col are -1 if there is no move
+     */
+    private int[] searchRoot(int plies, int firstColumn) {
+        long start = allocatedBytes();
+        long best = searchRootMoves(plies, firstColumn);
+        long end = allocatedBytes();
+        allocated = start < 0 || end < 0 || allocated < 0 ? -1 : allocated + end - start;
+        int bestColumn = moveOf(best);
+        return new int[]{bestColumn == -1 ? -1 : board.nextRow(bestColumn), bestColumn, scoreOf(best)};
+    }
+
+    /**
+     * The body of searchRoot, everything it allocates is sized by the board not by the nodes searched
+     *
+     * @param plies       How many plays to look ahead
+     * @param firstColumn The column to search first (best of the last iteration), -1 for center first
+     * @return The packed best (score, column), column is -1 if there is no move
+     */
+    private long searchRootMoves(int plies, int firstColumn) {
+        prepare(plies);
+        if (table != null) {
+            table.newSearch();
+        }
+        nodes++;
+        if (maxDepth == 1 || board.isGameOver()) {
+            return pack(evaluate(1), -1);
+        }
+        //Open root columns, the last iteration's best first then center first
+        int[] moves = moveBuffers[1];
+        int count = 0;
+        if (firstColumn != -1 && board.canPlay(firstColumn) && candidate(firstColumn)) {
+            moves[count++] = firstColumn;
+        }
+        for (int col : centerOrder) {
+            if (col != firstColumn && board.canPlay(col) && candidate(col)) {
+                moves[count++] = col;
+            }
+        }
+        long best = pack(-INFINITY, -1);
+        //In parallel only the first move is searched here, it sets the score the other moves have to beat
+        int serial = pool == null ? count : Math.min(1, count);
+        for (int i = 0; i < serial; i++) {
+            int col = moves[i];
+            int score = searchRootMove(col, scoreOf(best), moveOf(best));
+            if (aborted) {
+                return pack(scoreOf(best), -1);
+            }
+            if (moveOf(best) == -1 || beats(score, col, best)) {
+                best = pack(score, col);
+            }
+        }
+        if (serial < count) {
+            best = searchRootParallel(moves, serial, count, best);
+            if (aborted) {
+                return pack(scoreOf(best), -1);
+            }
+        }
+        //Every root move was searched so the best score is exact
+        if (table != null) {
+            table.store(key(board.hash(), player1), toTable(scoreOf(best), 1), draft(1), TranspositionTable.EXACT, moveOf(best));
+        }
+        return best;
+    }
+
+    /**
+     * Reset the per search state for a search of a number of plays ahead
+     *
+     * @param plies How many plays to look ahead
+     */
+    private void prepare(int plies) {
+        nodes = 0;
+        allocated = 0;
+        aborted = false;
+        //Minimax depth starts at 1 and evaluates at depth == max depth
+        maxDepth = plies == Integer.MAX_VALUE ? Integer.MAX_VALUE : plies + 1;
+        //One buffer per depth, kept between searches and only grown when a search goes deeper than any before
+        int cells = board.rows() * board.columns();
+        int depths = Math.min(plies, cells) + 2;
+        if (killers.length < depths) {
+            killers = new int[depths][2];
+            moveBuffers = new int[depths][board.columns()];
+            orderBuffers = new int[depths][board.columns()];
+        }
+        for (int[] killer : killers) {
+            killer[0] = -1;
+            killer[1] = -1;
+        }
+        //Age history so the cut-offs of this search count for more than those of earlier ones
+        for (int[] scores : history) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Search one root move with a window that tells whether it beats the best root move so far
+     * Left of the best so far wins ties, so it only has to reach the best score, right of it has to beat it
+     * The score is exact if it beats the best so far, otherwise it is only an upper bound
+     *
+     * @param col        The root column to play
+     * @param bestScore  The best root score so far
+     * @param bestColumn The best root column so far, -1 for none
+     * @return The score of playing col for player1
+     */
+    private int searchRootMove(int col, int bestScore, int bestColumn) {
+        int alpha = bestColumn == -1 ? -INFINITY : (col < bestColumn ? bestScore - 1 : bestScore);
+        play(col, player1);
+        int score = -alphaBeta(player2, 2, -INFINITY, -alpha, col);
+        undo(col, player1);
+        return score;
+    }
+
+    /**
+     * Split root moves between the pool's workers, each with its own board copy and killers and history
+     * The workers share the transposition table and the best (score, column) so far, which only ever gets better, so
+     * the result is the same as searching the moves one after the other
+     *
+     * @param moves The ordered root columns
+     * @param from  The index of the first move to split
+     * @param count The number of moves
+     * @param start The packed best (score, column) of the moves before from
+     * @return The packed best (score, column) of all moves
+     */
+    private long searchRootParallel(int[] moves, int from, int count, long start) {
+        AtomicInteger next = new AtomicInteger(from);
+        AtomicLong best = new AtomicLong(start);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (AlphaBetaSearch helper : helpers) {
+            helper.prepare(maxDepth == Integer.MAX_VALUE ? Integer.MAX_VALUE : maxDepth - 1);
+            helper.deadline = deadline;
+            helper.principalVariation = principalVariation;
+            helper.stats.reset();
+            tasks.add(() -> {
+                long before = allocatedBytes();
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    int col = moves[i];
+                    long current = best.get();
+                    int score = helper.searchRootMove(col, scoreOf(current), moveOf(current));
+                    if (helper.aborted) {
+                        break;
+                    }
+                    //A score that does not beat the best it was searched against does not beat any later best either
+                    while (beats(score, col, current) && !best.compareAndSet(current, pack(score, col))) {
+                        current = best.get();
+                    }
+                }
+                long after = allocatedBytes();
+                helper.allocated = before < 0 || after < 0 ? -1 : after - before;
+                return helper.nodes;
+            });
+        }
+        try {
+            for (Future<Long> result : pool.invokeAll(tasks)) {
+                nodes += result.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Parallel AI search failed", e);
+        }
+        for (AlphaBetaSearch helper : helpers) {
+            stats.add(helper.stats);
+            aborted |= helper.aborted;
+            allocated = allocated < 0 || helper.allocated < 0 ? -1 : allocated + helper.allocated;
+        }
+        return best.get();
+    }
+
+    /**
+     * Pack a root (score, column) into one long so workers can update it atomically
+     *
+     * @param score  The score
+     * @param column The column
+     * @return score in the high 32 bits, column in the low 32 bits
+     */
+    private static long pack(int score, int column) {
+        return ((long) score << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Whether a root (score, column) is better than a packed best, the higher score or on a tie the left-most column
+     *
+     * @param score  The score
+     * @param column The column
+     * @param best   The packed best (score, column)
+     * @return True if (score, column) is better
+     */
+    private static boolean beats(int score, int column, long best) {
+        int bestScore = scoreOf(best);
+        return score > bestScore || (score == bestScore && column < moveOf(best));
+    }
+
+    /**
+     * The score of a packed (score, column)
+     *
+     * @param packed The packed (score, column)
+     * @return The score
+     */
+    private static int scoreOf(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * The column of a packed (score, column)
+     *
+     * @param packed The packed (score, column)
+     * @return The column, -1 for none
+     */
+    private static int moveOf(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread
+     *
+     * @return The allocated bytes, -1 if the JVM cannot measure allocation
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Negamax alpha-beta (fail-soft), score is from the view of the player to move
+     *
+     * @param player The player to move
+     * @param depth  The depth of this node (root is 1)
+     * @param alpha  The score player to move is already guaranteed
+     * @param beta   The score the opponent is already guaranteed
+     * @param last   The column the opponent just played in
+     * @return The score of this node for player
+     */
+    private int alphaBeta(int player, int depth, int alpha, int beta, int last) {
+        nodes++;
+        //Out of time, unwind without storing anything (the caller throws the result away)
+        if ((nodes & CLOCK_MASK) == 0 && (cancelled || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        int next = player == player1 ? player2 : player1;
+        //The parent was not game over, so only the player that just played (next) can have won
+        if (board.wonWith(last)) {
+            return depth - WIN;
+        }
+        if (board.full()) {
+            return 0;
+        }
+        if (depth == maxDepth) {
+            if (SearchStats.ENABLED) {
+                stats.leaves++;
+            }
+            return evaluator == null ? 0 : evaluation(player);
+        }
+        //Look this position (or its mirror) up in the transposition table
+        int tableMove = -1;
+        int draft = draft(depth);
+        long key = key(board.hash(), player);
+        if (table != null) {
+            long entry = table.probe(key);
+            boolean mirrored = false;
+            if (entry == TranspositionTable.MISS) {
+                entry = table.probe(key(board.mirrorHash(), player));
+                mirrored = true;
+            }
+            if (SearchStats.ENABLED) {
+                stats.probes++;
+                stats.hits += entry != TranspositionTable.MISS ? 1 : 0;
+            }
+            if (entry != TranspositionTable.MISS) {
+                tableMove = TranspositionTable.move(entry);
+                if (mirrored && tableMove != -1) {
+                    tableMove = board.columns() - 1 - tableMove;
+                }
+                if (TranspositionTable.draft(entry) == draft) {
+                    int score = fromTable(TranspositionTable.score(entry), depth);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && score >= beta)
+                            || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+        int alphaStart = alpha;
+        int[] moves = moveBuffers[depth];
+        int count = orderMoves(player, depth, tableMove);
+        //Best (score, column) so far, packed so no object is needed
+        long best = pack(-INFINITY, -1);
+        for (int i = 0; i < count; i++) {
+            int col = moves[i];
+            boolean first = i == 0;
+            play(col, player);
+            int score;
+            if (principalVariation && !first) {
+                //Prove this move is no better than the first with a null window, otherwise search it properly
+                score = -alphaBeta(next, depth + 1, -alpha - 1, -alpha, col);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(next, depth + 1, -beta, -alpha, col);
+                }
+            } else {
+                score = -alphaBeta(next, depth + 1, -beta, -alpha, col);
+            }
+            undo(col, player);
+            if (aborted) {
+                return 0;
+            }
+            if (score > scoreOf(best)) {
+                best = pack(score, col);
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (SearchStats.ENABLED) {
+                    stats.cutoffs++;
+                    stats.firstCutoffs += first ? 1 : 0;
+                }
+                rememberCutoff(player, depth, col);
+                break;
+            }
+        }
+        int bestScore = scoreOf(best);
+        if (table != null) {
+            int bound = bestScore <= alphaStart ? TranspositionTable.UPPER : (bestScore >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT);
+            table.store(key, toTable(bestScore, depth), draft, bound, moveOf(best));
+        }
+        return bestScore;
+    }
+
+    /**
+     * Play a piece in the searched board, and in the evaluator if there is one
+     *
+     * @param col    The column
+     * @param player The piece
+     */
+    private void play(int col, int player) {
+        if (evaluator != null) {
+            evaluator.play(col, board.height(col), player);
+        }
+        board.play(col, player);
+    }
+
+    /**
+     * Undo play
+     *
+     * @param col    The column
+     * @param player The piece that was played
+     */
+    private void undo(int col, int player) {
+        board.undo(col);
+        if (evaluator != null) {
+            evaluator.undo(col, board.height(col), player);
+        }
+    }
+
+    /**
+     * The transposition table key of a position, evaluated searches get their own entries
+     *
+     * @param hash   The board hash (or mirrored hash)
+     * @param player The player to move
+     * @return The key
+     */
+    private long key(long hash, int player) {
+        return hash ^ Zobrist.side(player) ^ (evaluator == null ? 0L : Zobrist.EVALUATED);
+    }
+
+    /**
+     * The evaluation of a position that is not won, lost or full, kept well away from the win and loss scores
+     *
+     * @param player The player to move
+     * @return The score for player
+     */
+    private int evaluation(int player) {
+        return Math.max(-MAX_EVALUATION, Math.min(MAX_EVALUATION, evaluator.score(player)));
+    }
+
+    /**
+     * How many plays are searched below a node, FULL if the search reaches the end of the game from it
+     *
+     * @param depth The depth of the node
+     * @return The draft to store or compare in the transposition table
+     */
+    private int draft(int depth) {
+        int empty = board.rows() * board.columns() - board.count();
+        if (maxDepth == Integer.MAX_VALUE || maxDepth - depth >= empty) {
+            return TranspositionTable.FULL;
+        }
+        return maxDepth - depth;
+    }
+
+    /**
+     * Make a score relative to the node it is stored for, wins and losses count depth from the node not the root
+     * (so the same entry can be used by searches from different roots)
+     *
+     * @param score The score at the node
+     * @param depth The depth of the node
+     * @return The score to store
+     */
+    private int toTable(int score, int depth) {
+        if (score >= winBound) {
+            return score + depth;
+        } else if (score <= -winBound) {
+            return score - depth;
+        }
+        return score;
+    }
+
+    /**
+     * Undo toTable for a node at the given depth
+     *
+     * @param score The stored score
+     * @param depth The depth of the node
+     * @return The score at the node
+     */
+    private int fromTable(int score, int depth) {
+        if (score >= winBound) {
+            return score - depth;
+        } else if (score <= -winBound) {
+            return score + depth;
+        }
+        return score;
+    }
+
+    /**
+     * Open columns of the board ordered table move first, then killers, then history, then center first
+     * The columns are written to moveBuffers[depth]
+     *
+     * @param player    The player to move
+     * @param depth     The depth of the node
+     * @param tableMove The best move from the transposition table, -1 if none
+     * @return The number of open columns
+     */
+    private int orderMoves(int player, int depth, int tableMove) {
+        int[] moves = moveBuffers[depth];
+        int[] scores = orderBuffers[depth];
+        int count = 0;
+        int[] killer = killers[Math.min(depth, killers.length - 1)];
+        for (int col : centerOrder) {
+            if (!board.canPlay(col) || !candidate(col)) {
+                continue;
+            }
+            int score;
+            if (col == tableMove) {
+                score = TABLE_MOVE;
+            } else if (col == killer[0]) {
+                score = KILLER_FIRST;
+            } else if (col == killer[1]) {
+                score = KILLER_SECOND;
+            } else {
+                score = history[player - 1][spot(col)];
+            }
+            //Insertion sort, equal scores stay center first
+            int i = count;
+            while (i > 0 && scores[i - 1] < score) {
+                moves[i] = moves[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            moves[i] = col;
+            scores[i] = score;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Is a column worth searching, its next spot is within radius of a piece (or it is the center of an empty board)
+     *
+     * @param col The open column
+     * @return True if the column is searched
+     */
+    private boolean candidate(int col) {
+        if (radius == 0) {
+            return true;
+        }
+        if (board.count() == 0) {
+            return col == centerOrder[0];
+        }
+        //Column c has pieces at heights 0 to height(c) - 1, so one is within radius of the next spot if it reaches floor
+        int floor = Math.max(0, board.height(col) - radius);
+        for (int c = Math.max(0, col - radius); c <= Math.min(board.columns() - 1, col + radius); c++) {
+            if (board.height(c) > floor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record a move that caused a cut-off in the killer and history tables
+     *
+     * @param player The player that made the move
+     * @param depth  The depth of the node
+     * @param col    The column played
+     */
+    private void rememberCutoff(int player, int depth, int col) {
+        int[] killer = killers[Math.min(depth, killers.length - 1)];
+        if (killer[0] != col) {
+            killer[1] = killer[0];
+            killer[0] = col;
+        }
+        //Cut-offs near the root prune more, so they count for more
+        int remaining = maxDepth == Integer.MAX_VALUE ? board.rows() * board.columns() - board.count() : maxDepth - depth;
+        //Capped below the killers, so a busy spot of a long solve never passes them (or wraps negative)
+        int spot = spot(col);
+        history[player - 1][spot] = Math.min(KILLER_SECOND - 1, history[player - 1][spot] + remaining * remaining);
+    }
+
+    /**
+     * The spot a piece would land in this column, used to index history
+     *
+     * @param col The column
+     * @return column * rows + height
+     */
+    private int spot(int col) {
+        return col * board.rows() + board.height(col);
+    }
+
+    /**
+     * Evaluate the board, WIN for player 1 win, -WIN for player 1 loses, otherwise the evaluation (0 without one)
+     * We adjust this starting score about how far away this win is, so that the result is a struggle
+     *
+     * @param depth The depth the board was reached at
+     * @return The score for player1
+     */
+    private int evaluate(int depth) {
+        int score = 0;
+        if (board.won(player1)) {
+            score = WIN - depth;
+        } else if (board.won(player2)) {
+            score = depth - WIN;
+        } else if (evaluator != null && !board.full()) {
+            score = evaluation(player1);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * CPSC 233 W25 Assignment 1 AlphaBetaSearchTest Class
+ * Tests the alpha-beta AI search picks winning and blocking moves and orders columns center first.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class AlphaBetaSearchTest {
+
+    @Test
+    void centerOrderTest1() {
+        // Odd boards start in the middle column
+        assertArrayEquals(new int[]{2, 1, 3, 0, 4}, AlphaBetaSearch.centerOrder(5));
+    }
+
+    @Test
+    void centerOrderTest2() {
+        // Even boards start with the two middle columns, left first
+        assertArrayEquals(new int[]{1, 2, 0, 3}, AlphaBetaSearch.centerOrder(4));
+    }
+
+    @Test
+    void searchTest1() {
+        // Red can win now by playing column 1 (same board as BoardTest hintTest1)
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][6] = Board.BLU;
+        board[4][6] = Board.BLU;
+        board[5][5] = Board.BLU;
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.of(board, 3), Board.RED, Board.BLU);
+        int[] result = search.search(2);
+        assertEquals(5, result[0]);
+        assertEquals(1, result[1]);
+        assertEquals(AlphaBetaSearch.WIN - 2, result[2]); // Win found at depth 2
+    }
+
+    @Test
+    void searchTest2() {
+        // Blue must block red's win in column 1, with or without principal variation search
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][3] = Board.BLU; // Red can now only finish the L-shape in column 1
+        board[5][6] = Board.BLU;
+        for (boolean principalVariation : new boolean[]{false, true}) {
+            AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.of(board, 3), Board.BLU, Board.RED);
+            search.setPrincipalVariation(principalVariation);
+            int[] result = search.search(2);
+            assertEquals(1, result[1]);
+        }
+    }
+
+    @Test
+    void searchTest3() {
+        // The search works on a copy so the given board is unchanged
+        BitBoard board = BitBoard.create(4, 4, 3);
+        board.play(0, Board.RED);
+        new AlphaBetaSearch(board, Board.BLU, Board.RED).search(4);
+        assertEquals(1, board.count());
+        assertEquals(1, board.height(0));
+    }
+
+    @Test
+    void iterateTest1() {
+        // With time to spare iterative deepening ends on the same move and score as a single search
+        int[][] board = Board.createBoard(5, 5);
+        board[4][2] = Board.RED;
+        board[4][1] = Board.BLU;
+        board[3][2] = Board.RED;
+        int[] expected = new AlphaBetaSearch(BitBoard.of(board, 3), Board.BLU, Board.RED).search(6);
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.of(board, 3), Board.BLU, Board.RED, new TranspositionTable(12));
+        assertArrayEquals(expected, search.iterate(6, 60_000));
+        assertTrue(search.getDepthReached() <= 6);
+    }
+
+    @Test
+    void iterateTest2() {
+        // With no time the first search still finishes and gives a playable move
+        BitBoard board = BitBoard.create(8, 8, 4);
+        AlphaBetaSearch search = new AlphaBetaSearch(board, Board.RED, Board.BLU);
+        int[] result = search.iterate(Integer.MAX_VALUE, 0);
+        assertTrue(search.getDepthReached() >= 1);
+        assertTrue(board.canPlay(result[1]));
+        assertEquals(board.nextRow(result[1]), result[0]);
+    }
+
+    @Test
+    void parallelTest1() {
+        // Splitting the root over workers picks the same move and score as one thread
+        int[][] board = Board.createBoard(5, 6);
+        board[4][2] = Board.RED;
+        board[4][3] = Board.BLU;
+        board[3][2] = Board.RED;
+        board[4][1] = Board.BLU;
+        int[] expected = new AlphaBetaSearch(BitBoard.of(board, 3), Board.RED, Board.BLU).search(6);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.of(board, 3), Board.RED, Board.BLU, new TranspositionTable(12));
+        search.setPool(pool);
+        assertArrayEquals(expected, search.search(6));
+        assertArrayEquals(expected, search.iterate(6, 60_000));
+        pool.shutdown();
+    }
+
+    @Test
+    void allocationTest1() {
+        // Once the per depth buffers exist a search allocates a few hundred bytes no matter how many nodes it visits
+        BitBoard board = BitBoard.create(6, 7, 4);
+        board.play(3, Board.RED);
+        AlphaBetaSearch search = new AlphaBetaSearch(board, Board.BLU, Board.RED);
+        search.search(10);
+        search.search(10);
+        assumeTrue(search.getAllocatedBytes() >= 0, "JVM cannot measure allocation");
+        assertTrue(search.getNodes() > 10_000);
+        assertTrue(search.getAllocatedBytes() < 4096, "allocated " + search.getAllocatedBytes() + " bytes");
+    }
+
+    @Test
+    void cancelTest1() throws InterruptedException {
+        // Cancelling from another thread stops a long search at once, keeping the deepest search that finished
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.create(8, 8, 4), Board.RED, Board.BLU);
+        int[][] result = new int[1][];
+        Thread thread = new Thread(() -> result[0] = search.iterate(Integer.MAX_VALUE, 60_000));
+        thread.start();
+        Thread.sleep(100);
+        search.cancel();
+        thread.join(1000);
+        assertFalse(thread.isAlive());
+        assertNotNull(result[0]);
+        assertTrue(search.getDepthReached() >= 1);
+    }
+
+    @Test
+    void candidateTest1() {
+        // With a candidate radius only columns near the pieces are searched, here the win next to them is still found
+        BitBoard board = BitBoard.create(64, 64, 4);
+        board.play(40, Board.RED);
+        board.play(40, Board.RED);
+        board.play(40, Board.RED);
+        board.play(41, Board.RED);
+        board.play(10, Board.BLU);
+        board.play(10, Board.BLU);
+        board.play(11, Board.BLU);
+        board.play(12, Board.BLU);
+        AlphaBetaSearch search = new AlphaBetaSearch(board, Board.RED, Board.BLU);
+        search.setCandidateRadius(2);
+        int[] result = search.search(2);
+        assertEquals(40, result[1]);
+        assertEquals(AlphaBetaSearch.WIN - 2, result[2]);
+    }
+
+    @Test
+    void candidateTest2() {
+        // On an empty board only the center column is a candidate
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.create(64, 64, 5), Board.RED, Board.BLU);
+        search.setCandidateRadius(2);
+        assertEquals(31, search.search(3)[1]);
+    }
+}
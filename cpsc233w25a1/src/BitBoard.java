@@ -0,0 +1,495 @@
+/**
+ * A packed (bitboard) version of the Connect-L board used by the AI search.
+ *
+ * Each player's pieces are stored as set bits and the height of every column is tracked as a byte, so playing and
+ * undoing a piece is O(1) and win detection is done with shift-and-mask over whole boards instead of scanning cells.
+ *
+ * Rows follow the same convention as the 2D array board (row 0 is the top of the board), so rows returned from
+ * play/undo can be used directly with the Board functions and the GUI.
+ *
+ * A win is the same L shape as Board: length pieces in a line (row, column or diagonal) where the first or last piece
+ * of the line also has a piece of the same colour beside it perpendicular to the line.
+ *
+ * won checks the whole board, which costs more the bigger the board is. wins checks only the lines through the last
+ * piece played, walking runs of the same piece out from it no further than length, so it costs the same on any board.
+ *
+ * A Zobrist hash of the pieces (and of the left-right mirror of the board) is kept up to date on every play and undo
+ * so the AI can look positions up in a TranspositionTable.
+ *
+ * Two layouts exist:
+ * - SingleLongBitBoard: one long per player, used when columns * (rows + 1) fits in 64 bits (every board up to 8x7)
+ * - MultiLongBitBoard: one long per column per player, used for any larger board (up to 64 rows)
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public abstract class BitBoard {
+
+    /**
+     * No piece in board (empty)
+     */
+    public static final int EMP = Game.EMP;
+    /**
+     * Connect-L Red Piece
+     */
+    public static final int RED = Game.RED;
+    /**
+     * Connect-L Blue Piece
+     */
+    public static final int BLU = Game.BLU;
+
+    /**
+     * The most rows the multi-long layout can hold (one long per column)
+     */
+    public static final int MAX_ROWS = Long.SIZE;
+    /**
+     * The most columns a packed board can have (so Zobrist keys can be made ahead of time)
+     */
+    public static final int MAX_COLUMNS = 64;
+
+    /**
+     * Lines through a spot as (column step, height step, perpendicular column step, perpendicular height step):
+     * row, column, up-right diagonal, down-right diagonal
+     */
+    private static final int[][] LINES = {{1, 0, 0, 1}, {0, 1, 1, 0}, {1, 1, 1, -1}, {1, -1, 1, 1}};
+    /**
+     * Boards with at most this many spots check a play with won (shifting the whole board is quicker than walking
+     * lines until about 12x12), bigger boards with wins
+     */
+    private static final int SCAN_CELLS = 144;
+
+    /**
+     * Number of rows in board
+     */
+    protected final int rows;
+    /**
+     * Number of columns in board
+     */
+    protected final int columns;
+    /**
+     * The length of the long side of the L-shape needed to win
+     */
+    protected final int length;
+    /**
+     * How many pieces are stacked in each column (0 is empty, rows is full)
+     */
+    protected final byte[] heights;
+    /**
+     * How many pieces are in the board, so full() is O(1)
+     */
+    protected int count;
+    /**
+     * Zobrist hash of the pieces in the board
+     */
+    protected long hash;
+    /**
+     * Zobrist hash of the pieces in the board flipped left to right
+     */
+    protected long mirrorHash;
+
+    /**
+     * An empty board of the given size and win length (only children can be made)
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     */
+    protected BitBoard(int rows, int columns, int length) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = length;
+        this.heights = new byte[columns];
+        this.count = 0;
+        this.hash = Zobrist.geometry(rows, columns, length);
+        this.mirrorHash = hash;
+    }
+
+    /**
+     * Can a board of this size be packed at all
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @return True if a BitBoard of this size can be created
+     */
+    public static boolean supports(int rows, int columns) {
+        return rows > 0 && columns > 0 && rows <= MAX_ROWS && columns <= MAX_COLUMNS;
+    }
+
+    /**
+     * Create an empty packed board, picking the single long layout when it fits
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     * @return An empty packed board
+     */
+    public static BitBoard create(int rows, int columns, int length) {
+        if (!supports(rows, columns)) {
+            throw new IllegalArgumentException("BitBoard cannot hold a board of " + rows + "x" + columns + "!");
+        }
+        if (SingleLongBitBoard.fits(rows, columns)) {
+            return new SingleLongBitBoard(rows, columns, length);
+        }
+        return new MultiLongBitBoard(rows, columns, length);
+    }
+
+    /**
+     * Create a packed copy of a 2D array board
+     * Column heights count the pieces stacked up from the bottom, so play lands where Board.play would
+     *
+     * @param board  The 2D array board of size rows (dimension 1) and columns (dimension 2)
+     * @param length The length of the long side of the L-shape needed to win
+     * @return A packed board with the same pieces
+     */
+    public static BitBoard of(int[][] board, int length) {
+        int totalRows = board.length;
+        int totalColumns = board[0].length;
+        BitBoard packed = create(totalRows, totalColumns, length);
+        for (int column = 0; column < totalColumns; column++) {
+            boolean stacked = true;
+            for (int height = 0; height < totalRows; height++) {
+                int piece = board[totalRows - 1 - height][column];
+                if (piece == EMP) {
+                    stacked = false;
+                } else {
+                    packed.set(column, height, piece);
+                    packed.toggleHash(column, height, piece);
+                    packed.count++;
+                    if (stacked) {
+                        packed.heights[column]++;
+                    }
+                }
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Number of rows in board
+     *
+     * @return The number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Number of columns in board
+     *
+     * @return The number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * The length of the long side of the L-shape needed to win
+     *
+     * @return The win length
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * How many pieces have been played in the board
+     *
+     * @return The piece count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Zobrist hash of the pieces in the board
+     *
+     * @return The hash
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Zobrist hash of the board flipped left to right (a mirrored board plays exactly the same)
+     *
+     * @return The mirrored hash
+     */
+    public long mirrorHash() {
+        return mirrorHash;
+    }
+
+    /**
+     * How many pieces are stacked in a column
+     *
+     * @param column The column to check
+     * @return The number of pieces in that column
+     */
+    public int height(int column) {
+        return heights[column];
+    }
+
+    /**
+     * Is there room left to play in the given column
+     *
+     * @param column The column to check
+     * @return True if the column is not full
+     */
+    public boolean canPlay(int column) {
+        return heights[column] < rows;
+    }
+
+    /**
+     * The row a piece would land in if played in the given column
+     *
+     * @param column The column to check
+     * @return The row (0 is top) or -1 if the column is full
+     */
+    public int nextRow(int column) {
+        return canPlay(column) ? rows - 1 - heights[column] : -1;
+    }
+
+    /**
+     * Play a piece in the given column
+     *
+     * @param column The column to play in
+     * @param piece  The piece to play (RED or BLU)
+     * @return The row (0 is top) the piece landed in, or -1 if there is no room
+     */
+    public int play(int column, int piece) {
+        if (!canPlay(column)) {
+            return -1;
+        }
+        int height = heights[column];
+        set(column, height, piece);
+        toggleHash(column, height, piece);
+        heights[column]++;
+        count++;
+        return rows - 1 - height;
+    }
+
+    /**
+     * Remove the top piece of the given column
+     *
+     * @param column The column to remove from
+     * @return The row (0 is top) the piece was removed from, or -1 if the column is empty
+     */
+    public int undo(int column) {
+        if (heights[column] == 0) {
+            return -1;
+        }
+        heights[column]--;
+        count--;
+        int height = heights[column];
+        toggleHash(column, height, pieceAt(column, height));
+        clear(column, height);
+        return rows - 1 - height;
+    }
+
+    /**
+     * Is every spot of the board filled
+     *
+     * @return True if the board is full
+     */
+    public boolean full() {
+        return count == rows * columns;
+    }
+
+    /**
+     * Is the game complete due to a win or tie by either player
+     *
+     * @return True if game is complete
+     */
+    public boolean isGameOver() {
+        return full() || won(RED) || won(BLU);
+    }
+
+    /**
+     * The piece at a row and column
+     *
+     * @param row    The row (0 is top)
+     * @param column The column
+     * @return EMP, RED or BLU
+     */
+    public int get(int row, int column) {
+        return pieceAt(column, rows - 1 - row);
+    }
+
+    /**
+     * Copy this board back out to a 2D array board
+     *
+     * @return A new 2D array board with the same pieces
+     */
+    public int[][] toArray() {
+        int[][] board = new int[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                board[row][column] = get(row, column);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Has the given piece made an L-shape anywhere in the board
+     *
+     * @param piece The piece (RED or BLU) to check for a win
+     * @return True if piece has won
+     */
+    public abstract boolean won(int piece);
+
+    /**
+     * Does the top piece of a column make an L-shape (the same as Board.wins for the spot)
+     * After a play in a board no one had won, this is the same as won for the piece played, but only looks at the
+     * lines through that piece
+     *
+     * @param column The column last played in
+     * @return True if the top piece of the column is part of an L-shape
+     */
+    public boolean wins(int column) {
+        int height = heights[column] - 1;
+        if (height < 0) {
+            return false;
+        }
+        int piece = pieceAt(column, height);
+        for (int[] line : LINES) {
+            int dc = line[0], dh = line[1], pc = line[2], ph = line[3];
+            //The piece is in the line, some length window through it must have a perpendicular piece at an end
+            int back = run(column, height, -dc, -dh, piece);
+            int forward = run(column, height, dc, dh, piece);
+            for (int start = -back; start <= Math.min(0, forward - (length - 1)); start++) {
+                int end = start + length - 1;
+                if (perpendicular(column + start * dc, height + start * dh, pc, ph, piece)
+                        || perpendicular(column + end * dc, height + end * dh, pc, ph, piece)) {
+                    return true;
+                }
+            }
+            //The piece is the perpendicular piece, a length window must start or end next to it
+            for (int side = -1; side <= 1; side += 2) {
+                int c = column + side * pc;
+                int h = height + side * ph;
+                if (is(c, h, piece) && (run(c, h, dc, dh, piece) >= length - 1 || run(c, h, -dc, -dh, piece) >= length - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Did the last play in a column win, for a board no one had won before that play
+     * Uses whichever of won and wins is quicker for the board size
+     *
+     * @param column The column last played in
+     * @return True if the piece played won
+     */
+    public boolean wonWith(int column) {
+        if (rows * columns <= SCAN_CELLS) {
+            return heights[column] > 0 && won(pieceAt(column, heights[column] - 1));
+        }
+        return wins(column);
+    }
+
+    /**
+     * How many of piece follow a spot in a straight line, not counting the spot, counting no further than length - 1
+     * (a longer run makes no more windows)
+     *
+     * @param column The column to start from
+     * @param height The height to start from
+     * @param dc     The column step
+     * @param dh     The height step
+     * @param piece  The piece to count
+     * @return The number of piece in a row after the spot, at most length - 1
+     */
+    private int run(int column, int height, int dc, int dh, int piece) {
+        int count = 0;
+        for (int c = column + dc, h = height + dh; count < length - 1 && is(c, h, piece); c += dc, h += dh) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Is there a piece on either side of a spot in the perpendicular direction
+     *
+     * @param column The column of the line end
+     * @param height The height of the line end
+     * @param pc     The perpendicular column step
+     * @param ph     The perpendicular height step
+     * @param piece  The piece to look for
+     * @return True if piece is one perpendicular step either way
+     */
+    private boolean perpendicular(int column, int height, int pc, int ph, int piece) {
+        return is(column - pc, height - ph, piece) || is(column + pc, height + ph, piece);
+    }
+
+    /**
+     * Is a spot in the board and holding a piece
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     * @param piece  The piece to look for
+     * @return True if the spot is in the board and holds piece
+     */
+    private boolean is(int column, int height, int piece) {
+        return column >= 0 && column < columns && height >= 0 && height < rows && pieceAt(column, height) == piece;
+    }
+
+    /**
+     * A deep copy of this board (so a search can change it without touching the original)
+     *
+     * @return A copy of this board
+     */
+    public abstract BitBoard copy();
+
+    /**
+     * Place a piece bit at a column and height (0 is bottom)
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     * @param piece  The piece (RED or BLU)
+     */
+    protected abstract void set(int column, int height, int piece);
+
+    /**
+     * Remove any piece bit at a column and height (0 is bottom)
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     */
+    protected abstract void clear(int column, int height);
+
+    /**
+     * The piece at a column and height (0 is bottom)
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     * @return EMP, RED or BLU
+     */
+    protected abstract int pieceAt(int column, int height);
+
+    /**
+     * Add or remove a piece from both hashes
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     * @param piece  The piece (RED or BLU)
+     */
+    private void toggleHash(int column, int height, int piece) {
+        hash ^= Zobrist.key(piece, column, height);
+        mirrorHash ^= Zobrist.key(piece, columns - 1 - column, height);
+    }
+
+    /**
+     * Copy the shared fields into a new board of the same size
+     *
+     * @param other The board to copy heights and count into
+     * @return other
+     */
+    protected BitBoard copyInto(BitBoard other) {
+        System.arraycopy(heights, 0, other.heights, 0, columns);
+        other.count = count;
+        other.hash = hash;
+        other.mirrorHash = mirrorHash;
+        return other;
+    }
+}
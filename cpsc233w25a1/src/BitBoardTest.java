@@ -0,0 +1,207 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 BitBoardTest Class
+ * Tests for the packed BitBoard, checking it agrees with the 2D array Board for both the single long and multi long layouts.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class BitBoardTest {
+
+    @Test
+    void createTest1() {
+        // 8x7 fits in one long (7 columns * 9 bits = 63)
+        BitBoard board = BitBoard.create(8, 7, 4);
+        assertTrue(board instanceof SingleLongBitBoard);
+        assertEquals(8, board.rows());
+        assertEquals(7, board.columns());
+        assertEquals(0, board.count());
+    }
+
+    @Test
+    void createTest2() {
+        // 8x8 does not fit in one long (8 columns * 9 bits = 72)
+        BitBoard board = BitBoard.create(8, 8, 4);
+        assertTrue(board instanceof MultiLongBitBoard);
+    }
+
+    @Test
+    void ofTest1() {
+        // Packing and unpacking should give back the same 2D array
+        int[][] board = Board.createBoard(6, 7);
+        Board.play(board, 0, Board.RED);
+        Board.play(board, 0, Board.BLU);
+        Board.play(board, 6, Board.RED);
+        BitBoard packed = BitBoard.of(board, 4);
+        assertArrayEquals(board, packed.toArray());
+        assertEquals(3, packed.count());
+        assertEquals(2, packed.height(0));
+        assertEquals(Board.BLU, packed.get(4, 0));
+    }
+
+    @Test
+    void playTest1() {
+        // Plays land in the same row as Board.play and undo removes them again
+        int[][] board = Board.createBoard(4, 4);
+        BitBoard packed = BitBoard.of(board, 3);
+        for (int row = 3; row >= 0; row--) {
+            assertEquals(row, packed.play(2, Board.RED));
+            assertEquals(Board.play(board, 2, Board.RED), row);
+        }
+        assertFalse(packed.canPlay(2));
+        assertEquals(-1, packed.play(2, Board.BLU));
+        assertEquals(0, packed.undo(2));
+        assertEquals(0, packed.nextRow(2));
+    }
+
+    @Test
+    void wonTest1() {
+        // Row L-shape with perpendicular piece at the start
+        int[][] board = Board.createBoard(6, 7);
+        board[5][1] = Board.RED;
+        board[5][2] = Board.RED;
+        board[5][3] = Board.RED;
+        board[4][1] = Board.RED;
+        assertTrue(BitBoard.of(board, 3).won(Board.RED));
+        assertFalse(BitBoard.of(board, 3).won(Board.BLU));
+    }
+
+    @Test
+    void wonTest2() {
+        // A straight line without a perpendicular piece is not a win
+        int[][] board = Board.createBoard(6, 7);
+        board[5][1] = Board.RED;
+        board[5][2] = Board.RED;
+        board[5][3] = Board.RED;
+        board[5][4] = Board.RED;
+        assertFalse(BitBoard.of(board, 4).won(Board.RED));
+    }
+
+    @Test
+    void wonTest3() {
+        // Same diagonal cases as BoardTest on a multi long board
+        int[][] board = Board.createBoard(8, 8);
+        board[5][3] = Board.RED;
+        board[4][4] = Board.RED;
+        board[3][5] = Board.RED;
+        board[2][6] = Board.RED;
+        board[3][7] = Board.RED; // Perpendicular piece
+        assertTrue(BitBoard.of(board, 4).won(Board.RED));
+        board[3][7] = Board.EMP;
+        board[1][1] = Board.RED; // Not at the start or end
+        assertFalse(BitBoard.of(board, 4).won(Board.RED));
+    }
+
+    @Test
+    void wonTest4() {
+        // Column L-shape on a single long board must agree with Board.winInColumn
+        int[][] board = Board.createBoard(5, 5);
+        board[4][2] = Board.BLU;
+        board[3][2] = Board.BLU;
+        board[2][2] = Board.BLU;
+        board[2][3] = Board.BLU;
+        assertEquals(Board.winInColumn(board, 2, Board.BLU, 3), BitBoard.of(board, 3).won(Board.BLU));
+        assertTrue(BitBoard.of(board, 3).won(Board.BLU));
+    }
+
+    @Test
+    void hashTest1() {
+        // Undoing plays gives back the same hash
+        BitBoard packed = BitBoard.create(6, 7, 4);
+        long empty = packed.hash();
+        packed.play(3, Board.RED);
+        packed.play(4, Board.BLU);
+        assertNotEquals(empty, packed.hash());
+        packed.undo(4);
+        packed.undo(3);
+        assertEquals(empty, packed.hash());
+    }
+
+    @Test
+    void hashTest2() {
+        // The mirror hash of a board is the hash of the board flipped left to right
+        BitBoard packed = BitBoard.create(6, 7, 4);
+        BitBoard flipped = BitBoard.create(6, 7, 4);
+        packed.play(0, Board.RED);
+        packed.play(1, Board.BLU);
+        packed.play(0, Board.RED);
+        flipped.play(6, Board.RED);
+        flipped.play(5, Board.BLU);
+        flipped.play(6, Board.RED);
+        assertEquals(packed.mirrorHash(), flipped.hash());
+        assertEquals(packed.hash(), flipped.mirrorHash());
+    }
+
+    @Test
+    void hashTest3() {
+        // Same pieces but a different win length hash differently
+        int[][] board = Board.createBoard(5, 5);
+        board[4][0] = Board.RED;
+        assertNotEquals(BitBoard.of(board, 3).hash(), BitBoard.of(board, 4).hash());
+    }
+
+    @Test
+    void copyTest1() {
+        // A copy is independent of the original
+        BitBoard packed = BitBoard.create(4, 5, 3);
+        packed.play(0, Board.RED);
+        BitBoard copy = packed.copy();
+        copy.play(0, Board.BLU);
+        assertEquals(1, packed.count());
+        assertEquals(2, copy.count());
+        assertEquals(Board.EMP, packed.get(2, 0));
+    }
+
+    @Test
+    void winsTest1() {
+        // A diagonal L on a 64x64 board is found from its last piece, and only once it is complete
+        BitBoard packed = BitBoard.create(64, 64, 5);
+        for (int i = 0; i < 5; i++) {
+            for (int filler = 0; filler < i; filler++) {
+                packed.play(30 + i, Board.BLU);
+            }
+            packed.play(30 + i, Board.RED);
+            assertFalse(packed.wins(30 + i));
+        }
+        // The perpendicular piece below-right of the line's end completes the L
+        for (int filler = 0; filler < 3; filler++) {
+            packed.play(35, Board.BLU);
+        }
+        packed.play(35, Board.RED);
+        assertTrue(packed.wins(35));
+        assertTrue(packed.won(Board.RED));
+        assertTrue(packed.wonWith(35));
+    }
+
+    @Test
+    void winsTest2() {
+        // Every play of random games agrees with Board.wins and with won, on boards of either layout and up to 64x64
+        java.util.Random random = new java.util.Random(233);
+        int[][] sizes = {{6, 7}, {8, 8}, {20, 20}, {64, 64}, {9, 64}};
+        for (int[] size : sizes) {
+            for (int length = 3; length <= 5; length++) {
+                int[][] board = Board.createBoard(size[0], size[1]);
+                BitBoard packed = BitBoard.create(size[0], size[1], length);
+                int piece = Board.RED;
+                while (!packed.full()) {
+                    int column;
+                    do {
+                        column = random.nextInt(size[1]);
+                    } while (!packed.canPlay(column));
+                    int row = Board.play(board, column, piece);
+                    packed.play(column, piece);
+                    boolean wins = packed.wins(column);
+                    assertEquals(Board.wins(board, row, column, length), wins);
+                    assertEquals(packed.won(piece), wins);
+                    assertEquals(wins, packed.wonWith(column));
+                    if (wins) {
+                        break;
+                    }
+                    piece = piece == Board.RED ? Board.BLU : Board.RED;
+                }
+            }
+        }
+    }
+}
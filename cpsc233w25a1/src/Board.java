@@ -177,37 +177,11 @@ public class Board {
      * @return true if a winning sequence exists, false otherwise.
      */
     public static boolean winInRow(int[][] board, int row, int piece, int length) {
-        int numOfConsecutivePieces;
-        int totalColumns = columnCount(board); // Get the number of columns in the board.
-        for (int col = 0; col < totalColumns; col++) { // Iterate through each column in the specified row.
-            if (board[row][col] == piece) { // Check if the current position has the piece.
-                numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                if ((valid(board, row - 1, col) && board[row - 1][col] == piece) ||
-                        (valid(board, row + 1, col) && board[row + 1][col] == piece)){ //Check if there is perpendicular piece at the beginning.
-                    int loopOneColumn = col+1; // Start checking from the next column.
-                    while (valid(board,row,loopOneColumn)&& board[row][loopOneColumn] == piece) {
-                        numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                        loopOneColumn++; // Move to the next column.
-                        if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                            return true; // A win is found, return true.
-                        }
-                    }
-                }
-                else {
-                    for (int loopThreeColumn = col + 1; loopThreeColumn < totalColumns; loopThreeColumn++) {
-                        if (board[row][loopThreeColumn] == piece) { // Check if the piece matches.
-                            numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                            if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                                if ((valid(board, row - 1, loopThreeColumn) && board[row - 1][loopThreeColumn] == piece) ||
-                                        (valid(board, row + 1, loopThreeColumn) && board[row + 1][loopThreeColumn]
-                                                == piece)) { // Check if there is perpendicular piece at the end.
-                                    return true; // A win is found, return true.
-                                }
-                            }
-                        } else
-                            numOfConsecutivePieces = 0; // Reset if pieces don't match.
-                    }
-                }
+        WinningWindows windows = WinningWindows.of(board, length); // Every window of this board size and length.
+        for (int col = 0; col < columnCount(board); col++) { // Try the window starting at each column of the row.
+            int window = windows.start(WinningWindows.ROW, row, col);
+            if (window != -1 && windows.won(board, window, piece)) { // Filled with a perpendicular piece at an end.
+                return true; // A win is found, return true.
             }
         }
         return false; // No winning sequence found.
@@ -223,39 +197,11 @@ public class Board {
      * @return true if a winning sequence exists, false otherwise.
      */
     public static boolean winInColumn(int[][] board, int column, int piece, int length) {
-        int numOfConsecutivePieces;
-        int totalRows = rowCount(board); // Get the number of rows in the board.
-        for (int row = totalRows-1; row >= 0; row--) { // Iterate through each row in the specified column.
-            if (board[row][column] == piece) { // Check if the current position has the piece.
-                numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                // Check if any of the perpendicular cells to the column contain the same piece.
-                if ((valid(board, row, column-1) && (board[row][column - 1] == piece)) ||
-                        (valid(board, row, column+1) && board[row][column+1] == piece)){
-                    int loopOneRow = row-1; // Start checking from the previous row.
-                    while (valid(board,loopOneRow,column) && board[loopOneRow][column] == piece) {
-                        numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                        loopOneRow--; // Move to the previous row.
-                        if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                            return true; // A win is found, return true.
-                        }
-                    }
-                }
-                else {
-                    for (int loopThreeRow = row - 1; loopThreeRow >= 0; loopThreeRow--) { // Iterate over each row from bottom to top
-                        if (board[loopThreeRow][column] == piece) { // Check if the piece matches.
-                            numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                            if (numOfConsecutivePieces >= length){ // Check if the length is met.
-                                // Check if any of the perpendicular cells to the column contain the same piece.
-                                if ((valid(board,loopThreeRow,column-1) && board[loopThreeRow][column - 1] == piece) ||
-                                        (valid(board, loopThreeRow, column+1) && board[loopThreeRow][column + 1] == piece)) {
-                                    return true; // A win is found, return true.
-                                }
-                            }
-                        }
-                        else
-                            numOfConsecutivePieces = 0; // Reset if pieces don't match.
-                    }
-                }
+        WinningWindows windows = WinningWindows.of(board, length); // Every window of this board size and length.
+        for (int row = 0; row < rowCount(board); row++) { // Try the window starting at each row of the column.
+            int window = windows.start(WinningWindows.COLUMN, row, column);
+            if (window != -1 && windows.won(board, window, piece)) { // Filled with a perpendicular piece at an end.
+                return true; // A win is found, return true.
             }
         }
         return false; // No winning sequence found.
@@ -270,49 +216,8 @@ public class Board {
      * @return true if a winning sequence exists in the backslash diagonal, false otherwise.
      */
     public static boolean winInDiagonalBackslash(int[][] board, int piece, int length) {
-        int numOfConsecutivePieces;
-        int totalColumns = columnCount(board); // Get the number of columns in the board.
-        int totalRows = rowCount(board); // Get the number of rows in the board.
-        // Loop through each row and column to find the first occurrence of the piece.
-        for (int loopOnerow = totalRows-1; loopOnerow >= 0; loopOnerow--) {
-            for (int loopOneColumn = totalColumns-1; loopOneColumn >= 0; loopOneColumn--) {
-                if (board[loopOnerow][loopOneColumn] == piece) { // Check if the current position contains the piece.
-                    // Check if any of the perpendicular cells to the diagonal contain the same piece.
-                    if ((valid(board,loopOnerow-1,loopOneColumn+1) && board[loopOnerow-1][loopOneColumn+1] == piece) ||
-                            (valid(board,loopOnerow+1,loopOneColumn-1) && board[loopOnerow+1][loopOneColumn-1] == piece)){
-                        numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                        int loopTwoRow = loopOnerow-1;
-                        int loopTwoColumn = loopOneColumn-1;
-                        while ((valid(board,loopTwoRow,loopTwoColumn) && board[loopTwoRow][loopTwoColumn] == piece)){
-                            numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                            loopTwoColumn--; // Move diagonally left and up.
-                            loopTwoRow--; // Move diagonally left and up.
-                            if (numOfConsecutivePieces >= length){ // Check if the length is met.
-                                return true; // A win is found, return true.
-                            }
-                        }
-                    }
-                    else {
-                        int loopThreeRow = loopOnerow-1;
-                        int loopThreeColumn = loopOneColumn-1;
-                        numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                        while (loopThreeRow >= 0 && loopThreeColumn >= 0 && board[loopThreeRow][loopThreeColumn] == piece) {
-                            numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                            if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                                // Check if any of the perpendicular cells have the same piece.
-                                if ((valid(board, loopThreeRow - 1, loopThreeColumn + 1) && (board[loopThreeRow - 1][loopThreeColumn + 1] == piece) ||
-                                        (valid(board, loopThreeRow + 1, loopThreeColumn - 1) && board[loopThreeRow + 1][loopThreeColumn - 1] == piece))) {
-                                    return true; // A win is found, return true.
-                                }
-                            }
-                            loopThreeColumn--; // Move diagonally left and up.
-                            loopThreeRow--; // Move diagonally left and up.
-                        }
-                    }
-                }
-            }
-        }
-        return false; // No winning sequence found.
+        // Check every backslash window of this board size and length.
+        return WinningWindows.of(board, length).wonIn(board, WinningWindows.BACKSLASH, piece);
     }
 
     /**
@@ -324,51 +229,8 @@ public class Board {
      * @return true if a winning sequence exists in the forward slash diagonal, false otherwise.
      */
     public static boolean winInDiagonalForwardSlash(int[][] board, int piece, int length){
-        int numOfConsecutivePieces;
-        int totalColumns = columnCount(board); // Get the number of columns in the board.
-        int totalRows = rowCount(board); // Get the number of rows in the board.
-        // Loop through each row and column to find the first occurrence of the piece.
-        for (int loopOneRow = totalRows-1; loopOneRow >= 0; loopOneRow--) {
-            for (int loopOneColumn = 0; loopOneColumn < totalColumns; loopOneColumn++) {
-                if (board[loopOneRow][loopOneColumn] == piece) { // Check if the current position contains the piece.
-                    //Check if any of the perpendicular cells has the same piece.
-                    if ((valid(board, loopOneRow - 1, loopOneColumn - 1) && board[loopOneRow - 1][loopOneColumn - 1] == piece) ||
-                            (valid(board, loopOneRow + 1, loopOneColumn + 1) && board[loopOneRow + 1][loopOneColumn + 1] == piece)) {
-                        numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                        int loopTwoRow = loopOneRow - 1;
-                        int loopTwoColumn = loopOneColumn + 1;
-                        while (valid(board, loopTwoRow, loopTwoColumn) && board[loopTwoRow][loopTwoColumn] == piece) {
-                            numOfConsecutivePieces++; // Increment the count of consecutive pieces.
-                            loopTwoRow--; // Move up.
-                            loopTwoColumn++; // Move right
-                            if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                                return true; // A win is found, return true.
-                            }
-                        }
-                    }else {
-                        numOfConsecutivePieces = 1; // Start counting consecutive pieces.
-                        //Iterate through each diagonal cell.
-                        for (int loopThreeRow = loopOneRow - 1, loopThreeColumn = loopOneColumn + 1; loopThreeRow >= 0
-                                && loopThreeColumn < totalColumns; loopThreeRow--, loopThreeColumn++) {
-                            if (board[loopThreeRow][loopThreeColumn] == piece) { //Check if the current cell has the same piece.
-                                numOfConsecutivePieces++;  // Increment the count of consecutive pieces.
-                                if (numOfConsecutivePieces >= length) { // Check if the length is met.
-                                    //Check if any of the perpendicular cells has the same piece.
-                                    if ((valid(board, loopThreeRow - 1, loopThreeColumn - 1) &&
-                                            board[loopThreeRow - 1][loopThreeColumn - 1] == piece) ||
-                                            (valid(board, loopThreeRow + 1, loopThreeColumn + 1) &&
-                                                    board[loopThreeRow + 1][loopThreeColumn + 1] == piece)){
-                                        return true; // A win is found, return true
-                                    }
-                                }
-                            } else
-                                numOfConsecutivePieces = 0; // Reset the count if no match is found.
-                        }
-                    }
-                }
-            }
-        }
-        return false; // No winning sequence found.
+        // Check every forward slash window of this board size and length.
+        return WinningWindows.of(board, length).wonIn(board, WinningWindows.FORWARD_SLASH, piece);
     }
 
     /**
@@ -387,9 +249,8 @@ public class Board {
         for (int column = 0; column < columnCount(board); column++) {
             if (canPlay(board, column)){
                 int row = play(board,column,piece); // Play the piece in the column.
-                // Check if the move results in a win in any row, column, or diagonal.
-                if (winInAnyColumn(board, piece, length) || winInAnyRow(board, piece, length) ||
-                        winInAnyDiagonal(board, piece, length)){
+                // Check if the move results in a win, only lines through or touching the new piece can have changed.
+                if (wins(board, row, column, length)){
                     removeLastPlay(board, column); // Undo the move if it results in a win.
                     array = new int[]{row, column}; // Store the row and column of the winning move.
                     return array; // Return the winning move.
@@ -457,15 +318,60 @@ public class Board {
 
     /**
      * Has the given piece won the board
+     * (packs the board into a BitBoard so the check is done with shift-and-mask instead of scanning every line)
      *
      * @param board The 2D array board of size rows (dimension 1) and columns (dimension 2)
      * @param piece The piece to check for a win
      * @return True if piece has won
      */
     public static boolean won(int[][] board, int piece, int length) {
+        if (BitBoard.supports(rowCount(board), columnCount(board))) {
+            return BitBoard.of(board, length).won(piece);
+        }
         return winInAnyRow(board, piece, length) || winInAnyColumn(board, piece, length) || winInAnyDiagonal(board, piece, length);
     }
 
+    /**
+     * Does the piece at (row, column) make a win, checking only the windows it can change (O(length) not the whole board)
+     * A new piece can be part of the winning window, or be the perpendicular piece at the end of one (see WinningWindows)
+     * Wins that were already on the board without this piece are not looked for
+     *
+     * @param board  The 2D array board of size rows (dimension 1) and columns (dimension 2)
+     * @param row    The row of the last piece played
+     * @param column The column of the last piece played
+     * @param length The length of the long side of the L-shape needed to win
+     * @return True if the piece at (row, column) wins for its player
+     */
+    public static boolean wins(int[][] board, int row, int column, int length) {
+        return WinningWindows.of(board, length).wins(board, row, column);
+    }
+
+
+    /**
+     * Is the board full, given how many plays have been made (O(1) instead of scanning for an empty spot)
+     *
+     * @param board  The 2D array board of size rows (dimension 1) and columns (dimension 2)
+     * @param filled The number of pieces on the board
+     * @return True if every spot is filled
+     */
+    public static boolean full(int[][] board, int filled) {
+        return filled == rowCount(board) * columnCount(board);
+    }
+
+    /**
+     * Is the game complete after the last play, checking only the last piece for a win and the play count for a tie
+     *
+     * @param board  The 2D array board of size rows (dimension 1) and columns (dimension 2)
+     * @param row    The row of the last piece played
+     * @param column The column of the last piece played
+     * @param length The length of the long side of the L-shape needed to win
+     * @param filled The number of pieces on the board
+     * @return True if game is complete, False otherwise
+     */
+    public static boolean isGameOver(int[][] board, int row, int column, int length, int filled) {
+        return full(board, filled) || wins(board, row, column, length);
+    }
+
     /**
      * This function determines if the game is complete due to a win or tie by either player
      *
@@ -473,6 +379,9 @@ public class Board {
      * @return True if game is complete, False otherwise
      */
     public static boolean isGameOver(int[][] board, int length) {
+        if (BitBoard.supports(rowCount(board), columnCount(board))) {
+            return BitBoard.of(board, length).isGameOver();
+        }
         return full(board) || won(board, RED, length) || won(board, BLU, length);
     }
 
@@ -0,0 +1,346 @@
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Draws a Connect-L board into an offscreen image and works out the part of the window that changed
+ *
+ * The board colour and every square are drawn once, then each update only redraws the squares whose piece changed
+ * (each square is copied from a sprite made once per piece), the squares under the old and new hint, and the game
+ * over message. update returns the changed area so the window can repaint just that part, and paint copies the image
+ * inside the area being repainted, so a play on a 64x64 board repaints one square instead of 4096 pieces.
+ *
+ * update is called from the game thread and paint from the Swing thread, both hold the renderer's lock.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class BoardRenderer {
+
+    /**
+     * Most pixels between a piece and the edge of its square
+     */
+    static final int PIECE_BORDER = 15;
+    /**
+     * Thickest hint outline (pixels)
+     */
+    static final int HINT_STROKE = 10;
+    /**
+     * Pixels between the game over message and the edge of its box
+     */
+    static final int TEXT_BORDER = 1;
+
+    /**
+     * The number of rows in the board
+     */
+    private final int rows;
+    /**
+     * The number of columns in the board
+     */
+    private final int columns;
+    /**
+     * Height of a square (pixels)
+     */
+    private final int rowPixels;
+    /**
+     * Width of a square (pixels)
+     */
+    private final int columnPixels;
+    /**
+     * Colour of each piece by piece number (EMP is the colour of an empty hole)
+     */
+    private final Color[] pieceColours;
+    /**
+     * Colour of the hint outline and piece
+     */
+    private final Color hintColour;
+    /**
+     * Colour of the box behind the message
+     */
+    private final Color background;
+    /**
+     * Font of the message
+     */
+    private final Font font;
+    /**
+     * What the window shows
+     */
+    private final BufferedImage image;
+    /**
+     * Drawing into image
+     */
+    private final Graphics2D graphics;
+    /**
+     * A square with each piece in it, by piece number, made for boardColour
+     */
+    private final BufferedImage[] sprites;
+    /**
+     * The piece drawn in each square
+     */
+    private final int[][] drawn;
+    /**
+     * Board colour drawn, null before the first update
+     */
+    private Color boardColour;
+    /**
+     * The (row, col) of the hint drawn, null for none
+     */
+    private int[] hint;
+    /**
+     * The message drawn, null for none
+     */
+    private String message;
+
+    /**
+     * Create a renderer, nothing is drawn until the first update
+     *
+     * @param rows       The number of rows in the board
+     * @param columns    The number of columns in the board
+     * @param width      Window width (pixels)
+     * @param height     Window height (pixels)
+     * @param background Colour of empty holes and the box behind the message
+     * @param red        Colour of RED pieces
+     * @param blue       Colour of BLU pieces
+     * @param hint       Colour of the hint
+     * @param font       Font of the message
+     */
+    public BoardRenderer(int rows, int columns, int width, int height, Color background, Color red, Color blue,
+                         Color hint, Font font) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPixels = height / rows;
+        this.columnPixels = width / columns;
+        this.pieceColours = new Color[]{background, red, blue};
+        this.hintColour = hint;
+        this.background = background;
+        this.font = font;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.graphics = image.createGraphics();
+        this.sprites = new BufferedImage[pieceColours.length];
+        this.drawn = new int[rows][columns];
+    }
+
+    /**
+     * Bring the image up to date with the game
+     *
+     * @param board       The 2D array board
+     * @param boardColour Colour of the board
+     * @param hint        The (row, col) of the hint, null for none
+     * @param message     The game over message, null for none
+     * @return The area of the window that changed, null if nothing did
+     */
+    public synchronized Rectangle update(int[][] board, Color boardColour, int[] hint, String message) {
+        Rectangle dirty = null;
+        if (!boardColour.equals(this.boardColour)) {
+            //A new board colour changes every square, start over
+            this.boardColour = boardColour;
+            for (int piece = 0; piece < sprites.length; piece++) {
+                sprites[piece] = sprite(pieceColours[piece]);
+            }
+            graphics.setColor(boardColour);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    drawSquare(row, col, board[row][col]);
+                }
+            }
+            this.hint = null;
+            this.message = null;
+            dirty = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+        } else {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    if (board[row][col] != drawn[row][col]) {
+                        drawSquare(row, col, board[row][col]);
+                        dirty = union(dirty, square(row, col));
+                    }
+                }
+            }
+        }
+        //The hint outline spills onto the squares around it, so moving it redraws those
+        boolean hintMoved = !Arrays.equals(hint, this.hint);
+        if (this.hint != null && hintMoved) {
+            Rectangle old = hintArea(this.hint);
+            eraseArea(old);
+            dirty = union(dirty, old);
+        }
+        if (hint != null && (hintMoved || (dirty != null && dirty.intersects(hintArea(hint))))) {
+            drawHint(hint);
+            dirty = union(dirty, hintArea(hint));
+        }
+        this.hint = hint == null ? null : hint.clone();
+        //The message sits on top of everything, so it is drawn again over any change
+        if (message != null && (dirty != null || !message.equals(this.message))) {
+            dirty = union(dirty, drawMessage(graphics, message, font, background, image.getWidth(), image.getHeight()));
+        }
+        this.message = message;
+        return dirty;
+    }
+
+    /**
+     * Copy the image to the window, only the part inside the graphics' clip is copied
+     *
+     * @param graphics The window's graphics
+     */
+    public synchronized void paint(Graphics graphics) {
+        graphics.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * What the window shows
+     *
+     * @return The image (not a copy)
+     */
+    BufferedImage image() {
+        return image;
+    }
+
+    /**
+     * The gap between a piece and the edge of its square, small squares of big boards get a border in proportion
+     *
+     * @param width  Square width (pixels)
+     * @param height Square height (pixels)
+     * @return The border (pixels)
+     */
+    static int pieceBorder(int width, int height) {
+        return Math.min(PIECE_BORDER, Math.min(width, height) / 5);
+    }
+
+    /**
+     * The thickness of the hint outline, lines as thick as on the classic board would cover small squares
+     *
+     * @param width  Square width (pixels)
+     * @param height Square height (pixels)
+     * @return The stroke width (pixels)
+     */
+    static int hintStroke(int width, int height) {
+        return Math.min(HINT_STROKE, Math.max(1, Math.min(width, height) / 6));
+    }
+
+    /**
+     * Draw a message centered over a box (text and fonts are messy, the font metrics give the size)
+     *
+     * @param graphics Where we are drawing to
+     * @param message  The message
+     * @param font     The font
+     * @param box      Colour of the box behind the message
+     * @param width    Window width (pixels)
+     * @param height   Window height (pixels)
+     * @return The area of the box
+     */
+    static Rectangle drawMessage(Graphics2D graphics, String message, Font font, Color box, int width, int height) {
+        graphics.setFont(font);
+        Rectangle2D rect = graphics.getFontMetrics().getStringBounds(message, graphics);
+        int stringLen = (int) rect.getWidth();
+        int font_ascent = graphics.getFontMetrics().getMaxAscent();
+        int font_descent = graphics.getFontMetrics().getMaxDescent();
+        int start_x = width / 2 - stringLen / 2;
+        int start_y_rect = height / 2 - font_ascent / 2;
+        int start_y_text = height / 2 + font_ascent / 2;
+        Rectangle area = new Rectangle(start_x - TEXT_BORDER, start_y_rect - TEXT_BORDER, stringLen + TEXT_BORDER * 2,
+                font_ascent + font_descent + TEXT_BORDER * 2);
+        graphics.setStroke(new BasicStroke(0));
+        graphics.setColor(box);
+        graphics.fillRect(area.x, area.y, area.width, area.height);
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(message, start_x, start_y_text);
+        return area;
+    }
+
+    /**
+     * A square of the board colour with a piece of a colour in it
+     *
+     * @param colour The piece colour
+     * @return The sprite
+     */
+    private BufferedImage sprite(Color colour) {
+        BufferedImage sprite = new BufferedImage(columnPixels, rowPixels, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = sprite.createGraphics();
+        g.setColor(boardColour);
+        g.fillRect(0, 0, columnPixels, rowPixels);
+        g.setColor(colour);
+        int border = pieceBorder(columnPixels, rowPixels);
+        g.fillOval(border, border, columnPixels - border * 2, rowPixels - border * 2);
+        g.dispose();
+        return sprite;
+    }
+
+    /**
+     * Copy a piece's sprite to a square
+     *
+     * @param row   The row
+     * @param col   The column
+     * @param piece The piece (EMP, RED or BLU)
+     */
+    private void drawSquare(int row, int col, int piece) {
+        graphics.drawImage(sprites[piece], col * columnPixels, row * rowPixels, null);
+        drawn[row][col] = piece;
+    }
+
+    /**
+     * Draw the hint outline and piece on a square
+     *
+     * @param hint The (row, col) of the hint
+     */
+    private void drawHint(int[] hint) {
+        int x = hint[1] * columnPixels;
+        int y = hint[0] * rowPixels;
+        graphics.setColor(hintColour);
+        graphics.setStroke(new BasicStroke(hintStroke(columnPixels, rowPixels)));
+        graphics.drawRect(x, y, columnPixels + 1, rowPixels + 1);
+        int border = pieceBorder(columnPixels, rowPixels);
+        graphics.fillOval(x + border, y + border, columnPixels - border * 2, rowPixels - border * 2);
+    }
+
+    /**
+     * Redraw the board colour and the squares inside an area
+     *
+     * @param area The area (pixels)
+     */
+    private void eraseArea(Rectangle area) {
+        graphics.setColor(boardColour);
+        graphics.fillRect(area.x, area.y, area.width, area.height);
+        for (int row = Math.max(0, area.y / rowPixels); row < rows && row * rowPixels < area.y + area.height; row++) {
+            for (int col = Math.max(0, area.x / columnPixels);
+                 col < columns && col * columnPixels < area.x + area.width; col++) {
+                drawSquare(row, col, drawn[row][col]);
+            }
+        }
+    }
+
+    /**
+     * The area of a square
+     *
+     * @param row The row
+     * @param col The column
+     * @return The square (pixels)
+     */
+    private Rectangle square(int row, int col) {
+        return new Rectangle(col * columnPixels, row * rowPixels, columnPixels, rowPixels);
+    }
+
+    /**
+     * The area a hint draws on, its square and the half of the outline outside it, inside the image
+     *
+     * @param hint The (row, col) of the hint
+     * @return The area (pixels)
+     */
+    private Rectangle hintArea(int[] hint) {
+        int spill = hintStroke(columnPixels, rowPixels) / 2 + 2;
+        Rectangle area = new Rectangle(hint[1] * columnPixels - spill, hint[0] * rowPixels - spill,
+                columnPixels + spill * 2, rowPixels + spill * 2);
+        return area.intersection(new Rectangle(0, 0, image.getWidth(), image.getHeight()));
+    }
+
+    /**
+     * Two areas together
+     *
+     * @param area  An area, null for none
+     * @param other Another area
+     * @return The smallest rectangle holding both
+     */
+    private static Rectangle union(Rectangle area, Rectangle other) {
+        return area == null ? other : area.union(other);
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 BoardRendererTest Class
+ * Tests that drawing only what changed gives the same image as drawing everything, and the areas it reports.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class BoardRendererTest {
+
+    private static final Font FONT = new Font("Times", Font.BOLD, 50);
+
+    @Test
+    void updateTest1() {
+        // One play changes only its square, and an update with nothing new changes nothing
+        int[][] board = Board.createBoard(6, 7);
+        BoardRenderer renderer = renderer(board, 600, 600);
+        assertEquals(new Rectangle(0, 0, 600, 600), renderer.update(board, Color.yellow, null, null));
+        assertNull(renderer.update(board, Color.yellow, null, null));
+        Board.play(board, 3, Board.RED);
+        assertEquals(new Rectangle(3 * 85, 5 * 100, 85, 100), renderer.update(board, Color.yellow, null, null));
+        assertNull(renderer.update(board, Color.yellow, null, null));
+    }
+
+    @Test
+    void updateTest2() {
+        // Playing, moving the hint and changing the board colour piece by piece draws what drawing from scratch does
+        Random random = new Random(233);
+        for (int size : new int[]{4, 9, 64}) {
+            int[][] board = Board.createBoard(size, size + 1);
+            BoardRenderer renderer = renderer(board, 600, 640);
+            renderer.update(board, Color.yellow, null, null);
+            int piece = Board.RED;
+            for (int play = 0; play < 40; play++) {
+                int column = random.nextInt(size + 1);
+                if (Board.canPlay(board, column)) {
+                    Board.play(board, column, piece);
+                    piece = piece == Board.RED ? Board.BLU : Board.RED;
+                }
+                int[] hint = random.nextBoolean() ? null : new int[]{random.nextInt(size), random.nextInt(size + 1)};
+                Color colour = play % 13 == 12 ? Color.green : Color.yellow;
+                Rectangle dirty = renderer.update(board, colour, hint, null);
+                BoardRenderer fresh = renderer(board, 600, 640);
+                fresh.update(board, colour, hint, null);
+                assertSameImage(fresh.image(), renderer.image());
+                if (dirty != null) {
+                    assertTrue(new Rectangle(0, 0, 600, 640).contains(dirty));
+                }
+            }
+        }
+    }
+
+    @Test
+    void updateTest3() {
+        // The game over message is drawn once in a box over the middle, and drawn again if a change reaches it
+        int[][] board = Board.createBoard(4, 4);
+        BoardRenderer renderer = renderer(board, 600, 600);
+        renderer.update(board, Color.yellow, null, null);
+        Rectangle box = renderer.update(board, Color.yellow, null, "RED won!");
+        assertNotNull(box);
+        assertTrue(box.contains(300, 300));
+        assertNull(renderer.update(board, Color.yellow, null, "RED won!"));
+        BoardRenderer fresh = renderer(board, 600, 600);
+        fresh.update(board, Color.yellow, null, "RED won!");
+        assertSameImage(fresh.image(), renderer.image());
+    }
+
+    @Test
+    void sizeTest1() {
+        // Borders and hint outlines shrink with the squares of big boards
+        assertEquals(BoardRenderer.PIECE_BORDER, BoardRenderer.pieceBorder(100, 85));
+        assertEquals(3, BoardRenderer.pieceBorder(18, 18));
+        assertEquals(BoardRenderer.HINT_STROKE, BoardRenderer.hintStroke(100, 85));
+        assertEquals(1, BoardRenderer.hintStroke(5, 5));
+    }
+
+    private static BoardRenderer renderer(int[][] board, int width, int height) {
+        return new BoardRenderer(board.length, board[0].length, width, height, Color.white, Color.red, Color.blue,
+                Color.black, FONT);
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+}
@@ -886,11 +886,51 @@ public class BoardTest {
         assertArrayEquals(expected, actual);
     }
 
+    @Test
+    void winsTest1() {
+        int[][] board = Board.createBoard(6, 7);
+        // The last piece finishes a row that has a perpendicular piece at the start
+        board[5][1] = Board.RED;
+        board[4][1] = Board.RED;
+        board[5][2] = Board.RED;
+        board[5][3] = Board.RED;
+        assertTrue(Board.wins(board, 5, 3, 3));
+        assertFalse(Board.wins(board, 5, 3, 4));
+    }
 
+    @Test
+    void winsTest2() {
+        int[][] board = Board.createBoard(6, 7);
+        // The last piece is the perpendicular piece on top of the end of a row
+        board[5][2] = Board.BLU;
+        board[5][3] = Board.BLU;
+        board[5][4] = Board.BLU;
+        board[4][4] = Board.BLU;
+        assertTrue(Board.wins(board, 4, 4, 3));
+        // Same row without the perpendicular piece is not a win
+        board[4][4] = Board.RED;
+        assertFalse(Board.wins(board, 4, 4, 3));
+    }
 
+    @Test
+    void winsTest3() {
+        int[][] board = Board.createBoard(8, 8);
+        // Same forward slash diagonal as the won tests, the last piece is in the middle of the line
+        board[5][3] = Board.RED;
+        board[4][4] = Board.RED;
+        board[3][5] = Board.RED;
+        board[2][6] = Board.RED;
+        board[3][7] = Board.RED; // Perpendicular piece
+        assertTrue(Board.wins(board, 4, 4, 4));
+        assertEquals(Board.won(board, Board.RED, 4), Board.wins(board, 3, 7, 4));
+    }
 
-
-
+    @Test
+    void fullTest6() {
+        int[][] board = Board.createBoard(4, 5);
+        // The play count tells if the board is full without looking at it
+        assertFalse(Board.full(board, 19));
+        assertTrue(Board.full(board, 20));
+    }
 
 }
-
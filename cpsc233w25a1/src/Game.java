@@ -2,10 +2,12 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.geom.Rectangle2D;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * CPSC 233 W25 Assignment 1 Provided Game code
@@ -56,6 +58,8 @@ public class Game extends Canvas {
 
     //GAME BOARD SIZE (pixels)
     private static final int BOARD_SIZE = 600;
+    //Longest side of the window (pixels), squares of long boards shrink to fit
+    private static final int MAX_WINDOW_SIZE = 1200;
     //These are temporary as we will adjust them if the board is rectangular
     private static int window_width = BOARD_SIZE;
     private static int window_height = BOARD_SIZE;
@@ -66,9 +70,8 @@ public class Game extends Canvas {
     //size of font
     private static final int FONT_SIZE = 50;
     private static final Font FONT = new Font("Times", Font.BOLD, FONT_SIZE);
-    //border sizes
-    private static final int X_O_PIXELS_BORDER = 15;
-    private static final int TEXT_BORDER = 1;
+    //Draw into an offscreen image and repaint only the squares that changed (BoardRenderer), false repaints everything
+    private static final boolean DRAW_DIRTY_REGIONS = true;
     //colours
     private static final Color BGD_COLOUR = Color.white;
     private static final Color BOARD_COLOUR = Color.yellow;
@@ -79,27 +82,72 @@ public class Game extends Canvas {
     private static final Color LOSE_COLOUR = Color.yellow;
     private static final Color TIE_COLOUR = Color.yellow;
     //GAME DIFFICULTY PROMPT CONSTANTS
-    private static final String DIFF_PROMPT_DEF = """
+    private static final String DIFF_PROMPT_SEARCH = """
             Difficulties:
             \t0\tAI plays randomly
             \t1\tAI looks at its own and your next play
             \t2\tAI looks two moves ahead for each player
             \t3\tAI looks three moves ahead for each player""";
-    private static final String DIFF_PROMPT_5X4 = DIFF_PROMPT_DEF + "\n\t4\tAI looks ahead to end of game\n" +
-            "\t\t(Note a difficulty of 4 uses an AI algorithm that may slow down some computers and you will have to wait.";
+    //Level 5 is listed last on every board, after level 4 where that is allowed
+    private static final String DIFF_PROMPT_MCTS =
+            "\n\t5\tAI plays out many random games from each move (Monte Carlo tree search, good on big boards)";
+    private static final String DIFF_PROMPT_DEF = DIFF_PROMPT_SEARCH + DIFF_PROMPT_MCTS;
+    private static final String DIFF_PROMPT_5X4 = DIFF_PROMPT_SEARCH + "\n\t4\tAI looks ahead to end of game\n" +
+            "\t\t(Note a difficulty of 4 uses an AI algorithm that may slow down some computers and you will have to wait." +
+            DIFF_PROMPT_MCTS;
     private static final int MIN_AI = 0;
     private static final int MAX_AI = 3;
     private static final int MAX_AI_5X4 = 4;
+    //Monte Carlo tree search level, allowed on every board
+    private static final int AI_MCTS = 5;
+    //Most random games the Monte Carlo AI plays per move (it also stops at AI_TIME_BUDGET_MS)
+    private static final long AI_MCTS_PLAYOUTS = 200_000;
+    //Boards with at most this many spots (4x4, 4x5, 5x4) allow full AI == 4
+    private static final int MAX_CELLS_5X4 = 20;
+    //Search non-first moves with a null window first (principal variation search)
+    private static final boolean AI_PRINCIPAL_VARIATION = true;
+    //Levels 1-3 score positions at their depth limit by open windows instead of 0, so they see more than wins in reach
+    private static final boolean AI_EVALUATION = true;
+    //The computer searches its replies while the human decides (levels 1-4), so its move is usually ready at once
+    private static final boolean AI_PONDER = true;
+    //Print a line of search counters (depth, nodes, cut-offs, time per ply) after each computer move
+    private static final boolean AI_SUMMARY = true;
+    //Every finished game is appended to this file (GameLog), for offline analysis with GameAnalyzer, null for no log
+    private static final String GAME_LOG = GameLog.DEFAULT_FILE;
+    //AI transposition table has 2^AI_TABLE_BITS entries (16 bytes each), kept between moves of a game
+    private static final int AI_TABLE_BITS = 20;
+    private static final TranspositionTable AI_TABLE = new TranspositionTable(AI_TABLE_BITS);
+    //The proof-number search of every hint, made at the first hint that needs it (null before)
+    private static ProofNumberSearch hint_solver;
+    //Regular hints ('h') look for a forced win with a proof-number search of at most this many positions
+    private static final long HINT_PROOF_NODES = 30_000;
+    //Regular hints give up the forced win search after this many milliseconds, so the human's turn starts at once
+    private static final long HINT_TIME_BUDGET_MS = 150;
+    //Advanced hints ('a') on bigger boards look for a forced win with at most this many positions (and AI_TIME_BUDGET_MS)
+    private static final long ADVANCED_HINT_PROOF_NODES = 1_000_000;
+    //Proof-number table of hints has 2^HINT_PROOF_TABLE_BITS entries (24 bytes each), kept between hints
+    private static final int HINT_PROOF_TABLE_BITS = 18;
+    //AI moves and hints search deeper and deeper until this many milliseconds have passed, then use the deepest finished
+    private static final long AI_TIME_BUDGET_MS = 2000;
+    //AI splits its search over this many threads (1 searches on the game thread only)
+    private static final int AI_WORKERS = Runtime.getRuntime().availableProcessors();
+    private static final ForkJoinPool AI_POOL = AI_WORKERS > 1 ? new ForkJoinPool(AI_WORKERS) : null;
+    //Solved opening positions made by OpeningBookGenerator, level 4 looks here before searching (empty if no file)
+    private static final OpeningBook AI_BOOK = loadBook(OpeningBookGenerator.DEFAULT_FILE);
     // GAME CONSTANTS
     private static final int MIN_BOARD_SIZE = 4;
-    private static final int MAX_BOARD_SIZE = 8;
+    //Boards up to 64x64 can be played (gomoku-like), the AI searches every column only up to the classic 8x8
+    private static final int MAX_BOARD_SIZE = 64;
+    private static final int CLASSIC_BOARD_SIZE = 8;
+    //On bigger boards the AI only searches columns that land within this many spots of a piece
+    private static final int AI_CANDIDATE_RADIUS = 2;
     //BOARD GAME VARIABLES
-    //Getting input from user (keyboard)
-    private static final Scanner scanner = new Scanner(System.in);
-    //Getting input from user (GUI)
-    private static final Integer[] mouse = new Integer[]{0, 0};
+    //Getting input from user, lines typed (keyboard) and clicks (GUI) in the order they happened
+    private static final InputQueue input = new InputQueue();
     //DRAWING GAME STATE VARIABLES
     private static Canvas canvas;
+    //Draws the board when DRAW_DIRTY_REGIONS, null otherwise
+    private static BoardRenderer renderer;
     private static boolean draw_game_over = false;
     private static int draw_end_game_type = 0;
     private static int draw_winner_piece = EMP;
@@ -116,14 +164,20 @@ public class Game extends Canvas {
     /**
      * Start game
      *
-     * @param args No arguments expected for this game
+     * @param args No arguments expected for this game, or --replay script.txt to play input from a script (InputReplay)
      */
     public static void main(String[] args) {
-        if (args.length != 0) {
-            System.err.println("Program accepts no arguments!");
+        if (args.length != 0 && (args.length != 2 || !args[0].equals("--replay"))) {
+            System.err.println("Program accepts no arguments except --replay script.txt!");
             System.exit(1);
         }
         try {
+            //Input comes from the shell, or from the script instead
+            if (args.length == 0) {
+                input.readLines(System.in);
+            } else {
+                InputReplay.load(Path.of(args[1])).start(input);
+            }
             // Get size of board from user and create the 2D array that is the board
             board = Board.createBoard(inputRows(), inputColumns());
             //Setup GUI window
@@ -157,7 +211,7 @@ public class Game extends Canvas {
         String gui_string;
         do {
             System.out.println("Enter G to enter input with mouse, otherwise use shell to play: ");
-            gui_string = scanner.nextLine().trim();
+            gui_string = input.nextLine().trim();
         } while (!gui_string.equals("G") && !gui_string.isEmpty());
         boolean gui_flag = gui_string.equals("G");
 
@@ -165,51 +219,74 @@ public class Game extends Canvas {
         System.out.println("Play a game!");
         int player = RED;
         int plays = 0;
+        //The last spot played, only lines through it can make a new win
+        int[] last = null;
+        //Searches the computer's replies during the human's turn
+        Ponderer ponderer = AI_PONDER && Ponderer.ponders(difficulty_input) ? new Ponderer(difficulty_input, length) : null;
+        //The computer's reply found while pondering, null to search after the human plays
+        int[] pondered = null;
+        //Counters of the computer's last move
+        SearchStats ai_stats = new SearchStats();
+        //When the human's last play was typed or clicked (System.nanoTime), 0 before it
+        long human_input = 0;
+        //The column of every play, for the game log
+        int[] moves = new int[board.length * board[0].length];
         //While game continues
-        while (!Board.isGameOver(board, length)) {
+        while (last == null || !Board.isGameOver(board, last[0], last[1], length, plays)) {
             //If human then we have to collect input
             if (human == player) {
                 System.out.println("Human player's turn.");
                 // Get and draw hint
                 inputHint(board, human, computer, h, length);
                 //We ask for repaint as hint will have changed drawing variables
-                canvas.repaint();
+                redraw();
+                //Think about the replies while waiting for input
+                if (ponderer != null) {
+                    ponderer.start(board, human, computer);
+                }
                 // Depending on flag get input for user playing via GUI or via input() prompts in shell
                 if (gui_flag) {
-                    inputMouseNextPlay(board, human);
+                    last = inputMouseNextPlay(board, human);
                 } else {
-                    inputScannerNextPlay(board, human);
+                    last = inputScannerNextPlay(board, human);
                 }
+                if (ponderer != null) {
+                    pondered = ponderer.stop(last[1], ai_stats);
+                }
+                human_input = input.lastTaken();
                 //Turn off hint and redraw with human move made
                 draw_hint = false;
-                canvas.repaint();
+                redraw();
                 // Switch to other player
                 player = computer;
             } else {
                 //If AI is on, then get the play and complete it
-                int[] move = AI(board, computer, human, difficulty_input, length);
+                int[] move = pondered != null ? pondered : AI(board, computer, human, difficulty_input, length, ai_stats);
                 int col = move[1];
-                Board.play(board, move[1], computer);
+                last = new int[]{Board.play(board, move[1], computer), col};
                 System.out.printf("AI plays at %d%n", col);
+                redraw();
+                if (AI_SUMMARY) {
+                    System.out.println((pondered != null ? "(pondered) " : "") + ai_stats.summary());
+                    if (human_input != 0) {
+                        System.out.printf("Input to reply %.1f ms%n", (System.nanoTime() - human_input) / 1e6);
+                    }
+                }
+                pondered = null;
                 //Switch to other player
                 player = human;
             }
             //Track each play for complexity update purposes
+            moves[plays] = last[1];
             plays += 1;
         }
 
         //HANDLE GAME IS COMPLETE
         //This last chunk determines drawing game state of end-game
-        if (Board.won(board, RED, length)) {
-            draw_winner_piece = RED;
-            if (human == RED) {
-                draw_end_game_type = 1;
-            } else {
-                draw_end_game_type = -1;
-            }
-        } else if (Board.won(board, BLU, length)) {
-            draw_winner_piece = BLU;
-            if (human == BLU) {
+        //Only the player of the last piece can have won
+        if (Board.wins(board, last[0], last[1], length)) {
+            draw_winner_piece = board[last[0]][last[1]];
+            if (human == draw_winner_piece) {
                 draw_end_game_type = 1;
             } else {
                 draw_end_game_type = -1;
@@ -219,11 +296,31 @@ public class Game extends Canvas {
         }
         draw_game_over = true;
         //Repaint with end-game drawing setup to get colour/message of end game
-        canvas.repaint();
+        redraw();
+        logGame(length, draw_end_game_type == 0 ? EMP : draw_winner_piece, moves, plays);
         //Game is done
         System.out.println("Game is over!");
     }
 
+    /**
+     * Append a finished game to GAME_LOG, a log that cannot be written is reported and the game goes on
+     *
+     * @param length The length of the long side of the L-shape needed to win
+     * @param winner The winner's piece, EMP for a draw
+     * @param moves  The column of each play, RED first
+     * @param plays  The number of plays
+     */
+    private static void logGame(int length, int winner, int[] moves, int plays) {
+        if (GAME_LOG == null) {
+            return;
+        }
+        try {
+            GameLog.append(Path.of(GAME_LOG), GameLog.encode(board.length, board[0].length, length, winner, moves, plays));
+        } catch (IOException e) {
+            System.err.println("Could not log game: " + e.getMessage());
+        }
+    }
+
     /*----------------------------------------------------------------------------------------------------------
      * THIS CODE IS USED TO GET USER INPUT FROM THE TERMINAL
      * ---------------------------------------------------------------------------------------------------------- */
@@ -257,7 +354,7 @@ public class Game extends Canvas {
         String input_rows;
         do {
             System.out.printf("Pick a board row count in [%d,%d]: ", MIN_BOARD_SIZE, MAX_BOARD_SIZE);
-            input_rows = scanner.nextLine().trim();
+            input_rows = input.nextLine().trim();
         } while (isInputInvalid(input_rows, MIN_BOARD_SIZE, MAX_BOARD_SIZE));
         return Integer.parseInt(input_rows);
     }
@@ -271,7 +368,7 @@ public class Game extends Canvas {
         String input_columns;
         do {
             System.out.printf("Pick a board column count in [%d,%d]: ", MIN_BOARD_SIZE, MAX_BOARD_SIZE);
-            input_columns = scanner.nextLine().trim();
+            input_columns = input.nextLine().trim();
         } while (isInputInvalid(input_columns, MIN_BOARD_SIZE, MAX_BOARD_SIZE));
         return Integer.parseInt(input_columns);
     }
@@ -287,7 +384,7 @@ public class Game extends Canvas {
         int max = Math.max(board.length, board[0].length);
         do {
             System.out.printf("Pick a length of long side of L-shape in [%d,%d]: ", MIN_BOARD_SIZE-1, max-1);
-            input_length = scanner.nextLine().trim();
+            input_length = input.nextLine().trim();
         } while (isInputInvalid(input_length, MIN_BOARD_SIZE-1, max-1));
         return Integer.parseInt(input_length);
     }
@@ -301,24 +398,34 @@ public class Game extends Canvas {
     private static int inputDifficulty(int[][] board) {
         String difficulty_string;
         //We limit difficulty for boards that are not 4x4,4x5,5x4 (different message and upper limit)
-        if (board.length == MIN_BOARD_SIZE && board[0].length == MIN_BOARD_SIZE) {
+        if (fullAIAllowed(board)) {
             do {
                 System.out.println(DIFF_PROMPT_5X4);
                 System.out.print("Select a difficulty: ");
-                difficulty_string = scanner.nextLine().trim();
-            } while (isInputInvalid(difficulty_string, MIN_AI, MAX_AI_5X4));
+                difficulty_string = input.nextLine().trim();
+            } while (isInputInvalid(difficulty_string, MIN_AI, MAX_AI_5X4) && isInputInvalid(difficulty_string, AI_MCTS, AI_MCTS));
         }
         //Larger boards don't get best AI option
         else {
             do {
                 System.out.println(DIFF_PROMPT_DEF);
                 System.out.print("Select a difficulty: ");
-                difficulty_string = scanner.nextLine().trim();
-            } while (isInputInvalid(difficulty_string, MIN_AI, MAX_AI));
+                difficulty_string = input.nextLine().trim();
+            } while (isInputInvalid(difficulty_string, MIN_AI, MAX_AI) && isInputInvalid(difficulty_string, AI_MCTS, AI_MCTS));
         }
         return Integer.parseInt(difficulty_string);
     }
 
+    /**
+     * Is the board small enough for an AI search to the end of the game (4x4, 4x5, 5x4)
+     *
+     * @param board 2D array that is the game board
+     * @return True if difficulty 4 is allowed
+     */
+    private static boolean fullAIAllowed(int[][] board) {
+        return board.length * board[0].length <= MAX_CELLS_5X4;
+    }
+
     /**
      * Get what piece the human and computer are, one is (R)ed, other is (B)lue
      *
@@ -327,7 +434,7 @@ public class Game extends Canvas {
     private static int[] inputPlayerPiece() {
         while (true) {
             System.out.print("Enter choice of (R)ed or (B)lue: ");
-            String piece_string = scanner.nextLine().trim();
+            String piece_string = input.nextLine().trim();
             if (piece_string.equalsIgnoreCase("R")) {
                 System.out.println("Human is Red.");
                 System.out.println("Computer is Blue.");
@@ -351,31 +458,31 @@ public class Game extends Canvas {
         String hint_mode_string;
         do {
             System.out.print(message);
-            hint_mode_string = scanner.nextLine().trim();
+            hint_mode_string = input.nextLine().trim();
         } while (!hint_mode_string.equals("h") && !hint_mode_string.equals("a") && !hint_mode_string.isEmpty());
         return hint_mode_string;
     }
 
     /**
-     * Plays the game via Scanner from user
+     * Plays the game via lines typed in the shell by user
      *
      * @param board The board of game
      * @param human The human's piece
+     * @return The (row, col) played
      */
-    private static void inputScannerNextPlay(int[][] board, int human) {
+    private static int[] inputScannerNextPlay(int[][] board, int human) {
         while (true) {
             //Get a column input that fit in board
             String input_column_string = null;
             while (input_column_string == null || isInputInvalid(input_column_string, 0, board[0].length - 1)) {
                 System.out.printf("Enter column: %n");
-                input_column_string = scanner.nextLine().trim();
+                input_column_string = input.nextLine().trim();
             }
             int col = Integer.parseInt(input_column_string);
             System.out.printf("User entered %d%n", col);
             //Check if play is validly open before accepting
             if (Board.canPlay(board, col)) {
-                Board.play(board, col, human);
-                return;
+                return new int[]{Board.play(board, col, human), col};
             } else {
                 System.err.printf("Chosen location %d is full!%n", col);
             }
@@ -411,9 +518,17 @@ public class Game extends Canvas {
                 draw_hint_location = opponent_win_block;
                 draw_hint_piece = human;
             }
-            //Otherwise, no hint
+            //Otherwise, look for a win the opponent cannot stop
             else {
-                System.out.println("No regular hint");
+                int[] forced_win_hint = forcedWin(board, human, computer, length, HINT_PROOF_NODES, HINT_TIME_BUDGET_MS);
+                if (forced_win_hint != null) {
+                    System.out.printf("Hint to force a win in (%d,%d)%n", forced_win_hint[0], forced_win_hint[1]);
+                    draw_hint = true;
+                    draw_hint_location = forced_win_hint;
+                    draw_hint_piece = human;
+                } else {
+                    System.out.println("No regular hint");
+                }
             }
         }
         //AI hint, which will be limited by board size
@@ -421,17 +536,25 @@ public class Game extends Canvas {
             //Get a hint for human that is a win
             int[] immediate_win_hint = Board.hint(board, human, length);
             int[] hint;
+            //Otherwise, a win the opponent cannot stop (the full search of small boards already finds those)
+            int[] forced_win_hint = immediate_win_hint[0] == -1 && !fullAIAllowed(board)
+                    ? forcedWin(board, human, computer, length, ADVANCED_HINT_PROOF_NODES, AI_TIME_BUDGET_MS) : null;
             //Use immediate win hint if it exists
             if (immediate_win_hint[0] != -1) {
                 System.out.println("Wait for hint (quick)");
                 hint = immediate_win_hint;
             }
-            //Otherwise, if 3x3 board do an AI search for whole board
-            else if (board.length == MIN_BOARD_SIZE && board[0].length == MIN_BOARD_SIZE) {
+            //Then a forced win if one was found
+            else if (forced_win_hint != null) {
+                System.out.println("Hint forces a win");
+                hint = forced_win_hint;
+            }
+            //Otherwise, if 4x4,4x5,5x4 board do an AI search for whole board
+            else if (fullAIAllowed(board)) {
                 System.out.println("Wait for hint (really slow!)");
                 hint = AI(board, human, computer, 4, length);
             }
-            //If not 3x3 then only do AI search for 3 plays ahead
+            //If not 4x4,4x5,5x4 then only do AI search for 3 plays ahead
             else {
                 System.out.println("Wait for hint (slow)");
                 hint = AI(board, human, computer, 3, length);
@@ -457,24 +580,19 @@ public class Game extends Canvas {
      *
      * @param board The board of game
      * @param human The human's piece
+     * @return The (row, col) played
      */
-    private static void inputMouseNextPlay(int[][] board, int human) {
+    private static int[] inputMouseNextPlay(int[][] board, int human) {
         //We'll need to use these variables to determine which square was clicked on
         int square_height = window_height / board.length;
         int square_width = window_width / board[0].length;
         //Loop until a click on the board
         while (true) {
             //We wait on a mouse event on board
-            try {
-                synchronized (mouse) {
-                    mouse.wait();
-                }
-            } catch (InterruptedException e) {
-                //We are going to ignore this
-            }
-            // From the stored mouse value determine a row and column
-            int row = (mouse[1] / square_height);
-            int col = (mouse[0] / square_width);
+            InputQueue.Event click = input.nextClick();
+            // From the click determine a row and column
+            int row = (click.getY() / square_height);
+            int col = (click.getX() / square_width);
             //If math says the row,col calculation isn't in board then loop for another click
             if (row < 0 || row > board.length - 1) {
                 continue;
@@ -484,9 +602,9 @@ public class Game extends Canvas {
             }
             //If we can play in this location we make this play and return to game
             if (Board.canPlay(board, col)) {
-                Board.play(board, col, human);
+                int played = Board.play(board, col, human);
                 System.out.printf("User entered %d%n", col);
-                return;
+                return new int[]{played, col};
             }
         }
     }
@@ -499,12 +617,8 @@ public class Game extends Canvas {
 
         @Override
         public void mouseClicked(MouseEvent e) {
-            //When a mouse is clicked we stored that value and notify anyone that might be waiting for it
-            mouse[0] = e.getX();
-            mouse[1] = e.getY();
-            synchronized (mouse) {
-                mouse.notifyAll();
-            }
+            //When a mouse is clicked we queue it for the game, waking it if it is waiting
+            input.offer(InputQueue.Event.click(e.getX(), e.getY()));
         }
 
         @Override
@@ -535,7 +649,39 @@ public class Game extends Canvas {
      */
     @Override
     public void paint(Graphics graphics) {
-        drawBoard((Graphics2D) graphics);
+        if (renderer != null) {
+            renderer.paint(graphics);
+        } else {
+            drawBoard((Graphics2D) graphics);
+        }
+    }
+
+    /**
+     * Repaint without clearing first when the renderer covers the whole area (no flicker), otherwise as Canvas does
+     *
+     * @param graphics The graphics given when painting is requested
+     */
+    @Override
+    public void update(Graphics graphics) {
+        if (renderer != null) {
+            paint(graphics);
+        } else {
+            super.update(graphics);
+        }
+    }
+
+    /**
+     * Show the drawing game state variables, repainting only what changed when there is a renderer
+     */
+    private static void redraw() {
+        if (renderer == null) {
+            canvas.repaint();
+            return;
+        }
+        Rectangle dirty = renderer.update(board, boardColour(), draw_hint ? draw_hint_location : null, endMessage());
+        if (dirty != null) {
+            canvas.repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+        }
     }
 
     /**
@@ -554,9 +700,20 @@ public class Game extends Canvas {
             if(board.length < board[0].length){
                 window_width = (window_height /board.length) * board[0].length;
             }
+            //Shrink the squares of long or big boards until the window fits a screen
+            if (Math.max(window_width, window_height) > MAX_WINDOW_SIZE) {
+                int square_size = Math.max(1, MAX_WINDOW_SIZE / Math.max(board.length, board[0].length));
+                window_width = square_size * board[0].length;
+                window_height = square_size * board.length;
+            }
         }
         canvas.setSize(window_width, window_height);
         canvas.setBackground(BGD_COLOUR);
+        if (DRAW_DIRTY_REGIONS && board != null) {
+            renderer = new BoardRenderer(board.length, board[0].length, window_width, window_height, BGD_COLOUR,
+                    RED_PIECE_COLOUR, BLUE_PIECE_COLOUR, HINT_COLOUR, FONT);
+            renderer.update(board, boardColour(), null, null);
+        }
         frame.add(canvas);
         Component mouseClick = new MyMouse();
         canvas.addMouseListener((MouseListener) mouseClick);
@@ -576,18 +733,7 @@ public class Game extends Canvas {
         int row_pixel_size = (window_height / board.length);
         int col_pixel_size = (window_width / board[0].length);
         // Now draw board in given colour (have to determine if game is over or not)
-        //These were all setup elsewhere
-        Color draw_board_colour = BOARD_COLOUR;
-        if (draw_game_over) {
-            if (draw_end_game_type == 1) {
-                draw_board_colour = WIN_COLOUR;
-            } else if (draw_end_game_type == 0) {
-                draw_board_colour = TIE_COLOUR;
-            } else {
-                draw_board_colour = LOSE_COLOUR;
-            }
-        }
-        graphics.setColor(draw_board_colour);
+        graphics.setColor(boardColour());
         //Draw the squares
         graphics.setStroke(STROKE);
         graphics.fillRect(0, 0, window_width, window_height);
@@ -607,33 +753,46 @@ public class Game extends Canvas {
         if (draw_hint) {
             drawHint(graphics);
         }
-        //Draw the text for game over (most of this code is trying to center it)
-        graphics.setFont(FONT);
+        //Draw the text for game over over a white box for readability
         if (draw_game_over) {
-            String message = "Board full. Tie Game.";
-            if (draw_end_game_type != 0) {
-                String piece = draw_winner_piece == RED ? "RED" : "BLUE";
-                message = piece + " won!";
-            }
-            //Use font metrics to try and center the text over a white box for readability (text and fonts are messy, sigh)
-            Rectangle2D rect = graphics.getFontMetrics().getStringBounds(message, graphics);
-            int stringLen = (int) rect.getWidth();
-            int font_ascent = graphics.getFontMetrics().getMaxAscent();
-            int font_descent = graphics.getFontMetrics().getMaxDescent();
-            int start_x = window_width / 2 - stringLen / 2;
-            int start_y_rect = window_height / 2 - font_ascent / 2;
-            int start_y_text = window_height / 2 + font_ascent / 2;
-            graphics.setStroke(new BasicStroke(0));
-            graphics.setColor(BGD_COLOUR);
-            graphics.fillRect(start_x - TEXT_BORDER, start_y_rect - TEXT_BORDER, stringLen + TEXT_BORDER * 2, font_ascent + font_descent + TEXT_BORDER * 2);
-            graphics.setColor(Color.BLACK);
-            graphics.drawString(message, start_x, start_y_text);
+            BoardRenderer.drawMessage(graphics, endMessage(), FONT, BGD_COLOUR, window_width, window_height);
         }
     }
 
+    /**
+     * The board colour, which depends on if the game is over and how (these were all setup elsewhere)
+     *
+     * @return The colour to draw the board in
+     */
+    private static Color boardColour() {
+        if (!draw_game_over) {
+            return BOARD_COLOUR;
+        } else if (draw_end_game_type == 1) {
+            return WIN_COLOUR;
+        } else if (draw_end_game_type == 0) {
+            return TIE_COLOUR;
+        }
+        return LOSE_COLOUR;
+    }
+
+    /**
+     * The text for game over
+     *
+     * @return The message, null while the game goes on
+     */
+    private static String endMessage() {
+        if (!draw_game_over) {
+            return null;
+        } else if (draw_end_game_type != 0) {
+            String piece = draw_winner_piece == RED ? "RED" : "BLUE";
+            return piece + " won!";
+        }
+        return "Board full. Tie Game.";
+    }
+
     /**
      * Draw Piece in box beginning at (x,y) with given square size and color
-     * Uses X_O_PIXELS_BORDER to create border to O
+     * Uses BoardRenderer.pieceBorder to create border to O
      *
      * @param graphics Where we are drawing to
      * @param x        The x pixel location of top left of box to draw O in
@@ -645,7 +804,8 @@ public class Game extends Canvas {
     private static void drawPiece(Graphics2D graphics, int x, int y, int size_x, int size_y, Color colour) {
         graphics.setColor(colour);
         graphics.setStroke(STROKE);
-        graphics.fillOval(x + X_O_PIXELS_BORDER, y + X_O_PIXELS_BORDER, size_x - X_O_PIXELS_BORDER * 2, size_y - X_O_PIXELS_BORDER * 2);
+        int border = BoardRenderer.pieceBorder(size_x, size_y);
+        graphics.fillOval(x + border, y + border, size_x - border * 2, size_y - border * 2);
     }
 
     /**
@@ -658,10 +818,10 @@ public class Game extends Canvas {
         int row = draw_hint_location[0];
         int col = draw_hint_location[1];
         graphics.setColor(HINT_COLOUR);
-        graphics.setStroke(STROKE);
         // Get size of a box
         int row_pixel_size = (window_height / board.length);
         int col_pixel_size = (window_width / board[0].length);
+        graphics.setStroke(new BasicStroke(BoardRenderer.hintStroke(col_pixel_size, row_pixel_size)));
         graphics.drawRect(col * col_pixel_size, row * row_pixel_size, col_pixel_size + 1, row_pixel_size + 1);
         drawPiece(graphics, col * col_pixel_size, row * row_pixel_size, col_pixel_size, row_pixel_size, HINT_COLOUR);
     }
@@ -671,9 +831,26 @@ public class Game extends Canvas {
      * THIS CODE IS USED FOR THE AI
      * ---------------------------------------------------------------------------------------------------------- */
 
+    /**
+     * Memory-map the opening book, an unreadable book is reported and not used
+     *
+     * @param file The book file
+     * @return The book, OpeningBook.EMPTY if it is missing or cannot be read
+     */
+    private static OpeningBook loadBook(String file) {
+        try {
+            return OpeningBook.open(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Could not read opening book: " + e.getMessage());
+            return OpeningBook.EMPTY;
+        }
+    }
+
     /**
      * Calling AI, if level 4 we do full recursive minimax, if not we recurse only to certain depth
      * If level=0 AI we just pick random open spot
+     * The search is an alpha-beta search on a packed BitBoard copy of the board, so the input board is never modified
+     * It looks ahead one more play at a time until the level's depth or AI_TIME_BUDGET_MS, so big boards stay responsive
      *
      * @param original_board The 2D array board in which game is being played
      * @param player1        The piece of player1, X/O
@@ -682,6 +859,40 @@ public class Game extends Canvas {
      * @return A (row, col) spot to play at
      */
     private static int[] AI(int[][] original_board, int player1, int player2, int level, int length) {
+        return AI(original_board, player1, player2, level, length, true, null);
+    }
+
+    /**
+     * Calling AI as above, filling in the counters of its search
+     *
+     * @param original_board The 2D array board in which game is being played
+     * @param player1        The piece of player1, X/O
+     * @param player2        The piece of player2, the other of X/O
+     * @param level          The difficultly level of AI
+     * @param length         The length of the long side of the L-shape needed to win
+     * @param stats          Counters to fill in
+     * @return A (row, col) spot to play at
+     */
+    private static int[] AI(int[][] original_board, int player1, int player2, int level, int length, SearchStats stats) {
+        return AI(original_board, player1, player2, level, length, true, stats);
+    }
+
+    /**
+     * Calling AI as above, for callers that run many games at once (Tournament)
+     *
+     * @param original_board The 2D array board in which game is being played
+     * @param player1        The piece of player1, X/O
+     * @param player2        The piece of player2, the other of X/O
+     * @param level          The difficultly level of AI
+     * @param length         The length of the long side of the L-shape needed to win
+     * @param parallel       Split the search over AI_POOL, false to search on the calling thread only
+     * @param stats          If not null, filled in with the counters of the search (see SearchStats)
+     * @return A (row, col) spot to play at
+     */
+    static int[] AI(int[][] original_board, int player1, int player2, int level, int length, boolean parallel, SearchStats stats) {
+        if (stats != null) {
+            stats.reset();
+        }
         if (player1 != RED && player1 != BLU) {
             throw new RuntimeException("AI player1 should be X/O not {player1}");
         }
@@ -694,31 +905,41 @@ public class Game extends Canvas {
         if (player1 == BLU && player2 != RED) {
             throw new RuntimeException("AI player1/player2 can't be O/O");
         }
-        if (level < 0 || level > 4) {
-            throw new RuntimeException("AI level has to be 0 <= level <= 4");
-        }
-        //Create copy of board for safety of AI not modifying input board
-        int[][] copy = new int[board.length][board[0].length];
-        for (int i = 0; i < board.length; i++) {
-            copy[i] = Arrays.copyOf(board[i], board[i].length);
+        if (level < 0 || level > AI_MCTS) {
+            throw new RuntimeException("AI level has to be 0 <= level <= 5");
         }
-        board = copy;
-        //Do unlimited lookahead if level >= 4
-        if (level == 4) {
-            Integer[] result = minimax(board, player1, player2, player1, 1, Integer.MAX_VALUE, length);
-            return new int[]{result[0], result[1]};
+        //Create packed copy of board for speed and safety of AI not modifying input board
+        BitBoard packed = BitBoard.of(original_board, length);
+        //Monte Carlo tree search plays random games instead of looking a fixed number of plays ahead
+        if (level == AI_MCTS) {
+            long start = System.nanoTime();
+            MonteCarloSearch mcts = new MonteCarloSearch(packed, player1, player2, start);
+            mcts.setPool(parallel ? AI_POOL : null);
+            int[] result = mcts.search(AI_MCTS_PLAYOUTS, AI_TIME_BUDGET_MS);
+            if (stats != null) {
+                stats.playouts = mcts.getPlayouts();
+                stats.nanos = System.nanoTime() - start;
+            }
+            return result;
         }
-        //Otherwise, multiply level by two(to get plays by each side for each level)
-        else if (level > 0) {
-            Integer[] result = minimax(board, player1, player2, player1, 1, level * 2 + 1, length);
-            return new int[]{result[0], result[1]};
+        if (level > 0) {
+            int[] booked = bookMove(packed, player1, level);
+            if (booked != null) {
+                return booked;
+            }
+            AlphaBetaSearch search = newSearch(packed, player1, player2, level, parallel);
+            int[] result = think(search, level);
+            if (stats != null) {
+                stats.copy(search.getStats());
+            }
+            return result;
         } else {
             //Otherwise random
-            java.util.List<Integer> moves = openMoves(board);
+            java.util.List<Integer> moves = openMoves(packed);
             Collections.shuffle(moves);
             for (Integer col : moves) {
-                if (Board.canPlay(board, col)) {
-                    int row = Board.play(board, col, EMP);
+                if (packed.canPlay(col)) {
+                    int row = packed.nextRow(col);
                     return new int[]{row,col};
                 }
             }
@@ -728,96 +949,107 @@ public class Game extends Canvas {
     }
 
     /**
-     * Get all open moves in the board (i.e. BLANK spots)
+     * The level 4 move of a solved position, which is the same as the search would give without searching
      *
-     * @param board The 2D array board to get open moves from (playable spots)
-     * @return A list of col move locations that are open to be played in
+     * @param packed  The packed board
+     * @param player1 The piece to move
+     * @param level   The difficultly level of AI
+     * @return The (row, col) from the opening book, null if the level does not use the book or the position is not in it
      */
-    private static java.util.List<Integer> openMoves(int[][] board) {
-        java.util.List<Integer> moves = new ArrayList<>();
-            for (int col = 0; col < board[0].length; col++) {
-                if (Board.canPlay(board, col)) {
-                    moves.add(col);
-                }
-            }
-        return moves;
+    static int[] bookMove(BitBoard packed, int player1, int level) {
+        int[] booked = level == 4 ? AI_BOOK.lookup(packed, player1) : null;
+        return booked == null ? null : new int[]{booked[0], booked[1]};
     }
 
     /**
-     * Minimax suggest of what row, col to play in for player1 as initial call, and player as current tree call
+     * Look for a forced win (a win whatever the other player does) with a proof-number search
+     * The search gives up after HINT_PROOF_NODES positions or HINT_TIME_BUDGET_MS
      *
-     * @param board     2D array which is board game is being played in
-     * @param player1   Player 1 piece, X/O
-     * @param player2   Player 2 piece, the other of X/O
-     * @param player    The player current playing
-     * @param depth     The depth of the minimax
-     * @param max_depth The max depth of the minimax
-     * @return The score of this path
-     */
-    private static Integer[] minimax(int[][] board, int player1, int player2, int player, int depth, int max_depth, int length) {
-        Integer[] best;
-        //We will be either maximizing value if player1 called AI
-        if (player == player1) {
-            best = new Integer[]{null, null, Integer.MIN_VALUE, 1};
-        }
-        //Or minimizing if player2 did
-        else {
-            best = new Integer[]{null, null, Integer.MAX_VALUE, 1};
-        }
-        //If we run out of depth or game ends then get board state
-        if (depth == max_depth || Board.isGameOver(board, length)) {
-            int score = evaluate(board, depth, player1, player2, length);
-            return new Integer[]{null, null, score, 1};
-        }
-        //Get all open moves
-        List<Integer> moves = openMoves(board);
-        for (Integer col : moves) {
-            //Make play
-            int row = Board.play(board, col, player);
-            //Set next player to be other guy
-            int next_player;
-            if (player == player1) {
-                next_player = player2;
-            } else {
-                next_player = player1;
-            }
-            //Get score by exploring down tree
-            Integer[] score = minimax(board, player1, player2, next_player, depth + 1, max_depth, length);
-            score[0] = row;
-            score[1] = col;
-            //Undo the play
-            Board.removeLastPlay(board, col);
-            //Depending on if we are currently on player1 or player 2 we update the best upwards, or downwards
-            if (player == player1) {
-                if (score[2] > best[2]) {
-                    best = score;
-                }
-            } else {
-                if (score[2] < best[2]) {
-                    best = score;
-                }
-            }
+     * @param board   The 2D array board of the game
+     * @param player1 The piece to find a win for (to move)
+     * @param player2 The other piece
+     * @param length  The length of the long side of the L-shape needed to win
+     * @return The (row, col) that starts a forced win, null if none was found
+     */
+    static int[] forcedWin(int[][] board, int player1, int player2, int length) {
+        return forcedWin(board, player1, player2, length, HINT_PROOF_NODES, HINT_TIME_BUDGET_MS);
+    }
+
+    /**
+     * Look for a forced win (a win whatever the other player does) with a proof-number search
+     * Every hint uses the same search and table, so only the first one pays for making it
+     *
+     * @param board        The 2D array board of the game
+     * @param player1      The piece to find a win for (to move)
+     * @param player2      The other piece
+     * @param length       The length of the long side of the L-shape needed to win
+     * @param maxNodes     Most positions to search
+     * @param budgetMillis Milliseconds to search at most
+     * @return The (row, col) that starts a forced win, null if none was found
+     */
+    static int[] forcedWin(int[][] board, int player1, int player2, int length, long maxNodes, long budgetMillis) {
+        BitBoard packed = BitBoard.of(board, length);
+        if (hint_solver == null) {
+            hint_solver = new ProofNumberSearch(packed, player1, player2, HINT_PROOF_TABLE_BITS);
+        } else {
+            hint_solver.reset(packed, player1, player2);
+        }
+        int col = hint_solver.findWin(maxNodes, budgetMillis);
+        return col == -1 ? null : new int[]{packed.nextRow(col), col};
+    }
+
+    /**
+     * Set up the alpha-beta search for an AI level (1 to 4)
+     * Alpha-beta gives the same move as a full minimax to the same depth
+     * The transposition table is shared by every AI call of the game so later moves reuse earlier searches
+     *
+     * @param packed   The packed board
+     * @param player1  The piece to move
+     * @param player2  The other piece
+     * @param level    The difficultly level of AI
+     * @param parallel Split the search over AI_POOL, false to search on the calling thread only
+     * @return The search, ready for think
+     */
+    static AlphaBetaSearch newSearch(BitBoard packed, int player1, int player2, int level, boolean parallel) {
+        AlphaBetaSearch search = new AlphaBetaSearch(packed, player1, player2, AI_TABLE);
+        search.setPrincipalVariation(AI_PRINCIPAL_VARIATION);
+        search.setPool(parallel ? AI_POOL : null);
+        //Level 4 searches to the end of the game, so it never stops early to evaluate
+        search.setEvaluation(level < 4 && AI_EVALUATION);
+        if (Math.max(packed.rows(), packed.columns()) > CLASSIC_BOARD_SIZE) {
+            search.setCandidateRadius(AI_CANDIDATE_RADIUS);
         }
-        return best;
+        return search;
     }
 
     /**
-     * Evaluate the board, 100 for player 1 win, -100 for player 1 loses, 0 for neutral
-     * We adjust this starting score about how far away this win is, so that the result is a struggle
+     * Run a search from newSearch for an AI level
      *
-     * @param board   The 2D array board to evaluate
-     * @param player1 The piece of player 1, X/O
-     * @param player2 The piece of player 2, the other of X/O
-     * @return The value 0 -> tied, 1 -> player 1 win, -1 -> player 1 loses
-     */
-    private static int evaluate(int[][] board, int depth, int player1, int player2, int length) {
-        int score = 0;
-        if (Board.won(board, player1, length)) {
-            score = 100 - depth;
-        } else if (Board.won(board, player2, length)) {
-            score = depth - 100;
-        }
-        return score;
+     * @param search The search
+     * @param level  The difficultly level of AI
+     * @return The (row, col) to play, null if the search was cancelled before it found one
+     */
+    static int[] think(AlphaBetaSearch search, int level) {
+        //Do unlimited lookahead if level >= 4, otherwise multiply level by two(to get plays by each side for each level)
+        int plies = level == 4 ? Integer.MAX_VALUE : level * 2;
+        int[] result = search.iterate(plies, AI_TIME_BUDGET_MS);
+        return result == null ? null : new int[]{result[0], result[1]};
+    }
+
+    /**
+     * Get all open moves in the board (i.e. BLANK spots)
+     *
+     * @param board The packed board to get open moves from (playable spots)
+     * @return A list of col move locations that are open to be played in
+     */
+    private static java.util.List<Integer> openMoves(BitBoard board) {
+        java.util.List<Integer> moves = new ArrayList<>();
+            for (int col = 0; col < board.columns(); col++) {
+                if (board.canPlay(col)) {
+                    moves.add(col);
+                }
+            }
+        return moves;
     }
 
 
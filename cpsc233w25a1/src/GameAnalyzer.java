@@ -0,0 +1,389 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline blunder finder for a GameLog of played games
+ *
+ * Replays every game of the log and scores every column of every position with an evaluated alpha-beta search (the
+ * same search as AI levels 1 to 3) to a fixed number of plies. A play is a blunder when its score is at least the
+ * threshold below the best column's score, or when it throws away a forced win or walks into a forced loss.
+ *
+ * The log is read memory-mapped and the games are handed out one at a time to a pool of threads, each with its own
+ * transposition table, so only the games being analyzed are on the heap. One CSV line is written per blunder, in the
+ * order of the log.
+ *
+ * Usage: java GameAnalyzer [--file connect-l.games] [--plies P] [--threshold S] [--threads T] [--out file.csv]
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class GameAnalyzer {
+
+    /**
+     * First line of the CSV
+     */
+    public static final String HEADER = "game,play,player,rows,columns,length,played,best,played_score,best_score";
+    /**
+     * Transposition table of each thread (2^18 entries, 4MB), kept between the positions of its games
+     */
+    private static final int TABLE_BITS = 18;
+
+    /**
+     * Analyze a log from the command line
+     *
+     * @param args Options, see the class comment
+     */
+    public static void main(String[] args) {
+        String file = GameLog.DEFAULT_FILE;
+        int plies = 6;
+        int threshold = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--file" -> file = value;
+                    case "--plies" -> plies = Integer.parseInt(value);
+                    case "--threshold" -> threshold = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--out" -> out = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            long start = System.nanoTime();
+            Report report = analyze(GameLog.open(Path.of(file)), plies, threshold, threads);
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            for (Blunder blunder : report.blunders) {
+                lines.add(blunder.csv());
+            }
+            if (out == null) {
+                lines.forEach(System.out::println);
+            } else {
+                Files.write(Path.of(out), lines);
+            }
+            System.err.printf("%d games, %d positions, %d blunders in %d ms%n", report.games, report.positions,
+                    report.blunders.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Find the blunders of every game of a log
+     *
+     * @param log       The log
+     * @param plies     Plays looked ahead to score each column
+     * @param threshold Score below the best column at which a play is a blunder
+     * @param threads   Games analyzed at once
+     * @return The games and positions analyzed and the blunders in the order of the log
+     * @throws IOException If the log has a bad record
+     */
+    public static Report analyze(GameLog log, int plies, int threshold, int threads) throws IOException {
+        if (plies < 1 || threshold < 1 || threads < 1) {
+            throw new IllegalArgumentException("Plies, threshold and threads must be positive!");
+        }
+        Cursor cursor = new Cursor(log);
+        List<Callable<Report>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> analyzeGames(log, cursor, plies, threshold));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Report report = new Report();
+        try {
+            for (Future<Report> part : pool.invokeAll(tasks)) {
+                report.add(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Analysis interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new RuntimeException("Analysis failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        report.blunders.sort(Comparator.comparingLong((Blunder b) -> b.game).thenComparingInt(b -> b.play));
+        return report;
+    }
+
+    /**
+     * One thread of analyze, take games from the cursor until there are none left
+     *
+     * @param log       The log
+     * @param cursor    Hands out the games
+     * @param plies     Plays looked ahead to score each column
+     * @param threshold Score below the best column at which a play is a blunder
+     * @return The games, positions and blunders of this thread
+     * @throws IOException If the log has a bad record
+     */
+    private static Report analyzeGames(GameLog log, Cursor cursor, int plies, int threshold) throws IOException {
+        TranspositionTable table = new TranspositionTable(TABLE_BITS);
+        Report report = new Report();
+        long[] next = new long[2];
+        while (cursor.next(next)) {
+            analyzeGame(log, next[0], next[1], plies, threshold, table, report);
+        }
+        return report;
+    }
+
+    /**
+     * Score every play of one game
+     *
+     * @param log       The log
+     * @param record    Offset of the game's record
+     * @param game      Index of the game in the log
+     * @param plies     Plays looked ahead to score each column
+     * @param threshold Score below the best column at which a play is a blunder
+     * @param table     Transposition table of this thread
+     * @param report    Gets the positions and blunders
+     * @throws IOException If a play of the game is not possible
+     */
+    static void analyzeGame(GameLog log, long record, long game, int plies, int threshold, TranspositionTable table,
+                            Report report) throws IOException {
+        BitBoard board = BitBoard.create(log.rows(record), log.columns(record), log.length(record));
+        int player = Game.RED;
+        int count = log.moves(record);
+        for (int play = 0; play < count; play++) {
+            int column = log.move(record, play);
+            if (board.isGameOver() || !board.canPlay(column)) {
+                throw new IOException("Game " + game + " play " + play + " in column " + column + " is not possible!");
+            }
+            int other = player == Game.RED ? Game.BLU : Game.RED;
+            AlphaBetaSearch search = new AlphaBetaSearch(board, player, other, table);
+            search.setEvaluation(true);
+            int[] scores = search.scoreColumns(plies);
+            //Left-most of the best columns, the same tie break as the search
+            int best = column;
+            for (int col = 0; col < scores.length; col++) {
+                if (scores[col] > scores[best]) {
+                    best = col;
+                }
+            }
+            if (isBlunder(scores[column], scores[best], threshold)) {
+                report.blunders.add(new Blunder(game, play, player, board.rows(), board.columns(), board.length(),
+                        column, best, scores[column], scores[best]));
+            }
+            report.positions++;
+            board.play(column, player);
+            player = other;
+        }
+        report.games++;
+    }
+
+    /**
+     * Is a play a blunder
+     *
+     * @param played    Score of the play
+     * @param best      Score of the best play
+     * @param threshold Score below the best at which a play is a blunder
+     * @return True if the play is threshold below the best, or loses a forced win, or walks into a forced loss
+     */
+    static boolean isBlunder(int played, int best, int threshold) {
+        //Scores past MAX_EVALUATION are wins and losses, whose size only says how soon
+        boolean missedWin = best > AlphaBetaSearch.MAX_EVALUATION && played <= AlphaBetaSearch.MAX_EVALUATION;
+        boolean madeLoss = played < -AlphaBetaSearch.MAX_EVALUATION && best >= -AlphaBetaSearch.MAX_EVALUATION;
+        return missedWin || madeLoss || best - played >= threshold;
+    }
+
+    /**
+     * Hands out the games of a log one at a time to the threads of analyze
+     */
+    private static final class Cursor {
+        /**
+         * The log
+         */
+        private final GameLog log;
+        /**
+         * Offset of the next game
+         */
+        private long record;
+        /**
+         * Index of the next game
+         */
+        private long game;
+
+        /**
+         * Create a cursor at the first game
+         *
+         * @param log The log
+         */
+        Cursor(GameLog log) {
+            this.log = log;
+            this.record = log.first();
+        }
+
+        /**
+         * Take the next game
+         *
+         * @param next Gets the game's record offset and index
+         * @return False if there are no games left
+         * @throws IOException If the game's record is cut short or is not a game
+         */
+        synchronized boolean next(long[] next) throws IOException {
+            if (record >= log.size()) {
+                return false;
+            }
+            next[0] = record;
+            next[1] = game++;
+            record = log.next(record);
+            return true;
+        }
+    }
+
+    /**
+     * Games and positions analyzed and the blunders found
+     */
+    public static final class Report {
+        /**
+         * Games analyzed
+         */
+        long games;
+        /**
+         * Positions analyzed (one per play)
+         */
+        long positions;
+        /**
+         * Blunders found
+         */
+        final List<Blunder> blunders = new ArrayList<>();
+
+        /**
+         * Add another thread's report
+         *
+         * @param other The report to add
+         */
+        void add(Report other) {
+            games += other.games;
+            positions += other.positions;
+            blunders.addAll(other.blunders);
+        }
+
+        /**
+         * Games analyzed
+         *
+         * @return The game count
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Positions analyzed
+         *
+         * @return The position count
+         */
+        public long getPositions() {
+            return positions;
+        }
+
+        /**
+         * Blunders found, in the order of the log
+         *
+         * @return The blunders
+         */
+        public List<Blunder> getBlunders() {
+            return blunders;
+        }
+    }
+
+    /**
+     * A play scored far below the best play of its position
+     */
+    public static final class Blunder {
+        /**
+         * Index of the game in the log
+         */
+        final long game;
+        /**
+         * Index of the play in the game, 0 for RED's first
+         */
+        final int play;
+        /**
+         * The piece that played
+         */
+        final int player;
+        /**
+         * Board rows
+         */
+        final int rows;
+        /**
+         * Board columns
+         */
+        final int columns;
+        /**
+         * Win length
+         */
+        final int length;
+        /**
+         * Column played
+         */
+        final int played;
+        /**
+         * Best column
+         */
+        final int best;
+        /**
+         * Score of the column played
+         */
+        final int playedScore;
+        /**
+         * Score of the best column
+         */
+        final int bestScore;
+
+        /**
+         * Create a blunder
+         *
+         * @param game        Index of the game in the log
+         * @param play        Index of the play in the game, 0 for RED's first
+         * @param player      The piece that played
+         * @param rows        Board rows
+         * @param columns     Board columns
+         * @param length      Win length
+         * @param played      Column played
+         * @param best        Best column
+         * @param playedScore Score of the column played
+         * @param bestScore   Score of the best column
+         */
+        Blunder(long game, int play, int player, int rows, int columns, int length, int played, int best,
+                int playedScore, int bestScore) {
+            this.game = game;
+            this.play = play;
+            this.player = player;
+            this.rows = rows;
+            this.columns = columns;
+            this.length = length;
+            this.played = played;
+            this.best = best;
+            this.playedScore = playedScore;
+            this.bestScore = bestScore;
+        }
+
+        /**
+         * The blunder as a CSV line
+         *
+         * @return The fields in the order of HEADER
+         */
+        public String csv() {
+            return game + "," + play + "," + (player == Game.RED ? "RED" : "BLU") + "," + rows + "," + columns + ","
+                    + length + "," + played + "," + best + "," + playedScore + "," + bestScore;
+        }
+    }
+}
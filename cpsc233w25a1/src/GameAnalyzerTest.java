@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 GameAnalyzerTest Class
+ * Tests the exact column scores of the search and the blunders found in a game log.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class GameAnalyzerTest {
+
+    // RED stacks column 2 on a 6x7 board with win length 3 (same board as BoardTest hintTest1), then misses the win in
+    // column 1 by playing column 4
+    private static final int[] MISSED_WIN = {2, 6, 2, 6, 2, 5, 4};
+
+    @Test
+    void scoreColumnsTest1() {
+        // Every column gets its exact score, the best of them is what search finds
+        BitBoard board = BitBoard.create(6, 7, 3);
+        for (int i = 0; i < 6; i++) {
+            board.play(MISSED_WIN[i], i % 2 == 0 ? Board.RED : Board.BLU);
+        }
+        int[] scores = new AlphaBetaSearch(board, Board.RED, Board.BLU).scoreColumns(2);
+        assertEquals(AlphaBetaSearch.WIN - 2, scores[1]);
+        int[] best = new AlphaBetaSearch(board, Board.RED, Board.BLU).search(2);
+        assertEquals(best[2], Arrays.stream(scores).max().getAsInt());
+    }
+
+    @Test
+    void isBlunderTest1() {
+        // Losing a forced win or walking into a forced loss is always a blunder, otherwise the gap decides
+        assertTrue(GameAnalyzer.isBlunder(0, AlphaBetaSearch.WIN - 5, Integer.MAX_VALUE));
+        assertTrue(GameAnalyzer.isBlunder(4 - AlphaBetaSearch.WIN, 0, Integer.MAX_VALUE));
+        assertFalse(GameAnalyzer.isBlunder(AlphaBetaSearch.WIN - 9, AlphaBetaSearch.WIN - 3, 100));
+        assertFalse(GameAnalyzer.isBlunder(10, 60, 100));
+        assertTrue(GameAnalyzer.isBlunder(-50, 60, 100));
+    }
+
+    @Test
+    void analyzeTest1(@TempDir Path dir) throws IOException {
+        // The missed win is found in every game of the log, in log order, by any number of threads
+        Path file = dir.resolve("test.games");
+        for (int i = 0; i < 6; i++) {
+            GameLog.append(file, GameLog.encode(6, 7, 3, Board.EMP, MISSED_WIN, MISSED_WIN.length));
+        }
+        for (int threads : new int[]{1, 3}) {
+            GameAnalyzer.Report report = GameAnalyzer.analyze(GameLog.open(file), 2, 1000, threads);
+            assertEquals(6, report.getGames());
+            assertEquals(6 * MISSED_WIN.length, report.getPositions());
+            List<GameAnalyzer.Blunder> blunders = report.getBlunders();
+            assertEquals(6, blunders.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(i + ",6,RED,6,7,3,4,1," + blunders.get(i).playedScore + "," + (AlphaBetaSearch.WIN - 2),
+                        blunders.get(i).csv());
+            }
+        }
+    }
+}
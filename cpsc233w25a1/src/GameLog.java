@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A log of finished Connect-L games, one compact record per game appended to a file
+ *
+ * A record holds the board size, the win length, the winner and the column of every play (RED plays first), so a game
+ * on a 6x7 board takes 6 bytes plus half a byte per play. The log is read memory-mapped a record at a time, so
+ * millions of games can be gone through (see GameAnalyzer) without holding them on the heap. A record is found by its
+ * offset in the file: the first is at first(), each next one at next(record).
+ *
+ * File layout (big-endian):
+ * - int MAGIC, int VERSION
+ * - records, each:
+ *   - byte rows, byte columns, byte length
+ *   - byte flags (winner piece in the low 2 bits, 0 for a draw, BYTE_MOVES if the columns take a byte each)
+ *   - unsigned short number of plays
+ *   - the columns played, two per byte (first play in the high nibble) on boards of at most 16 columns, otherwise
+ *     one per byte
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class GameLog {
+
+    /**
+     * Log file Game appends to and GameAnalyzer reads when no file is given
+     */
+    public static final String DEFAULT_FILE = "connect-l.games";
+    /**
+     * First int of a log file ("CLGL")
+     */
+    private static final int MAGIC = 0x434C474C;
+    /**
+     * Version of the file layout
+     */
+    private static final int VERSION = 1;
+    /**
+     * Bytes before the first record
+     */
+    private static final int HEADER = 8;
+    /**
+     * Bytes of a record before its plays
+     */
+    private static final int RECORD_HEADER = 6;
+    /**
+     * Flag of a record whose columns take a byte each
+     */
+    private static final int BYTE_MOVES = 0x80;
+    /**
+     * Boards with at most this many columns store two columns per byte
+     */
+    private static final int NIBBLE_COLUMNS = 16;
+    /**
+     * Biggest board side a record can hold, same as Game
+     */
+    private static final int MAX_SIZE = 64;
+    /**
+     * Bytes of the longest record (a full 64x64 board)
+     */
+    private static final int MAX_RECORD = RECORD_HEADER + MAX_SIZE * MAX_SIZE;
+    /**
+     * Bytes of the file mapped at once (2^30), the mappings overlap by MAX_RECORD so every record is inside one
+     */
+    private static final long WINDOW = 1L << 30;
+
+    /**
+     * The mappings of the file, mapping i starts at i * window
+     */
+    private final ByteBuffer[] windows;
+    /**
+     * Bytes between the starts of two mappings
+     */
+    private final long window;
+    /**
+     * Bytes in the file
+     */
+    private final long size;
+
+    /**
+     * Create a log over the mappings of a file
+     *
+     * @param windows The mappings
+     * @param window  Bytes between the starts of two mappings
+     * @param size    Bytes in the file
+     */
+    private GameLog(ByteBuffer[] windows, long window, long size) {
+        this.windows = windows;
+        this.window = window;
+        this.size = size;
+    }
+
+    /**
+     * Memory-map a log file
+     *
+     * @param path The log file
+     * @return The log
+     * @throws IOException If the file cannot be read or is not a game log
+     */
+    public static GameLog open(Path path) throws IOException {
+        return open(path, WINDOW);
+    }
+
+    /**
+     * Memory-map a log file a number of bytes at a time
+     *
+     * @param path   The log file
+     * @param window Bytes between the starts of two mappings
+     * @return The log
+     * @throws IOException If the file cannot be read or is not a game log
+     */
+    static GameLog open(Path path, long window) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            //The mappings stay valid after the channel is closed
+            ByteBuffer[] windows = new ByteBuffer[(int) Math.max(1, (size + window - 1) / window)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = i * window;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window + MAX_RECORD, size - start));
+            }
+            if (size < HEADER || windows[0].getInt(0) != MAGIC || windows[0].getInt(4) != VERSION) {
+                throw new IOException(path + " is not a game log!");
+            }
+            return new GameLog(windows, window, size);
+        }
+    }
+
+    /**
+     * Append a game to a log file, the file is made if it does not exist
+     *
+     * @param path   The log file
+     * @param record The game, made by encode
+     * @throws IOException If the file cannot be written
+     */
+    public static void append(Path path, byte[] record) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER + record.length);
+            if (channel.size() == 0) {
+                buffer.putInt(MAGIC);
+                buffer.putInt(VERSION);
+            }
+            buffer.put(record);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Pack a game into a record
+     *
+     * @param rows    Board rows
+     * @param columns Board columns
+     * @param length  Win length
+     * @param winner  The winner's piece, EMP for a draw (or an unfinished game)
+     * @param moves   The column of each play, RED first
+     * @param count   The number of plays
+     * @return The record
+     * @throws IllegalArgumentException If the game does not fit in a record
+     */
+    public static byte[] encode(int rows, int columns, int length, int winner, int[] moves, int count) {
+        if (rows < 1 || rows > MAX_SIZE || columns < 1 || columns > MAX_SIZE || length < 1 || length > MAX_SIZE) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + columns + " length " + length + " cannot be logged!");
+        }
+        if (winner != Game.EMP && winner != Game.RED && winner != Game.BLU) {
+            throw new IllegalArgumentException("Winner " + winner + " is not a piece!");
+        }
+        if (count < 0 || count > rows * columns) {
+            throw new IllegalArgumentException(count + " plays do not fit on a " + rows + "x" + columns + " board!");
+        }
+        boolean nibbles = columns <= NIBBLE_COLUMNS;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + (nibbles ? (count + 1) / 2 : count));
+        record.put((byte) rows);
+        record.put((byte) columns);
+        record.put((byte) length);
+        record.put((byte) (winner | (nibbles ? 0 : BYTE_MOVES)));
+        record.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] < 0 || moves[i] >= columns) {
+                throw new IllegalArgumentException("Column " + moves[i] + " is not on a " + rows + "x" + columns + " board!");
+            }
+            if (!nibbles) {
+                record.put((byte) moves[i]);
+            } else if (i % 2 == 1) {
+                record.put((byte) (moves[i - 1] << 4 | moves[i]));
+            }
+        }
+        if (nibbles && count % 2 == 1) {
+            record.put((byte) (moves[count - 1] << 4));
+        }
+        return record.array();
+    }
+
+    /**
+     * Bytes in the file
+     *
+     * @return The file size
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Offset of the first record
+     *
+     * @return The offset, equal to size() if the log is empty
+     */
+    public long first() {
+        return HEADER;
+    }
+
+    /**
+     * Offset of the record after a record, checking the record is all in the file
+     *
+     * @param record Offset of a record
+     * @return The offset of the next record, equal to size() after the last
+     * @throws IOException If the record is cut short or is not a game
+     */
+    public long next(long record) throws IOException {
+        if (record + RECORD_HEADER > size) {
+            throw new IOException("Game log is cut short at byte " + record + "!");
+        }
+        int rows = rows(record);
+        int columns = columns(record);
+        int count = moves(record);
+        if (rows < 1 || rows > MAX_SIZE || columns < 1 || columns > MAX_SIZE || count > rows * columns
+                || (columns <= NIBBLE_COLUMNS) == ((byteAt(record, 3) & BYTE_MOVES) != 0)) {
+            throw new IOException("Game log has a bad record at byte " + record + "!");
+        }
+        long next = record + RECORD_HEADER + ((byteAt(record, 3) & BYTE_MOVES) != 0 ? count : (count + 1) / 2);
+        if (next > size) {
+            throw new IOException("Game log is cut short at byte " + record + "!");
+        }
+        return next;
+    }
+
+    /**
+     * Board rows of a game
+     *
+     * @param record Offset of the record
+     * @return The rows
+     */
+    public int rows(long record) {
+        return byteAt(record, 0);
+    }
+
+    /**
+     * Board columns of a game
+     *
+     * @param record Offset of the record
+     * @return The columns
+     */
+    public int columns(long record) {
+        return byteAt(record, 1);
+    }
+
+    /**
+     * Win length of a game
+     *
+     * @param record Offset of the record
+     * @return The length of the long side of the L-shape needed to win
+     */
+    public int length(long record) {
+        return byteAt(record, 2);
+    }
+
+    /**
+     * Winner of a game
+     *
+     * @param record Offset of the record
+     * @return The winner's piece, EMP for a draw
+     */
+    public int winner(long record) {
+        return byteAt(record, 3) & 3;
+    }
+
+    /**
+     * Plays of a game
+     *
+     * @param record Offset of the record
+     * @return The number of plays
+     */
+    public int moves(long record) {
+        return byteAt(record, 4) << 8 | byteAt(record, 5);
+    }
+
+    /**
+     * Column of one play of a game
+     *
+     * @param record Offset of the record
+     * @param index  The play, 0 for RED's first
+     * @return The column played
+     */
+    public int move(long record, int index) {
+        if ((byteAt(record, 3) & BYTE_MOVES) != 0) {
+            return byteAt(record, RECORD_HEADER + index);
+        }
+        int packed = byteAt(record, RECORD_HEADER + index / 2);
+        return index % 2 == 0 ? packed >>> 4 : packed & 0xF;
+    }
+
+    /**
+     * A byte of a record, read from the mapping the record starts in
+     *
+     * @param record Offset of the record
+     * @param at     Offset in the record
+     * @return The unsigned byte
+     */
+    private int byteAt(long record, int at) {
+        int index = (int) (record / window);
+        return windows[index].get((int) (record - index * window) + at) & 0xFF;
+    }
+}
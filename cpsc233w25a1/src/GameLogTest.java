@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 GameLogTest Class
+ * Tests the game records, appending them to a log file and reading them back memory-mapped.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class GameLogTest {
+
+    @Test
+    void encodeTest1() {
+        // Boards of up to 16 columns store two plays per byte, the first in the high nibble
+        byte[] record = GameLog.encode(6, 7, 4, Board.RED, new int[]{3, 4, 6}, 3);
+        assertArrayEquals(new byte[]{6, 7, 4, 1, 0, 3, 0x34, 0x60}, record);
+    }
+
+    @Test
+    void encodeTest2() {
+        // Wider boards store one play per byte
+        byte[] record = GameLog.encode(20, 40, 5, Board.EMP, new int[]{39, 0}, 2);
+        assertArrayEquals(new byte[]{20, 40, 5, (byte) 0x80, 0, 2, 39, 0}, record);
+        assertThrows(IllegalArgumentException.class, () -> GameLog.encode(6, 7, 4, Board.EMP, new int[]{7}, 1));
+        assertThrows(IllegalArgumentException.class, () -> GameLog.encode(65, 7, 4, Board.EMP, new int[0], 0));
+    }
+
+    @Test
+    void readTest1(@TempDir Path dir) throws IOException {
+        // Appended games are read back in order with every play
+        Path file = dir.resolve("test.games");
+        GameLog.append(file, GameLog.encode(6, 7, 4, Board.BLU, new int[]{3, 3, 2, 4, 5}, 5));
+        int[] wide = new int[64 * 64];
+        for (int i = 0; i < wide.length; i++) {
+            wide[i] = i % 64;
+        }
+        GameLog.append(file, GameLog.encode(64, 64, 5, Board.EMP, wide, wide.length));
+        GameLog.append(file, GameLog.encode(4, 4, 3, Board.EMP, new int[0], 0));
+        GameLog log = GameLog.open(file);
+        long record = log.first();
+        assertEquals(6, log.rows(record));
+        assertEquals(7, log.columns(record));
+        assertEquals(4, log.length(record));
+        assertEquals(Board.BLU, log.winner(record));
+        assertEquals(5, log.moves(record));
+        assertEquals(2, log.move(record, 2));
+        assertEquals(5, log.move(record, 4));
+        record = log.next(record);
+        assertEquals(64 * 64, log.moves(record));
+        for (int i = 0; i < wide.length; i++) {
+            assertEquals(i % 64, log.move(record, i));
+        }
+        record = log.next(record);
+        assertEquals(0, log.moves(record));
+        assertEquals(log.size(), log.next(record));
+    }
+
+    @Test
+    void readTest2(@TempDir Path dir) throws IOException {
+        // With small mappings a record starting near the end of one is still read whole
+        Path file = dir.resolve("test.games");
+        int[] moves = {0, 1, 2, 3, 4, 5, 6, 0, 1, 2, 3};
+        for (int i = 0; i < 50; i++) {
+            GameLog.append(file, GameLog.encode(6, 7, 4, Board.EMP, moves, i % moves.length));
+        }
+        GameLog log = GameLog.open(file, 16);
+        long record = log.first();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % moves.length, log.moves(record));
+            for (int j = 0; j < log.moves(record); j++) {
+                assertEquals(moves[j], log.move(record, j));
+            }
+            record = log.next(record);
+        }
+        assertEquals(log.size(), record);
+    }
+
+    @Test
+    void readTest3(@TempDir Path dir) throws IOException {
+        // A file that is not a log, or a log cut short, is an error
+        Path file = dir.resolve("test.games");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> GameLog.open(file));
+        Files.delete(file);
+        GameLog.append(file, GameLog.encode(6, 7, 4, Board.EMP, new int[]{1, 2, 3}, 3));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        GameLog log = GameLog.open(file);
+        assertThrows(IOException.class, () -> log.next(log.first()));
+    }
+}
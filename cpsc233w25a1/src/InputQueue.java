@@ -0,0 +1,265 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The game's input: lines typed in the shell and clicks on the board, in the order they happened
+ *
+ * Any number of threads add events (the shell reader thread, the Swing mouse listener, an InputReplay) and the game
+ * thread takes them. Adding never blocks or locks: the events go in a lock-free queue and the game thread is unparked
+ * if it is waiting. Nothing typed or clicked is lost, even if it happens while the game thread is busy.
+ *
+ * Every event carries the System.nanoTime it was added at, so the time from an input to the computer's reply can be
+ * measured (see lastTaken).
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class InputQueue {
+
+    /**
+     * Events not yet taken
+     */
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    /**
+     * The thread waiting in take, null if none
+     */
+    private volatile Thread waiter;
+    /**
+     * Time of the last event taken (System.nanoTime), 0 before the first
+     */
+    private volatile long lastTaken;
+
+    /**
+     * Add an event and wake the thread waiting for one
+     *
+     * @param event The event
+     */
+    public void offer(Event event) {
+        events.add(event);
+        LockSupport.unpark(waiter);
+    }
+
+    /**
+     * Take the next event, waiting for one (only one thread may take)
+     *
+     * @return The oldest event
+     */
+    public Event take() {
+        Event event = events.poll();
+        while (event == null) {
+            waiter = Thread.currentThread();
+            //Checked again after waiter is set, so an event added in between is not slept through
+            event = events.poll();
+            if (event == null) {
+                LockSupport.park(this);
+                //Interrupts are ignored, as waiting on mouse clicks always did
+                Thread.interrupted();
+                event = events.poll();
+            }
+        }
+        waiter = null;
+        lastTaken = event.nanos;
+        return event;
+    }
+
+    /**
+     * Take the next typed line, clicks before it are dropped
+     *
+     * @return The line, without the line break
+     * @throws NoSuchElementException If the input has ended, as Scanner.nextLine does
+     */
+    public String nextLine() {
+        return next(Event.LINE).text;
+    }
+
+    /**
+     * Take the next click, lines typed before it are dropped
+     *
+     * @return The click
+     * @throws NoSuchElementException If the input has ended
+     */
+    public Event nextClick() {
+        return next(Event.CLICK);
+    }
+
+    /**
+     * Time of the last event taken, so the game can measure how long it took to answer it
+     *
+     * @return The event's System.nanoTime, 0 before the first
+     */
+    public long lastTaken() {
+        return lastTaken;
+    }
+
+    /**
+     * Add every line of a stream from a background thread, then an END event when the stream ends
+     *
+     * @param in The stream (System.in for the shell)
+     * @return The reader thread, already started (a daemon so it does not keep the program running)
+     */
+    public Thread readLines(InputStream in) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    offer(Event.line(line));
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read input: " + e.getMessage());
+            }
+            offer(Event.end());
+        }, "input-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return reader;
+    }
+
+    /**
+     * Take events until one of a type, the END event is left for the next take
+     *
+     * @param type LINE or CLICK
+     * @return The event
+     * @throws NoSuchElementException If the input has ended
+     */
+    private Event next(int type) {
+        while (true) {
+            Event event = take();
+            if (event.type == Event.END) {
+                //Every later take ends as well
+                offer(event);
+                throw new NoSuchElementException("No more input");
+            }
+            if (event.type == type) {
+                return event;
+            }
+        }
+    }
+
+    /**
+     * A line typed, a click on the board or the end of input
+     */
+    public static final class Event {
+        /**
+         * A line typed
+         */
+        public static final int LINE = 0;
+        /**
+         * A click on the board
+         */
+        public static final int CLICK = 1;
+        /**
+         * No more input will come
+         */
+        public static final int END = 2;
+
+        /**
+         * LINE, CLICK or END
+         */
+        final int type;
+        /**
+         * The line, null for other types
+         */
+        final String text;
+        /**
+         * Pixel x of a click
+         */
+        final int x;
+        /**
+         * Pixel y of a click
+         */
+        final int y;
+        /**
+         * When the event was made (System.nanoTime)
+         */
+        final long nanos;
+
+        /**
+         * Create an event
+         *
+         * @param type  LINE, CLICK or END
+         * @param text  The line, null for other types
+         * @param x     Pixel x of a click
+         * @param y     Pixel y of a click
+         * @param nanos When the event was made (System.nanoTime)
+         */
+        private Event(int type, String text, int x, int y, long nanos) {
+            this.type = type;
+            this.text = text;
+            this.x = x;
+            this.y = y;
+            this.nanos = nanos;
+        }
+
+        /**
+         * A line typed now
+         *
+         * @param text The line, without the line break
+         * @return The event
+         */
+        public static Event line(String text) {
+            return new Event(LINE, text, 0, 0, System.nanoTime());
+        }
+
+        /**
+         * A click now
+         *
+         * @param x Pixel x on the board
+         * @param y Pixel y on the board
+         * @return The event
+         */
+        public static Event click(int x, int y) {
+            return new Event(CLICK, null, x, y, System.nanoTime());
+        }
+
+        /**
+         * The end of input now
+         *
+         * @return The event
+         */
+        public static Event end() {
+            return new Event(END, null, 0, 0, System.nanoTime());
+        }
+
+        /**
+         * LINE, CLICK or END
+         *
+         * @return The type
+         */
+        public int getType() {
+            return type;
+        }
+
+        /**
+         * Pixel x of a click
+         *
+         * @return The x
+         */
+        public int getX() {
+            return x;
+        }
+
+        /**
+         * Pixel y of a click
+         *
+         * @return The y
+         */
+        public int getY() {
+            return y;
+        }
+
+        /**
+         * When the event was made
+         *
+         * @return The System.nanoTime
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 InputQueueTest Class
+ * Tests that typed lines and clicks from any thread reach the game in order, none lost, with their times.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class InputQueueTest {
+
+    @Test
+    void takeTest1() {
+        // Lines and clicks come out in the order they went in, each kind skipping the other
+        InputQueue queue = new InputQueue();
+        queue.offer(InputQueue.Event.line("6"));
+        queue.offer(InputQueue.Event.click(10, 20));
+        queue.offer(InputQueue.Event.line("7"));
+        queue.offer(InputQueue.Event.click(30, 40));
+        assertEquals("6", queue.nextLine());
+        InputQueue.Event click = queue.nextClick();
+        assertEquals(10, click.getX());
+        assertEquals(20, click.getY());
+        assertEquals(click.getNanos(), queue.lastTaken());
+        // The line "7" is dropped by looking for a click
+        assertEquals(30, queue.nextClick().getX());
+    }
+
+    @Test
+    void takeTest2() throws InterruptedException {
+        // A taker waiting on an empty queue wakes for an event added later from another thread
+        InputQueue queue = new InputQueue();
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.offer(InputQueue.Event.line("go"));
+        });
+        producer.start();
+        assertEquals("go", queue.nextLine());
+        producer.join();
+    }
+
+    @Test
+    void takeTest3() throws InterruptedException {
+        // Clicks from many threads at once are all taken, none lost, and each thread's in its order
+        InputQueue queue = new InputQueue();
+        int threads = 4;
+        int clicks = 20_000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < clicks; i++) {
+                    queue.offer(InputQueue.Event.click(id, i));
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        int[] next = new int[threads];
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < threads * clicks; i++) {
+            InputQueue.Event click = queue.nextClick();
+            assertEquals(next[click.getX()]++, click.getY());
+            assertTrue(seen.add((long) click.getX() << 32 | click.getY()));
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    @Test
+    void readLinesTest1() {
+        // Every line of a stream is read, then the input ends as Scanner's would, for every later take too
+        InputQueue queue = new InputQueue();
+        queue.readLines(new ByteArrayInputStream("6\n\n7\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("6", queue.nextLine());
+        assertEquals("", queue.nextLine());
+        assertEquals("7", queue.nextLine());
+        assertThrows(NoSuchElementException.class, queue::nextLine);
+        assertThrows(NoSuchElementException.class, queue::nextClick);
+    }
+}
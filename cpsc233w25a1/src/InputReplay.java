@@ -0,0 +1,166 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a script of typed lines and clicks into an InputQueue, to run whole games without a person (and time them)
+ *
+ * A script has one event per line, each waiting a number of milliseconds after the one before:
+ * - "MS LINE text" types text (everything after LINE and one space, so it can be empty)
+ * - "MS CLICK x y" clicks the board at pixel (x, y)
+ * Blank lines and lines starting with # are skipped. After the last event the input ends, so a game that wants more
+ * input stops instead of waiting forever.
+ *
+ * Usage: java Game --replay script.txt
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class InputReplay {
+
+    /**
+     * Milliseconds to wait before each event
+     */
+    private final long[] delays;
+    /**
+     * Each event's type (InputQueue.Event LINE or CLICK)
+     */
+    private final int[] types;
+    /**
+     * Each line's text, null for clicks
+     */
+    private final String[] texts;
+    /**
+     * Each click's pixel (x, y)
+     */
+    private final int[][] points;
+
+    /**
+     * Create a replay from parsed events
+     *
+     * @param delays Milliseconds to wait before each event
+     * @param types  Each event's type
+     * @param texts  Each line's text
+     * @param points Each click's pixel
+     */
+    private InputReplay(long[] delays, int[] types, String[] texts, int[][] points) {
+        this.delays = delays;
+        this.types = types;
+        this.texts = texts;
+        this.points = points;
+    }
+
+    /**
+     * Read a script file
+     *
+     * @param path The script
+     * @return The replay
+     * @throws IOException If the file cannot be read or has a bad line
+     */
+    public static InputReplay load(Path path) throws IOException {
+        try {
+            return parse(Files.readAllLines(path));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse the lines of a script
+     *
+     * @param lines The script, see the class comment
+     * @return The replay
+     * @throws IllegalArgumentException If a line is not an event
+     */
+    public static InputReplay parse(List<String> lines) {
+        List<Long> delays = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<int[]> points = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ", 3);
+            try {
+                long delay = Long.parseLong(parts[0]);
+                if (delay < 0) {
+                    throw new NumberFormatException();
+                }
+                if (parts.length >= 2 && parts[1].equals("LINE")) {
+                    types.add(InputQueue.Event.LINE);
+                    texts.add(parts.length == 3 ? parts[2] : "");
+                    points.add(null);
+                } else if (parts.length == 3 && parts[1].equals("CLICK")) {
+                    String[] xy = parts[2].trim().split(" +");
+                    if (xy.length != 2) {
+                        throw new NumberFormatException();
+                    }
+                    types.add(InputQueue.Event.CLICK);
+                    texts.add(null);
+                    points.add(new int[]{Integer.parseInt(xy[0]), Integer.parseInt(xy[1])});
+                } else {
+                    throw new NumberFormatException();
+                }
+                delays.add(delay);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " is not an event: " + line);
+            }
+        }
+        long[] delayArray = new long[delays.size()];
+        int[] typeArray = new int[types.size()];
+        for (int i = 0; i < delayArray.length; i++) {
+            delayArray[i] = delays.get(i);
+            typeArray[i] = types.get(i);
+        }
+        return new InputReplay(delayArray, typeArray, texts.toArray(new String[0]), points.toArray(new int[0][]));
+    }
+
+    /**
+     * The number of events
+     *
+     * @return The event count
+     */
+    public int size() {
+        return delays.length;
+    }
+
+    /**
+     * Add every event to a queue at its time, then the end of input (stops early if interrupted)
+     *
+     * @param queue The queue the game takes from
+     */
+    public void play(InputQueue queue) {
+        try {
+            for (int i = 0; i < delays.length; i++) {
+                if (delays[i] > 0) {
+                    Thread.sleep(delays[i]);
+                }
+                if (types[i] == InputQueue.Event.LINE) {
+                    queue.offer(InputQueue.Event.line(texts[i]));
+                } else {
+                    queue.offer(InputQueue.Event.click(points[i][0], points[i][1]));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.offer(InputQueue.Event.end());
+    }
+
+    /**
+     * Play into a queue from a background thread
+     *
+     * @param queue The queue the game takes from
+     * @return The thread, already started (a daemon so it does not keep the program running)
+     */
+    public Thread start(InputQueue queue) {
+        Thread thread = new Thread(() -> play(queue), "input-replay");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 InputReplayTest Class
+ * Tests reading input scripts and playing them into an input queue at their times.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class InputReplayTest {
+
+    @Test
+    void parseTest1() {
+        // Comments and blank lines are skipped, a LINE can be empty and CLICK takes two numbers
+        InputReplay replay = InputReplay.parse(List.of("# setup", "0 LINE 6", "", "5 LINE", "10 CLICK 350 420"));
+        assertEquals(3, replay.size());
+        assertThrows(IllegalArgumentException.class, () -> InputReplay.parse(List.of("0 CLICK 350")));
+        assertThrows(IllegalArgumentException.class, () -> InputReplay.parse(List.of("-1 LINE 6")));
+        assertThrows(IllegalArgumentException.class, () -> InputReplay.parse(List.of("0 TYPE 6")));
+    }
+
+    @Test
+    void playTest1() throws InterruptedException {
+        // Events arrive in order after their delays, then the input ends
+        InputQueue queue = new InputQueue();
+        InputReplay replay = InputReplay.parse(List.of("0 LINE 6", "30 CLICK 350 420", "0 LINE 7 8"));
+        long start = System.nanoTime();
+        Thread thread = replay.start(queue);
+        assertEquals("6", queue.nextLine());
+        InputQueue.Event click = queue.nextClick();
+        assertEquals(350, click.getX());
+        assertEquals(420, click.getY());
+        assertTrue(click.getNanos() - start >= 30_000_000L);
+        assertEquals("7 8", queue.nextLine());
+        assertThrows(NoSuchElementException.class, queue::nextLine);
+        thread.join();
+    }
+}
@@ -0,0 +1,340 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search (UCT) for the Connect-L AI
+ *
+ * Instead of scoring positions (alpha-beta only knows wins found before its depth runs out), every iteration:
+ * 1. walks down the tree from the root, picking the child with the best UCB1 score (wins so far plus a bonus for
+ *    children tried less often)
+ * 2. adds the children of the node it ends on once that node has been visited EXPAND_VISITS times
+ * 3. plays random moves on a packed BitBoard until the game ends (a playout)
+ * 4. adds the result to every node on the path
+ * The move played is the root child visited most, which is the one the search trusted most.
+ *
+ * A move that wins at once is played without searching, and so is a move that stops the opponent winning next play.
+ *
+ * Given a ForkJoinPool, each worker runs iterations on its own board copy over the same tree. A worker counts a loss on
+ * every node it walks through until its playout finishes (virtual loss), so the other workers spread out to other moves
+ * instead of all exploring the same line.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class MonteCarloSearch {
+
+    /**
+     * UCB1 exploration constant (sqrt 2 for results between 0 and 1)
+     */
+    private static final double EXPLORATION = Math.sqrt(2);
+    /**
+     * Visits a node needs before its children are added
+     */
+    private static final int EXPAND_VISITS = 2;
+
+    /**
+     * The board to search (copied for each worker)
+     */
+    private final BitBoard board;
+    /**
+     * The piece we are finding a move for
+     */
+    private final int player1;
+    /**
+     * The other piece
+     */
+    private final int player2;
+    /**
+     * Seed of the playout random streams, so a search on one thread with a playout budget is repeatable
+     */
+    private final long seed;
+    /**
+     * Pool the iterations are split over, null to search on the calling thread only
+     */
+    private ForkJoinPool pool;
+    /**
+     * Playouts run by the last search
+     */
+    private long playouts;
+
+    /**
+     * A position in the tree, reached by a move of a piece
+     * Counts are updated by several workers at once so they are atomic
+     */
+    private static final class Node {
+        /**
+         * The column played to reach this node, -1 for the root
+         */
+        final int column;
+        /**
+         * The piece that played it
+         */
+        final int piece;
+        /**
+         * Children, one per open column, null until added
+         */
+        volatile Node[] children;
+        /**
+         * Playouts through this node
+         */
+        final AtomicInteger visits = new AtomicInteger();
+        /**
+         * Results of those playouts for piece, 2 per win and 1 per draw
+         */
+        final AtomicLong points = new AtomicLong();
+        /**
+         * Workers currently in a playout through this node
+         */
+        final AtomicInteger virtual = new AtomicInteger();
+
+        /**
+         * Create a node
+         *
+         * @param column The column played to reach it
+         * @param piece  The piece that played it
+         */
+        Node(int column, int piece) {
+            this.column = column;
+            this.piece = piece;
+        }
+    }
+
+    /**
+     * Create a search of the given board for player1, the board is copied so the original is never modified
+     *
+     * @param board   The packed board to search
+     * @param player1 The piece of player1 (to move at the root)
+     * @param player2 The piece of player2
+     * @param seed    Seed for the random playouts
+     */
+    public MonteCarloSearch(BitBoard board, int player1, int player2, long seed) {
+        this.board = board.copy();
+        this.player1 = player1;
+        this.player2 = player2;
+        this.seed = seed;
+    }
+
+    /**
+     * Split the iterations over the workers of a pool (one worker per parallelism of the pool)
+     *
+     * @param pool The pool to search with, null to search on the calling thread only
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Playouts run by the last search
+     *
+     * @return The playout count
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Search until either budget runs out
+     *
+     * @param maxPlayouts  The most playouts to run
+     * @param budgetMillis Wall-clock time allowed in milliseconds
+     * @return The (row, col) to play, -1s if there is no move
+     */
+    public int[] search(long maxPlayouts, long budgetMillis) {
+        playouts = 0;
+        if (board.isGameOver()) {
+            return new int[]{-1, -1};
+        }
+        //Win now if possible, otherwise block a spot where the opponent would win
+        int win = winningColumn(board, player1);
+        int block = winningColumn(board, player2);
+        if (win != -1 || block != -1) {
+            int col = win != -1 ? win : block;
+            return new int[]{board.nextRow(col), col};
+        }
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        Node root = new Node(-1, player2);
+        expand(root, board, player1);
+        AtomicLong started = new AtomicLong();
+        int workers = pool == null ? 1 : pool.getParallelism();
+        if (workers == 1) {
+            playouts = iterate(root, board.copy(), new SplittableRandom(seed), started, maxPlayouts, deadline);
+        } else {
+            SplittableRandom random = new SplittableRandom(seed);
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                BitBoard copy = board.copy();
+                SplittableRandom stream = random.split();
+                tasks.add(() -> iterate(root, copy, stream, started, maxPlayouts, deadline));
+            }
+            try {
+                for (Future<Long> result : pool.invokeAll(tasks)) {
+                    playouts += result.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Parallel AI search failed", e);
+            }
+        }
+        //Most visited move, left-most on a tie
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits.get() > best.visits.get()
+                    || (child.visits.get() == best.visits.get() && child.column < best.column)) {
+                best = child;
+            }
+        }
+        return new int[]{board.nextRow(best.column), best.column};
+    }
+
+    /**
+     * Run iterations on one worker until the playouts or the time run out
+     *
+     * @param root        The shared root
+     * @param board       This worker's board (at the root position)
+     * @param random      This worker's random stream
+     * @param started     Playouts started by all workers
+     * @param maxPlayouts The most playouts for all workers together
+     * @param deadline    System.nanoTime to stop at
+     * @return The playouts run by this worker
+     */
+    private long iterate(Node root, BitBoard board, SplittableRandom random, AtomicLong started, long maxPlayouts, long deadline) {
+        Node[] path = new Node[board.rows() * board.columns() + 1];
+        int[] moves = new int[board.rows() * board.columns()];
+        int[] open = new int[board.columns()];
+        long count = 0;
+        while (started.getAndIncrement() < maxPlayouts && System.nanoTime() < deadline) {
+            //Selection, counting a virtual loss on the way down
+            int length = 0;
+            Node node = root;
+            path[length++] = node;
+            node.virtual.incrementAndGet();
+            int winner = BitBoard.EMP;
+            boolean over = false;
+            while (node.children != null && !over) {
+                node = select(node);
+                board.play(node.column, node.piece);
+                path[length++] = node;
+                node.virtual.incrementAndGet();
+                if (board.wonWith(node.column)) {
+                    winner = node.piece;
+                    over = true;
+                } else if (board.full()) {
+                    over = true;
+                }
+            }
+            //Expansion
+            int toMove = node.piece == player1 ? player2 : player1;
+            if (!over && node.visits.get() + 1 >= EXPAND_VISITS) {
+                expand(node, board, toMove);
+            }
+            //Playout
+            int played = 0;
+            while (!over) {
+                int openCount = 0;
+                for (int col = 0; col < board.columns(); col++) {
+                    if (board.canPlay(col)) {
+                        open[openCount++] = col;
+                    }
+                }
+                int col = open[random.nextInt(openCount)];
+                board.play(col, toMove);
+                moves[played++] = col;
+                if (board.wonWith(col)) {
+                    winner = toMove;
+                    over = true;
+                } else if (board.full()) {
+                    over = true;
+                }
+                toMove = toMove == player1 ? player2 : player1;
+            }
+            while (played > 0) {
+                board.undo(moves[--played]);
+            }
+            //Backpropagation, undoing the path back to the root
+            for (int i = length - 1; i >= 0; i--) {
+                Node step = path[i];
+                step.visits.incrementAndGet();
+                step.points.addAndGet(winner == BitBoard.EMP ? 1 : (winner == step.piece ? 2 : 0));
+                step.virtual.decrementAndGet();
+                if (step.column != -1) {
+                    board.undo(step.column);
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * The child with the best UCB1 score, a worker in a playout through a child counts as a loss for it
+     *
+     * @param node The node to pick a child of
+     * @return The child to walk to
+     */
+    private static Node select(Node node) {
+        Node[] children = node.children;
+        double logVisits = Math.log(Math.max(1, node.visits.get() + node.virtual.get()));
+        Node best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            int visits = child.visits.get() + child.virtual.get();
+            //Try every child once before trusting any average
+            double score = visits == 0 ? Double.POSITIVE_INFINITY
+                    : child.points.get() / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Add the children of a node, one per open column (only one worker adds them)
+     *
+     * @param node   The node
+     * @param board  The board at the node
+     * @param toMove The piece to move at the node
+     */
+    private static void expand(Node node, BitBoard board, int toMove) {
+        synchronized (node) {
+            if (node.children != null) {
+                return;
+            }
+            List<Node> children = new ArrayList<>();
+            for (int col : AlphaBetaSearch.centerOrder(board.columns())) {
+                if (board.canPlay(col)) {
+                    children.add(new Node(col, toMove));
+                }
+            }
+            node.children = children.toArray(new Node[0]);
+        }
+    }
+
+    /**
+     * A column where a piece wins at once, checked left to right
+     *
+     * @param board The board (changed and restored)
+     * @param piece The piece to play
+     * @return The left-most winning column, -1 if none
+     */
+    private static int winningColumn(BitBoard board, int piece) {
+        for (int col = 0; col < board.columns(); col++) {
+            if (board.canPlay(col)) {
+                board.play(col, piece);
+                boolean won = board.wonWith(col);
+                board.undo(col);
+                if (won) {
+                    return col;
+                }
+            }
+        }
+        return -1;
+    }
+}
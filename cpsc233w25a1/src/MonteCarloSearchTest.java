@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 MonteCarloSearchTest Class
+ * Tests the Monte Carlo tree search AI takes wins, blocks losses and gives playable moves on one or many threads.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class MonteCarloSearchTest {
+
+    @Test
+    void searchTest1() {
+        // Red can win now by playing column 1 (same board as BoardTest hintTest1)
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][6] = Board.BLU;
+        board[4][6] = Board.BLU;
+        board[5][5] = Board.BLU;
+        MonteCarloSearch search = new MonteCarloSearch(BitBoard.of(board, 3), Board.RED, Board.BLU, 1L);
+        assertArrayEquals(new int[]{5, 1}, search.search(1000, 10_000));
+    }
+
+    @Test
+    void searchTest2() {
+        // Blue must block red's win in column 1
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][3] = Board.BLU;
+        board[5][6] = Board.BLU;
+        MonteCarloSearch search = new MonteCarloSearch(BitBoard.of(board, 3), Board.BLU, Board.RED, 1L);
+        assertEquals(1, search.search(1000, 10_000)[1]);
+    }
+
+    @Test
+    void searchTest3() {
+        // On one thread with a playout budget the same seed gives the same move, and the budget is kept
+        BitBoard board = BitBoard.create(8, 8, 4);
+        board.play(3, Board.RED);
+        MonteCarloSearch first = new MonteCarloSearch(board, Board.BLU, Board.RED, 42L);
+        MonteCarloSearch second = new MonteCarloSearch(board, Board.BLU, Board.RED, 42L);
+        int[] move = first.search(2000, 60_000);
+        assertArrayEquals(move, second.search(2000, 60_000));
+        assertEquals(2000, first.getPlayouts());
+        assertTrue(board.canPlay(move[1]));
+        assertEquals(board.nextRow(move[1]), move[0]);
+        assertEquals(1, board.count()); // The given board is not changed
+    }
+
+    @Test
+    void searchTest4() {
+        // Several workers share the playout budget and still give a playable move
+        BitBoard board = BitBoard.create(6, 7, 4);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        MonteCarloSearch search = new MonteCarloSearch(board, Board.RED, Board.BLU, 7L);
+        search.setPool(pool);
+        int[] move = search.search(4000, 60_000);
+        assertEquals(4000, search.getPlayouts());
+        assertTrue(board.canPlay(move[1]));
+        pool.shutdown();
+    }
+}
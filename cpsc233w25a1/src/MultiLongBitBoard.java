@@ -0,0 +1,201 @@
+/**
+ * A BitBoard for boards too big for one long, packing each column of each player into its own long.
+ *
+ * Bit height of columns[column] is the spot at that column and height from the bottom. A column line is a shift of
+ * one long, a row line is an and of neighbouring longs, and a diagonal line is an and of neighbouring longs each
+ * shifted by how far along the line they are.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class MultiLongBitBoard extends BitBoard {
+
+    /**
+     * Pieces of each player per column, RED at index 0 and BLU at index 1
+     */
+    private final long[][] pieces;
+
+    /**
+     * An empty board of the given size and win length
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     */
+    MultiLongBitBoard(int rows, int columns, int length) {
+        super(rows, columns, length);
+        if (!supports(rows, columns)) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + columns + " has too many rows!");
+        }
+        pieces = new long[2][columns];
+    }
+
+    /**
+     * The pieces of one player in one column (for hashing and evaluation)
+     *
+     * @param piece  The piece (RED or BLU)
+     * @param column The column
+     * @return The packed bits of that player in that column
+     */
+    public long bits(int piece, int column) {
+        return pieces[piece - 1][column];
+    }
+
+    @Override
+    protected void set(int column, int height, int piece) {
+        pieces[piece - 1][column] |= 1L << height;
+    }
+
+    @Override
+    protected void clear(int column, int height) {
+        long keep = ~(1L << height);
+        pieces[0][column] &= keep;
+        pieces[1][column] &= keep;
+    }
+
+    @Override
+    protected int pieceAt(int column, int height) {
+        long spot = 1L << height;
+        if ((pieces[0][column] & spot) != 0) {
+            return RED;
+        } else if ((pieces[1][column] & spot) != 0) {
+            return BLU;
+        }
+        return EMP;
+    }
+
+    @Override
+    public boolean won(int piece) {
+        long[] board = pieces[piece - 1];
+        return wonInColumns(board) || wonInRows(board) || wonInDiagonals(board);
+    }
+
+    /**
+     * Column lines, the perpendicular spots are the same height in the columns either side
+     *
+     * @param board The columns of one player
+     * @return True if there is an L-shape along a column
+     */
+    private boolean wonInColumns(long[] board) {
+        if (length > rows) {
+            return false;
+        }
+        for (int column = 0; column < columns; column++) {
+            long starts = board[column];
+            for (int i = 1; i < length && starts != 0; i++) {
+                starts &= board[column] >>> i;
+            }
+            if (starts != 0) {
+                long beside = column(board, column - 1) | column(board, column + 1);
+                if ((starts & beside) != 0 || ((starts << (length - 1)) & beside) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Row lines, the perpendicular spots are above and below in the first or last column
+     *
+     * @param board The columns of one player
+     * @return True if there is an L-shape along a row
+     */
+    private boolean wonInRows(long[] board) {
+        for (int column = 0; column + length <= columns; column++) {
+            long starts = board[column];
+            for (int i = 1; i < length && starts != 0; i++) {
+                starts &= board[column + i];
+            }
+            if (starts != 0) {
+                long first = board[column];
+                long last = board[column + length - 1];
+                long beside = (first << 1) | (first >>> 1) | (last << 1) | (last >>> 1);
+                if ((starts & beside) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Diagonal lines going up-right and down-right, each lined up so bit height is the first spot of the line
+     *
+     * @param board The columns of one player
+     * @return True if there is an L-shape along a diagonal
+     */
+    private boolean wonInDiagonals(long[] board) {
+        if (length > rows) {
+            return false;
+        }
+        for (int column = 0; column + length <= columns; column++) {
+            long up = board[column];
+            long down = board[column];
+            for (int i = 1; i < length && (up | down) != 0; i++) {
+                up &= board[column + i] >>> i;
+                down &= board[column + i] << i;
+            }
+            //Up-right line from (column, height), perpendicular is down-right/up-left of first and last spots
+            if (up != 0) {
+                long beside = (column(board, column + 1) << 1) | (column(board, column - 1) >>> 1)
+                        | shiftRight(column(board, column + length), length - 2)
+                        | shiftRight(column(board, column + length - 2), length);
+                if ((up & beside) != 0) {
+                    return true;
+                }
+            }
+            //Down-right line from (column, height), perpendicular is up-right/down-left of first and last spots
+            if (down != 0) {
+                long beside = (column(board, column + 1) >>> 1) | (column(board, column - 1) << 1)
+                        | shiftLeft(column(board, column + length), length - 2)
+                        | shiftLeft(column(board, column + length - 2), length);
+                if ((down & beside) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A column of the board, or nothing if the column is off the board
+     *
+     * @param board  The columns of one player
+     * @param column The column
+     * @return The column bits or 0
+     */
+    private long column(long[] board, int column) {
+        return column >= 0 && column < columns ? board[column] : 0;
+    }
+
+    /**
+     * Shift right that empties the long instead of wrapping when shifting by 64 or more
+     *
+     * @param bits     The bits to shift
+     * @param distance How far to shift
+     * @return The shifted bits
+     */
+    private static long shiftRight(long bits, int distance) {
+        return distance >= Long.SIZE ? 0 : bits >>> distance;
+    }
+
+    /**
+     * Shift left that empties the long instead of wrapping when shifting by 64 or more
+     *
+     * @param bits     The bits to shift
+     * @param distance How far to shift
+     * @return The shifted bits
+     */
+    private static long shiftLeft(long bits, int distance) {
+        return distance >= Long.SIZE ? 0 : bits << distance;
+    }
+
+    @Override
+    public BitBoard copy() {
+        MultiLongBitBoard other = new MultiLongBitBoard(rows, columns, length);
+        System.arraycopy(pieces[0], 0, other.pieces[0], 0, columns);
+        System.arraycopy(pieces[1], 0, other.pieces[1], 0, columns);
+        return copyInto(other);
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A read-only book of solved Connect-L positions, each with the best column and its score for the player to move
+ *
+ * Positions are keyed by the Zobrist hash of the board (which already includes the board size and win length) XOR the
+ * side to move, so one book can hold every board size. The file is made by OpeningBookGenerator and memory-mapped
+ * here, so looking a position up reads a few records from the file and the book takes no heap space.
+ *
+ * File layout (big-endian):
+ * - int MAGIC, int VERSION, int record count
+ * - records sorted by key, each a long key and an int data (score in the high 24 bits, column in the low 8 bits)
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class OpeningBook {
+
+    /**
+     * First int of a book file ("CLBK")
+     */
+    private static final int MAGIC = 0x434C424B;
+    /**
+     * Version of the file layout (2: scores use AlphaBetaSearch.WIN of 1 << 14)
+     */
+    private static final int VERSION = 2;
+    /**
+     * Bytes before the first record
+     */
+    private static final int HEADER = 12;
+    /**
+     * Bytes per record (long key, int data)
+     */
+    private static final int RECORD = 12;
+
+    /**
+     * A book with no positions, used when there is no book file
+     */
+    public static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(HEADER), 0);
+
+    /**
+     * The mapped file
+     */
+    private final ByteBuffer records;
+    /**
+     * Number of records
+     */
+    private final int count;
+
+    /**
+     * Create a book over a buffer of records
+     *
+     * @param records The whole file (header and records)
+     * @param count   The number of records
+     */
+    private OpeningBook(ByteBuffer records, int count) {
+        this.records = records;
+        this.count = count;
+    }
+
+    /**
+     * Memory-map a book file
+     *
+     * @param path The book file
+     * @return The book, EMPTY if there is no file
+     * @throws IOException If the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(path + " is not an opening book!");
+            }
+            int count = buffer.getInt(8);
+            if (count < 0 || buffer.limit() != HEADER + (long) count * RECORD) {
+                throw new IOException(path + " has the wrong length for " + count + " positions!");
+            }
+            return new OpeningBook(buffer, count);
+        }
+    }
+
+    /**
+     * Write a book file
+     *
+     * @param path      The file to write (replaced if it exists)
+     * @param positions Key to data (see data) for every position
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path path, Map<Long, Integer> positions) throws IOException {
+        long[] keys = new long[positions.size()];
+        int index = 0;
+        for (long key : positions.keySet()) {
+            keys[index++] = key;
+        }
+        Arrays.sort(keys);
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keys.length);
+            for (long key : keys) {
+                out.writeLong(key);
+                out.writeInt(positions.get(key));
+            }
+        }
+    }
+
+    /**
+     * The key a position is stored under
+     *
+     * @param board  The packed board
+     * @param player The piece to move
+     * @return The board's hash with the side to move
+     */
+    public static long key(BitBoard board, int player) {
+        return board.hash() ^ Zobrist.side(player);
+    }
+
+    /**
+     * Pack a best column and score into the data of a record
+     *
+     * @param column The best column
+     * @param score  The score of the column for the player to move
+     * @return The packed data
+     */
+    public static int data(int column, int score) {
+        return (score << 8) | (column & 0xFF);
+    }
+
+    /**
+     * Number of positions in the book
+     *
+     * @return The record count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Binary search the book for a position
+     *
+     * @param board  The packed board
+     * @param player The piece to move
+     * @return The (row, col, score) stored for the position, null if it is not in the book
+     */
+    public int[] lookup(BitBoard board, int player) {
+        long key = key(board, player);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long found = records.getLong(HEADER + middle * RECORD);
+            if (found < key) {
+                low = middle + 1;
+            } else if (found > key) {
+                high = middle - 1;
+            } else {
+                int data = records.getInt(HEADER + middle * RECORD + 8);
+                int column = data & 0xFF;
+                return new int[]{board.nextRow(column), column, data >> 8};
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline generator of the OpeningBook
+ *
+ * Solves (searches to the end of the game) every position reachable in the first few plays of every board the game
+ * plays a full AI on (4x4, 4x5, 5x4) for every win length the game allows, and writes the best moves to a book file.
+ * The answers are exactly what a level 4 search gives, so Game.AI can use them instead of searching.
+ *
+ * Usage: java OpeningBookGenerator [file] [plies]
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class OpeningBookGenerator {
+
+    /**
+     * Book file written when no file is given (the file Game reads)
+     */
+    public static final String DEFAULT_FILE = "connect-l.book";
+    /**
+     * Plays from the empty board to solve when no count is given
+     */
+    private static final int DEFAULT_PLIES = 8;
+    /**
+     * Smallest board size, same as Game
+     */
+    private static final int MIN_BOARD_SIZE = 4;
+    /**
+     * Boards with at most this many spots get a full AI, same as Game
+     */
+    private static final int MAX_CELLS_5X4 = 20;
+    /**
+     * Transposition table shared by all solves of one board (2^22 entries, 64MB)
+     */
+    private static final int TABLE_BITS = 22;
+
+    /**
+     * Generate the book
+     *
+     * @param args Optional book file and number of plies
+     */
+    public static void main(String[] args) {
+        if (args.length > 2) {
+            System.err.println("Usage: java OpeningBookGenerator [file] [plies]");
+            System.exit(1);
+        }
+        Path path = Path.of(args.length > 0 ? args[0] : DEFAULT_FILE);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        Map<Long, Integer> positions = new HashMap<>();
+        TranspositionTable table = new TranspositionTable(TABLE_BITS);
+        for (int rows = MIN_BOARD_SIZE; rows * MIN_BOARD_SIZE <= MAX_CELLS_5X4; rows++) {
+            for (int columns = MIN_BOARD_SIZE; rows * columns <= MAX_CELLS_5X4; columns++) {
+                //Same win lengths Game.inputWinLength allows
+                for (int length = MIN_BOARD_SIZE - 1; length <= Math.max(rows, columns) - 1; length++) {
+                    long start = System.nanoTime();
+                    int before = positions.size();
+                    table.clear();
+                    generate(BitBoard.create(rows, columns, length), BitBoard.RED, plies, table, positions);
+                    System.out.printf("%dx%d length %d: %d positions in %d ms%n", rows, columns, length,
+                            positions.size() - before, (System.nanoTime() - start) / 1_000_000);
+                }
+            }
+        }
+        try {
+            OpeningBook.write(path, positions);
+        } catch (IOException e) {
+            System.err.println("Could not write " + path + ": " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf("Wrote %d positions to %s%n", positions.size(), path);
+    }
+
+    /**
+     * Solve a position and every position reachable from it within a number of plays, adding them to positions
+     * Positions that are already solved (reached by another order of the same plays) are skipped
+     *
+     * @param board     The packed board (changed and restored)
+     * @param player    The piece to move
+     * @param plies     How many more plays to go down
+     * @param table     Transposition table to solve with
+     * @param positions Key to OpeningBook data of every solved position
+     */
+    public static void generate(BitBoard board, int player, int plies, TranspositionTable table, Map<Long, Integer> positions) {
+        long key = OpeningBook.key(board, player);
+        if (board.isGameOver() || positions.containsKey(key)) {
+            return;
+        }
+        int other = player == BitBoard.RED ? BitBoard.BLU : BitBoard.RED;
+        int[] result = new AlphaBetaSearch(board, player, other, table).search(Integer.MAX_VALUE);
+        positions.put(key, OpeningBook.data(result[1], result[2]));
+        if (plies == 0) {
+            return;
+        }
+        for (int col = 0; col < board.columns(); col++) {
+            if (board.canPlay(col)) {
+                board.play(col, player);
+                generate(board, other, plies - 1, table, positions);
+                board.undo(col);
+            }
+        }
+    }
+}
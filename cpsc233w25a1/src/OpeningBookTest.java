@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 OpeningBookTest Class
+ * Tests that a generated opening book is written, memory-mapped and looked up with the same answers as a full search.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class OpeningBookTest {
+
+    @Test
+    void lookupTest1(@TempDir Path directory) throws IOException {
+        // Every position of a generated 4x4 book gives the same move and score as a level 4 search
+        Map<Long, Integer> positions = new HashMap<>();
+        OpeningBookGenerator.generate(BitBoard.create(4, 4, 3), Board.RED, 2, new TranspositionTable(16), positions);
+        assertEquals(1 + 4 + 16, positions.size());
+        Path path = directory.resolve("connect-l.book");
+        OpeningBook.write(path, positions);
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(positions.size(), book.size());
+        BitBoard board = BitBoard.create(4, 4, 3);
+        board.play(1, Board.RED);
+        board.play(2, Board.BLU);
+        int[] expected = new AlphaBetaSearch(board, Board.RED, Board.BLU).search(Integer.MAX_VALUE);
+        assertArrayEquals(expected, book.lookup(board, Board.RED));
+    }
+
+    @Test
+    void lookupTest2(@TempDir Path directory) throws IOException {
+        // Positions deeper than the book, other board sizes and the wrong side to move are not found
+        Map<Long, Integer> positions = new HashMap<>();
+        OpeningBookGenerator.generate(BitBoard.create(4, 4, 3), Board.RED, 1, new TranspositionTable(16), positions);
+        Path path = directory.resolve("connect-l.book");
+        OpeningBook.write(path, positions);
+        OpeningBook book = OpeningBook.open(path);
+        BitBoard board = BitBoard.create(4, 4, 3);
+        assertNotNull(book.lookup(board, Board.RED));
+        assertNull(book.lookup(board, Board.BLU));
+        assertNull(book.lookup(BitBoard.create(4, 5, 3), Board.RED));
+        board.play(0, Board.RED);
+        board.play(0, Board.BLU);
+        assertNull(book.lookup(board, Board.RED));
+    }
+
+    @Test
+    void openTest1(@TempDir Path directory) throws IOException {
+        // A missing file is an empty book, a file that is not a book is an error
+        assertEquals(0, OpeningBook.open(directory.resolve("missing.book")).size());
+        Path path = directory.resolve("bad.book");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+}
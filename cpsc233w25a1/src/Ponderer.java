@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thinks about the computer's next move while the human is still deciding theirs (pondering)
+ *
+ * On start a background thread works out the computer's reply to each play the human could make, the play the human
+ * is most likely to make first (the best one for them by a quick search) then center first. Each reply is searched
+ * exactly as Game.AI would search it, so a finished reply is the move the computer would make anyway, and the shared
+ * transposition table is filled for the replies that did not finish.
+ *
+ * When the human plays, stop cancels the search that is running (it stops within a few microseconds), waits for the
+ * thread to end, and gives the reply to the play the human made if it was finished.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class Ponderer {
+
+    /**
+     * Plays looked ahead by the search that guesses the human's play
+     */
+    private static final int GUESS_PLIES = 2;
+
+    /**
+     * The difficultly level of the computer (1 to 4, other levels do not ponder)
+     */
+    private final int level;
+    /**
+     * The length of the long side of the L-shape needed to win
+     */
+    private final int length;
+    /**
+     * Finished replies by the column the human plays, guarded by this
+     */
+    private final Map<Integer, int[]> replies = new HashMap<>();
+    /**
+     * Counters of the finished replies' searches (none for opening book replies), guarded by this
+     */
+    private final Map<Integer, SearchStats> replyStats = new HashMap<>();
+    /**
+     * The background thread, null when not pondering
+     */
+    private Thread thread;
+    /**
+     * The search the background thread is running, guarded by this
+     */
+    private AlphaBetaSearch current;
+    /**
+     * Set by stop, guarded by this
+     */
+    private boolean stopped;
+
+    /**
+     * Create a ponderer for the computer's level
+     *
+     * @param level  The difficultly level of the computer
+     * @param length The length of the long side of the L-shape needed to win
+     */
+    public Ponderer(int level, int length) {
+        this.level = level;
+        this.length = length;
+    }
+
+    /**
+     * Does this level ponder
+     *
+     * @param level The difficultly level of the computer
+     * @return True for the alpha-beta levels 1 to 4
+     */
+    public static boolean ponders(int level) {
+        return level >= 1 && level <= 4;
+    }
+
+    /**
+     * Start pondering on a board where the human is to move, the board is copied so it can change after this
+     *
+     * @param board    The 2D array board of the game
+     * @param human    The human's piece
+     * @param computer The computer's piece
+     */
+    public synchronized void start(int[][] board, int human, int computer) {
+        if (thread != null) {
+            throw new IllegalStateException("Already pondering!");
+        }
+        replies.clear();
+        replyStats.clear();
+        stopped = false;
+        current = null;
+        BitBoard packed = BitBoard.of(board, length);
+        thread = new Thread(() -> ponder(packed, human, computer), "ponder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop pondering once the human has played
+     *
+     * @param column The column the human played
+     * @return The computer's (row, col) reply if it was finished, otherwise null
+     */
+    public int[] stop(int column) {
+        return stop(column, null);
+    }
+
+    /**
+     * Stop pondering once the human has played, and get the counters of the reply's search
+     *
+     * @param column The column the human played
+     * @param stats  Filled in with the counters of the reply's search if it was finished, may be null
+     * @return The computer's (row, col) reply if it was finished, otherwise null
+     */
+    public int[] stop(int column, SearchStats stats) {
+        Thread running;
+        synchronized (this) {
+            stopped = true;
+            if (current != null) {
+                current.cancel();
+            }
+            running = thread;
+        }
+        if (running == null) {
+            return null;
+        }
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            thread = null;
+            current = null;
+            int[] reply = replies.get(column);
+            if (reply != null && stats != null) {
+                stats.reset();
+                if (replyStats.containsKey(column)) {
+                    stats.copy(replyStats.get(column));
+                }
+            }
+            return reply;
+        }
+    }
+
+    /**
+     * The background thread, search the computer's reply to each of the human's plays until stopped
+     *
+     * @param board    The packed board, human to move
+     * @param human    The human's piece
+     * @param computer The computer's piece
+     */
+    private void ponder(BitBoard board, int human, int computer) {
+        for (int column : likelyPlays(board, human, computer)) {
+            board.play(column, human);
+            //No reply is needed if the human's play ends the game
+            if (!board.won(human) && !board.full()) {
+                int[] reply = Game.bookMove(board, computer, level);
+                AlphaBetaSearch search = null;
+                if (reply == null) {
+                    search = Game.newSearch(board, computer, human, level, true);
+                    synchronized (this) {
+                        if (stopped) {
+                            return;
+                        }
+                        current = search;
+                    }
+                    reply = Game.think(search, level);
+                }
+                synchronized (this) {
+                    //A cancelled search may have stopped early with a different move, only a finished one is kept
+                    if (search != null && search.isCancelled()) {
+                        return;
+                    }
+                    replies.put(column, reply);
+                    if (search != null) {
+                        SearchStats stats = new SearchStats();
+                        stats.copy(search.getStats());
+                        replyStats.put(column, stats);
+                    }
+                }
+            }
+            board.undo(column);
+        }
+    }
+
+    /**
+     * The human's open columns, the best by a quick search first then center first
+     *
+     * @param board    The packed board, human to move
+     * @param human    The human's piece
+     * @param computer The computer's piece
+     * @return The columns in the order to ponder them
+     */
+    private static int[] likelyPlays(BitBoard board, int human, int computer) {
+        AlphaBetaSearch guess = new AlphaBetaSearch(board, human, computer);
+        guess.setEvaluation(true);
+        int first = guess.search(GUESS_PLIES)[1];
+        int[] order = new int[board.columns()];
+        int count = 0;
+        if (first != -1) {
+            order[count++] = first;
+        }
+        for (int column : AlphaBetaSearch.centerOrder(board.columns())) {
+            if (column != first && board.canPlay(column)) {
+                order[count++] = column;
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 PondererTest Class
+ * Tests pondering gives the same reply as the AI would after the human plays, and stops at once when asked.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class PondererTest {
+
+    @Test
+    void pondersTest1() {
+        // Only the alpha-beta levels ponder
+        assertFalse(Ponderer.ponders(0));
+        assertTrue(Ponderer.ponders(1));
+        assertTrue(Ponderer.ponders(4));
+        assertFalse(Ponderer.ponders(5));
+    }
+
+    @Test
+    void stopTest1() throws InterruptedException {
+        // Given time a pondered reply is the move the AI makes after the human plays
+        int[][] board = Board.createBoard(6, 7);
+        board[5][3] = Board.RED;
+        board[5][2] = Board.BLU;
+        board[4][3] = Board.RED;
+        Ponderer ponderer = new Ponderer(1, 4);
+        ponderer.start(board, Board.BLU, Board.RED);
+        Thread.sleep(2000);
+        int[] reply = ponderer.stop(3);
+        assertNotNull(reply);
+        Board.play(board, 3, Board.BLU);
+        assertArrayEquals(Game.AI(board, Board.RED, Board.BLU, 1, 4, false, null), reply);
+    }
+
+    @Test
+    void stopTest2() {
+        // Stopping right away cancels a long search quickly, and the ponderer can start again
+        int[][] board = Board.createBoard(8, 8);
+        board[7][3] = Board.RED;
+        Ponderer ponderer = new Ponderer(3, 4);
+        ponderer.start(board, Board.BLU, Board.RED);
+        long start = System.nanoTime();
+        ponderer.stop(3);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        ponderer.start(board, Board.BLU, Board.RED);
+        ponderer.stop(4);
+    }
+
+    @Test
+    void stopTest3() {
+        // Stopping without starting gives no reply
+        assertNull(new Ponderer(2, 4).stop(0));
+    }
+}
@@ -0,0 +1,518 @@
+import java.util.Arrays;
+
+/**
+ * Depth-first proof-number search (df-pn) solver for Connect-L
+ *
+ * Decides whether the player to move has a forced win, a forced loss or only a draw, without working out how good each
+ * move is. A proof search only asks "can the attacker force a win", so it stops looking at a move as soon as one answer
+ * is enough, and spends its time on the moves that are closest to being proven (or disproven). That is usually far
+ * cheaper than a minimax search to the end of the game.
+ *
+ * Each position has a proof number (how many more positions must be proven for the attacker to win) and a disproof
+ * number (how many for the attacker not to win, a draw counts as not winning). Here they are kept from the side of the
+ * player to move (phi, delta):
+ * - phi is the proof number if the attacker is to move, otherwise the disproof number
+ * - delta is the other
+ * so a position's phi is the smallest delta of its moves and its delta is the sum of its moves' phis. Search goes down
+ * the move with the smallest delta until the numbers pass thresholds, as df-pn does.
+ *
+ * The numbers are kept in a table of fixed size (buckets of two, keeping the entry that took more work), keyed by the
+ * Zobrist hash of the board or its mirror image, whichever is smaller, and the side to move. An entry pushed out of the
+ * table is worked out again when needed. Positions where the player to move can win at once are proven without
+ * looking further, and a player facing a win has only the block to consider.
+ *
+ * A search keeps its own copy of the board, so one search should only be used by one thread at a time.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class ProofNumberSearch {
+
+    /**
+     * The player to move can force a win
+     */
+    public static final int WIN = 1;
+    /**
+     * The player to move can force a draw but no win
+     */
+    public static final int DRAW = 0;
+    /**
+     * The other player can force a win
+     */
+    public static final int LOSS = -1;
+    /**
+     * The node budget ran out before the position was solved
+     */
+    public static final int UNKNOWN = 2;
+
+    /**
+     * Proof and disproof numbers never go past this (a proven or disproven position)
+     */
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    /**
+     * The clock is checked once every CLOCK_MASK + 1 nodes
+     */
+    private static final long CLOCK_MASK = 1023;
+
+    /**
+     * The board being searched (a copy, changed and restored during search)
+     */
+    private BitBoard board;
+    /**
+     * The piece to move at the root
+     */
+    private int player1;
+    /**
+     * The other piece
+     */
+    private int player2;
+    /**
+     * Columns ordered center first, the order moves are tried
+     */
+    private int[] centerOrder;
+    /**
+     * Key of each table slot, 0 for empty
+     */
+    private final long[] keys;
+    /**
+     * Phi of each table slot
+     */
+    private final int[] phis;
+    /**
+     * Delta of each table slot
+     */
+    private final int[] deltas;
+    /**
+     * Nodes searched below each table slot when it was stored
+     */
+    private final long[] works;
+    /**
+     * Table slots minus 2 (slots come in buckets of two)
+     */
+    private final int mask;
+    /**
+     * Moves of each depth below the root, made when first reached
+     */
+    private int[][] moveBuffers = new int[0][];
+    /**
+     * Phi of the moves of each depth
+     */
+    private int[][] phiBuffers = new int[0][];
+    /**
+     * Delta of the moves of each depth
+     */
+    private int[][] deltaBuffers = new int[0][];
+    /**
+     * The piece trying to force a win in the current proof
+     */
+    private int attacker;
+    /**
+     * Pieces on the board at the root
+     */
+    private int rootCount;
+    /**
+     * Phi of the last position mid finished
+     */
+    private int lastPhi;
+    /**
+     * Delta of the last position mid finished
+     */
+    private int lastDelta;
+    /**
+     * Nodes searched by the last solve
+     */
+    private long nodes;
+    /**
+     * Most nodes a solve may search
+     */
+    private long maxNodes;
+    /**
+     * System.nanoTime after which a solve gives up
+     */
+    private long deadline;
+    /**
+     * The nodes or the time ran out
+     */
+    private boolean outOfBudget;
+    /**
+     * The move that proves the last solve's answer
+     */
+    private int bestMove;
+
+    /**
+     * Create a solver of the given board for player1 with a table of 2^bits entries (24 bytes each)
+     * The board is copied so the original is never modified
+     *
+     * @param board   The packed board to solve
+     * @param player1 The piece of player1 (to move at the root)
+     * @param player2 The piece of player2
+     * @param bits    Log2 of the number of table entries (at least 1)
+     */
+    public ProofNumberSearch(BitBoard board, int player1, int player2, int bits) {
+        if (bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("Table bits must be in [1,30]!");
+        }
+        this.board = board.copy();
+        this.player1 = player1;
+        this.player2 = player2;
+        this.centerOrder = AlphaBetaSearch.centerOrder(board.columns());
+        this.keys = new long[1 << bits];
+        this.phis = new int[1 << bits];
+        this.deltas = new int[1 << bits];
+        this.works = new long[1 << bits];
+        this.mask = (1 << bits) - 2;
+    }
+
+    /**
+     * Search another position from now on, keeping the table (so one solver can serve every hint of a game)
+     * The board is copied so the original is never modified
+     *
+     * @param board   The packed board to solve
+     * @param player1 The piece of player1 (to move at the root)
+     * @param player2 The piece of player2
+     */
+    public void reset(BitBoard board, int player1, int player2) {
+        if (board.columns() != this.board.columns()) {
+            centerOrder = AlphaBetaSearch.centerOrder(board.columns());
+            moveBuffers = new int[0][];
+            phiBuffers = new int[0][];
+            deltaBuffers = new int[0][];
+        }
+        this.board = board.copy();
+        this.player1 = player1;
+        this.player2 = player2;
+    }
+
+    /**
+     * Solve the position for player1 within a number of nodes and a time budget
+     * First a proof that player1 can force a win, if not a proof that player2 can, otherwise it is a draw
+     *
+     * @param maxNodes     Most nodes to search (for both proofs together)
+     * @param budgetMillis Wall-clock time allowed in milliseconds
+     * @return WIN, DRAW, LOSS or UNKNOWN if the nodes or time ran out
+     */
+    public int solve(long maxNodes, long budgetMillis) {
+        start(maxNodes, budgetMillis);
+        if (board.isGameOver()) {
+            return board.won(player2) ? LOSS : DRAW;
+        }
+        int first = prove(player1);
+        if (first != DRAW) {
+            return first;
+        }
+        int second = prove(player2);
+        if (second == WIN) {
+            bestMove = -1;
+            return LOSS;
+        }
+        return second;
+    }
+
+    /**
+     * Look for a forced win for player1 within a number of nodes and a time budget, only the first proof of solve
+     * Cheaper than solve when there is no win, as a draw is not told apart from a loss
+     *
+     * @param maxNodes     Most nodes to search
+     * @param budgetMillis Wall-clock time allowed in milliseconds
+     * @return The column that starts a forced win, -1 if there is none or the nodes or time ran out
+     */
+    public int findWin(long maxNodes, long budgetMillis) {
+        start(maxNodes, budgetMillis);
+        if (board.isGameOver() || prove(player1) != WIN) {
+            bestMove = -1;
+        }
+        return bestMove;
+    }
+
+    /**
+     * Reset the per solve state
+     *
+     * @param maxNodes     Most nodes to search
+     * @param budgetMillis Wall-clock time allowed in milliseconds
+     */
+    private void start(long maxNodes, long budgetMillis) {
+        this.maxNodes = maxNodes;
+        deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        outOfBudget = false;
+        nodes = 0;
+        bestMove = -1;
+        rootCount = board.count();
+    }
+
+    /**
+     * The move that proves the last solve's answer
+     *
+     * @return The winning column after a WIN, a column that keeps the draw after a DRAW, otherwise -1
+     */
+    public int getMove() {
+        return bestMove;
+    }
+
+    /**
+     * Nodes searched by the last solve
+     *
+     * @return The node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Prove or disprove that a piece can force a win from the root
+     *
+     * @param attacker The piece trying to win
+     * @return WIN if it can, DRAW if it cannot, UNKNOWN if the nodes ran out
+     */
+    private int prove(int attacker) {
+        this.attacker = attacker;
+        Arrays.fill(keys, 0);
+        Arrays.fill(works, 0);
+        mid(player1, INFINITY, INFINITY);
+        if (lastPhi != 0 && lastDelta != 0) {
+            return UNKNOWN;
+        }
+        //phi is 0 when player1 reached its goal at the root, a win as the attacker or no loss as the defender
+        boolean attackerWon = (lastPhi == 0) == (attacker == player1);
+        bestMove = lastPhi == 0 ? rootMove() : -1;
+        return attackerWon ? WIN : DRAW;
+    }
+
+    /**
+     * The root move whose delta is 0 (the move that reached the root's goal)
+     *
+     * @return The column
+     */
+    private int rootMove() {
+        //A root with a win at once is never expanded
+        for (int col = 0; col < board.columns(); col++) {
+            if (board.canPlay(col) && winsWith(col, player1)) {
+                return col;
+            }
+        }
+        int[] moves = moveBuffers[0];
+        for (int i = 0; i < moves.length && moves[i] != -1; i++) {
+            if (deltaBuffers[0][i] == 0) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Search a position until its phi or delta reaches its threshold, or it is solved, or the nodes or time run out
+     * Sets lastPhi and lastDelta to the position's numbers
+     *
+     * @param player         The piece to move
+     * @param thresholdPhi   Stop once phi is at least this
+     * @param thresholdDelta Stop once delta is at least this
+     */
+    private void mid(int player, int thresholdPhi, int thresholdDelta) {
+        nodes++;
+        long start = nodes;
+        if (nodes >= maxNodes || ((nodes & CLOCK_MASK) == 0 && System.nanoTime() > deadline)) {
+            outOfBudget = true;
+        }
+        int other = player == player1 ? player2 : player1;
+        long key = key(player);
+        if (terminal(player)) {
+            store(key, lastPhi, lastDelta, 1);
+            return;
+        }
+        int depth = board.count() - rootCount;
+        int count = expand(depth, player, other);
+        int[] moves = moveBuffers[depth];
+        int[] phi = phiBuffers[depth];
+        int[] delta = deltaBuffers[depth];
+        int nodePhi;
+        int nodeDelta;
+        while (true) {
+            int best = 0;
+            int secondDelta = INFINITY;
+            nodePhi = INFINITY;
+            nodeDelta = 0;
+            for (int i = 0; i < count; i++) {
+                nodeDelta = Math.min(INFINITY, nodeDelta + phi[i]);
+                if (delta[i] < delta[best] || i == best) {
+                    if (i != best) {
+                        secondDelta = delta[best];
+                    }
+                    best = i;
+                } else if (delta[i] < secondDelta) {
+                    secondDelta = delta[i];
+                }
+                nodePhi = Math.min(nodePhi, delta[i]);
+            }
+            if (nodePhi >= thresholdPhi || nodeDelta >= thresholdDelta || outOfBudget) {
+                break;
+            }
+            int childPhi = Math.min(INFINITY, thresholdDelta - (nodeDelta - phi[best]));
+            int childDelta = Math.min(thresholdPhi, secondDelta == INFINITY ? INFINITY : secondDelta + 1);
+            board.play(moves[best], player);
+            mid(other, childPhi, childDelta);
+            board.undo(moves[best]);
+            phi[best] = lastPhi;
+            delta[best] = lastDelta;
+        }
+        store(key, nodePhi, nodeDelta, nodes - start + 1);
+        lastPhi = nodePhi;
+        lastDelta = nodeDelta;
+    }
+
+    /**
+     * Is the position decided before looking at any move, if so set lastPhi and lastDelta
+     *
+     * @param player The piece to move
+     * @return True if the position is decided
+     */
+    private boolean terminal(int player) {
+        //No position is searched past a win at once, so the last play never won and only a full board ends the game
+        if (board.full()) {
+            //A draw is the defender's goal
+            lastPhi = player == attacker ? INFINITY : 0;
+            lastDelta = player == attacker ? 0 : INFINITY;
+            return true;
+        }
+        for (int col = 0; col < board.columns(); col++) {
+            if (board.canPlay(col) && winsWith(col, player)) {
+                //Winning at once is the goal of attacker and defender alike
+                lastPhi = 0;
+                lastDelta = INFINITY;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill the move buffers of a depth with the moves worth searching and their numbers from the table (1 if missing)
+     * If the other player could win at once only the block is a move
+     *
+     * @param depth  Plays below the root
+     * @param player The piece to move
+     * @param other  The other piece
+     * @return The number of moves
+     */
+    private int expand(int depth, int player, int other) {
+        if (moveBuffers.length <= depth) {
+            int depths = Math.max(depth + 1, moveBuffers.length * 2);
+            moveBuffers = Arrays.copyOf(moveBuffers, depths);
+            phiBuffers = Arrays.copyOf(phiBuffers, depths);
+            deltaBuffers = Arrays.copyOf(deltaBuffers, depths);
+        }
+        if (moveBuffers[depth] == null) {
+            moveBuffers[depth] = new int[board.columns()];
+            phiBuffers[depth] = new int[board.columns()];
+            deltaBuffers[depth] = new int[board.columns()];
+        }
+        int[] moves = moveBuffers[depth];
+        int count = 0;
+        for (int col = 0; col < board.columns(); col++) {
+            if (board.canPlay(col) && winsWith(col, other)) {
+                //Anything else loses at once, and two threats lose whatever is played
+                moves[count++] = col;
+                break;
+            }
+        }
+        if (count == 0) {
+            for (int col : centerOrder) {
+                if (board.canPlay(col)) {
+                    moves[count++] = col;
+                }
+            }
+        }
+        if (count < moves.length) {
+            moves[count] = -1;
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = find(childKey(moves[i], player, other));
+            phiBuffers[depth][i] = slot == -1 ? 1 : phis[slot];
+            deltaBuffers[depth][i] = slot == -1 ? 1 : deltas[slot];
+        }
+        return count;
+    }
+
+    /**
+     * Would playing a column win for a piece
+     *
+     * @param col   The column
+     * @param piece The piece
+     * @return True if the play makes a winning L-shape
+     */
+    private boolean winsWith(int col, int piece) {
+        board.play(col, piece);
+        boolean won = board.wonWith(col);
+        board.undo(col);
+        return won;
+    }
+
+    /**
+     * The table key of the board with a piece to move, the same for the board's mirror image
+     *
+     * @param player The piece to move
+     * @return The key, never 0
+     */
+    private long key(int player) {
+        return key(board.hash(), board.mirrorHash(), player);
+    }
+
+    /**
+     * The table key of the board after a play, worked out from the hashes without playing it
+     *
+     * @param col    The column played
+     * @param player The piece played
+     * @param other  The piece to move after the play
+     * @return The key, never 0
+     */
+    private long childKey(int col, int player, int other) {
+        int height = board.height(col);
+        return key(board.hash() ^ Zobrist.key(player, col, height),
+                board.mirrorHash() ^ Zobrist.key(player, board.columns() - 1 - col, height), other);
+    }
+
+    /**
+     * The table key of a board's hashes with a piece to move
+     *
+     * @param hash       The board's hash
+     * @param mirrorHash The hash of the board's mirror image
+     * @param player     The piece to move
+     * @return The key, never 0
+     */
+    private static long key(long hash, long mirrorHash, int player) {
+        long key = Math.min(hash, mirrorHash) ^ Zobrist.side(player);
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Find a key in the table
+     *
+     * @param key The key
+     * @return The slot, -1 if the key is not in the table
+     */
+    private int find(long key) {
+        int bucket = (int) (key ^ key >>> 32) & mask;
+        if (keys[bucket] == key) {
+            return bucket;
+        }
+        return keys[bucket + 1] == key ? bucket + 1 : -1;
+    }
+
+    /**
+     * Store a position's numbers, in its own slot if it has one, else over the bucket's entry with less work
+     *
+     * @param key   The key
+     * @param phi   The phi
+     * @param delta The delta
+     * @param work  Nodes searched below the position
+     */
+    private void store(long key, int phi, int delta, long work) {
+        int slot = find(key);
+        if (slot == -1) {
+            int bucket = (int) (key ^ key >>> 32) & mask;
+            slot = works[bucket] <= works[bucket + 1] ? bucket : bucket + 1;
+        }
+        keys[slot] = key;
+        phis[slot] = phi;
+        deltas[slot] = delta;
+        works[slot] = work;
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 ProofNumberSearchTest Class
+ * Tests the proof-number solver against a full alpha-beta search, its proving moves and its node budget.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class ProofNumberSearchTest {
+
+    @Test
+    void solveTest1() {
+        // Win, draw or loss is the sign of the score of an alpha-beta search to the end of the game, and the proving
+        // move keeps that result
+        SplittableRandom random = new SplittableRandom(233);
+        for (int i = 0; i < 40; i++) {
+            BitBoard board = BitBoard.create(4, i % 2 == 0 ? 4 : 5, 3);
+            int player = Board.RED;
+            for (int plays = random.nextInt(5); plays > 0 && !board.isGameOver(); plays--) {
+                int column = random.nextInt(board.columns());
+                if (board.canPlay(column)) {
+                    board.play(column, player);
+                    player = player == Board.RED ? Board.BLU : Board.RED;
+                }
+            }
+            if (board.isGameOver()) {
+                continue;
+            }
+            int other = player == Board.RED ? Board.BLU : Board.RED;
+            ProofNumberSearch solver = new ProofNumberSearch(board, player, other, 16);
+            int result = solver.solve(Long.MAX_VALUE, 60_000);
+            int expected = Integer.signum(new AlphaBetaSearch(board, player, other).search(Integer.MAX_VALUE)[2]);
+            assertEquals(expected, result);
+            if (result != ProofNumberSearch.LOSS) {
+                board.play(solver.getMove(), player);
+                int after = board.won(player) ? -1 : Integer.signum(new AlphaBetaSearch(board, other, player).search(Integer.MAX_VALUE)[2]);
+                assertEquals(-result, after);
+            }
+        }
+    }
+
+    @Test
+    void findWinTest1() {
+        // Red can win now by playing column 1 (same board as BoardTest hintTest1), blue cannot stop it
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][6] = Board.BLU;
+        board[4][6] = Board.BLU;
+        board[5][5] = Board.BLU;
+        ProofNumberSearch solver = new ProofNumberSearch(BitBoard.of(board, 3), Board.RED, Board.BLU, 12);
+        assertEquals(1, solver.findWin(1000, 60_000));
+        assertArrayEquals(new int[]{5, 1}, Game.forcedWin(board, Board.RED, Board.BLU, 3));
+    }
+
+    @Test
+    void findWinTest2() {
+        // Red has no win at once, but a forced win a few plays deep: after the proving move blue loses whatever it does
+        BitBoard board = BitBoard.create(4, 5, 3);
+        board.play(2, Board.RED);
+        board.play(0, Board.BLU);
+        board.play(2, Board.RED);
+        board.play(4, Board.BLU);
+        ProofNumberSearch solver = new ProofNumberSearch(board, Board.RED, Board.BLU, 14);
+        int column = solver.findWin(Long.MAX_VALUE, 60_000);
+        assertNotEquals(-1, column);
+        board.play(column, Board.RED);
+        assertTrue(new AlphaBetaSearch(board, Board.BLU, Board.RED).search(Integer.MAX_VALUE)[2] < 0);
+    }
+
+    @Test
+    void budgetTest1() {
+        // An 8x8 board cannot be solved in 100 nodes
+        ProofNumberSearch solver = new ProofNumberSearch(BitBoard.create(8, 8, 4), Board.RED, Board.BLU, 10);
+        assertEquals(ProofNumberSearch.UNKNOWN, solver.solve(100, 60_000));
+        assertTrue(solver.getNodes() <= 101);
+        assertEquals(-1, solver.findWin(100, 60_000));
+    }
+
+    @Test
+    void resetTest1() {
+        // One solver moved from position to position (and board size to board size) answers like a new one each time
+        SplittableRandom random = new SplittableRandom(17);
+        ProofNumberSearch reused = new ProofNumberSearch(BitBoard.create(4, 4, 3), Board.RED, Board.BLU, 14);
+        for (int i = 0; i < 30; i++) {
+            BitBoard board = BitBoard.create(4, i % 3 == 0 ? 5 : 4, 3);
+            int player = Board.RED;
+            for (int plays = random.nextInt(6); plays > 0 && !board.isGameOver(); plays--) {
+                int column = random.nextInt(board.columns());
+                if (board.canPlay(column)) {
+                    board.play(column, player);
+                    player = player == Board.RED ? Board.BLU : Board.RED;
+                }
+            }
+            if (board.isGameOver()) {
+                continue;
+            }
+            int other = player == Board.RED ? Board.BLU : Board.RED;
+            reused.reset(board, player, other);
+            int expected = new ProofNumberSearch(board, player, other, 14).solve(Long.MAX_VALUE, 60_000);
+            assertEquals(expected, reused.solve(Long.MAX_VALUE, 60_000));
+        }
+    }
+}
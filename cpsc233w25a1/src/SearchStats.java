@@ -0,0 +1,269 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Counters of one AI move (a search or an iterate of AlphaBetaSearch, or a MonteCarloSearch)
+ *
+ * The search counts nodes, nodes scored at the depth limit, cut-offs (and how many came from the first move tried,
+ * which says how good the move ordering is) and transposition table probes and hits, plus the plies, nodes and time
+ * of every iteration. summary gives it all as one line, which Game prints after each computer move.
+ *
+ * Counting is a few field increments per node, cheap enough to leave on. Run with -Dconnectl.stats=false to turn it
+ * off: ENABLED is then a false constant, and the JIT removes the counting code from the search altogether.
+ *
+ * Each search and each iteration is also a Java Flight Recorder event (connectl.Search and connectl.Iteration), so a
+ * recording (java -XX:StartFlightRecording ...) shows them next to GC and CPU samples. Without a recording the events
+ * cost nothing.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class SearchStats {
+
+    /**
+     * Whether the search counts anything past nodes, fixed when the class loads so the JIT can drop the counting
+     */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("connectl.stats"));
+
+    /**
+     * Positions searched
+     */
+    long nodes;
+    /**
+     * Positions scored at the depth limit (not won, lost or full)
+     */
+    long leaves;
+    /**
+     * Positions whose search stopped early because a move was good enough (alpha >= beta)
+     */
+    long cutoffs;
+    /**
+     * Cut-offs made by the first move tried
+     */
+    long firstCutoffs;
+    /**
+     * Transposition table look ups
+     */
+    long probes;
+    /**
+     * Look ups that found an entry
+     */
+    long hits;
+    /**
+     * Random games played (Monte Carlo tree search only)
+     */
+    long playouts;
+    /**
+     * Wall-clock time of the whole move in nanoseconds
+     */
+    long nanos;
+    /**
+     * Plies of the deepest finished iteration
+     */
+    int depth;
+    /**
+     * Iterations recorded
+     */
+    int iterations;
+    /**
+     * Plies, nodes and nanoseconds of each iteration, the last may be aborted
+     */
+    private long[][] plies = new long[3][8];
+    /**
+     * The last iteration ran out of time and was not used
+     */
+    private boolean aborted;
+
+    /**
+     * Clear every counter for a new move
+     */
+    public void reset() {
+        nodes = 0;
+        leaves = 0;
+        cutoffs = 0;
+        firstCutoffs = 0;
+        probes = 0;
+        hits = 0;
+        playouts = 0;
+        nanos = 0;
+        depth = 0;
+        iterations = 0;
+        aborted = false;
+    }
+
+    /**
+     * Add the node counters of another search (a parallel helper), iterations are not added
+     *
+     * @param other The counters to add
+     */
+    public void add(SearchStats other) {
+        nodes += other.nodes;
+        leaves += other.leaves;
+        cutoffs += other.cutoffs;
+        firstCutoffs += other.firstCutoffs;
+        probes += other.probes;
+        hits += other.hits;
+        playouts += other.playouts;
+    }
+
+    /**
+     * Make these counters a copy of another's
+     *
+     * @param other The counters to copy
+     */
+    public void copy(SearchStats other) {
+        reset();
+        add(other);
+        for (int i = 0; i < other.iterations; i++) {
+            iteration((int) other.plies[0][i], other.plies[1][i], other.plies[2][i], false);
+        }
+        nanos = other.nanos;
+        depth = other.depth;
+        aborted = other.aborted;
+    }
+
+    /**
+     * Record an iteration
+     *
+     * @param ply     Plies searched
+     * @param nodes   Nodes searched
+     * @param nanos   Nanoseconds taken
+     * @param aborted True if it ran out of time and was not used
+     */
+    void iteration(int ply, long nodes, long nanos, boolean aborted) {
+        if (iterations == plies[0].length) {
+            for (int i = 0; i < plies.length; i++) {
+                plies[i] = Arrays.copyOf(plies[i], iterations * 2);
+            }
+        }
+        plies[0][iterations] = ply;
+        plies[1][iterations] = nodes;
+        plies[2][iterations] = nanos;
+        iterations++;
+        this.aborted = aborted;
+        if (!aborted) {
+            depth = ply;
+        }
+    }
+
+    /**
+     * Positions searched
+     *
+     * @return The node count (or playout count of a Monte Carlo search)
+     */
+    public long getNodes() {
+        return playouts > 0 ? playouts : nodes;
+    }
+
+    /**
+     * Plies of the deepest finished iteration
+     *
+     * @return The depth reached
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Cut-offs counted
+     *
+     * @return The cut-off count, 0 if counting is off
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Effective branching factor, the number of moves searched per position if every position had the same number
+     *
+     * @return nodes ^ (1 / depth), 0 before any iteration finished
+     */
+    public double branchingFactor() {
+        return depth == 0 || nodes == 0 ? 0 : Math.pow(nodes, 1.0 / depth);
+    }
+
+    /**
+     * The counters as one line
+     *
+     * @return For example "AI: depth 6, 12034 nodes (EBF 4.80), 1000 cut-offs (93.1% first move), table 40.2% hits,
+     * 3.2 ms (3.76M nodes/s), plies 1:0.1 2:0.2 ... ms"
+     */
+    public String summary() {
+        double millis = nanos / 1e6;
+        if (playouts == 0 && iterations == 0) {
+            return "AI: no search (opening book or random move)";
+        }
+        if (playouts > 0) {
+            return String.format(Locale.ROOT, "AI: %d random games, %.1f ms (%.0f games/s)", playouts, millis,
+                    playouts / Math.max(nanos / 1e9, 1e-9));
+        }
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "AI: depth %d, %d nodes (EBF %.2f)",
+                depth, nodes, branchingFactor()));
+        if (ENABLED) {
+            line.append(String.format(Locale.ROOT, ", %d leaves, %d cut-offs (%.1f%% first move), table %.1f%% hits",
+                    leaves, cutoffs, percent(firstCutoffs, cutoffs), percent(hits, probes)));
+        }
+        line.append(String.format(Locale.ROOT, ", %.1f ms (%.2fM nodes/s)", millis, nodes / Math.max(nanos / 1e3, 1e-3)));
+        if (iterations > 0) {
+            line.append(", plies");
+            for (int i = 0; i < iterations; i++) {
+                line.append(String.format(Locale.ROOT, " %d:%.1f", plies[0][i], plies[2][i] / 1e6));
+            }
+            line.append(aborted ? " ms (last ran out of time)" : " ms");
+        }
+        return line.toString();
+    }
+
+    /**
+     * A share as a percentage
+     *
+     * @param part  The part
+     * @param total The whole
+     * @return 100 * part / total, 0 if total is 0
+     */
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    /**
+     * Flight recorder event of one AI search (search or iterate)
+     */
+    @Name("connectl.Search")
+    @Label("Connect-L AI Search")
+    @Category("Connect-L")
+    @Description("One move searched by the alpha-beta AI")
+    static final class SearchEvent extends Event {
+        @Label("Depth")
+        int depth;
+        @Label("Nodes")
+        long nodes;
+        @Label("Cut-offs")
+        long cutoffs;
+        @Label("Table Hits")
+        long hits;
+        @Label("Branching Factor")
+        double branchingFactor;
+    }
+
+    /**
+     * Flight recorder event of one iteration of an iterate
+     */
+    @Name("connectl.Iteration")
+    @Label("Connect-L AI Iteration")
+    @Category("Connect-L")
+    @Description("One depth of an iterative deepening AI search")
+    static final class IterationEvent extends Event {
+        @Label("Plies")
+        int plies;
+        @Label("Nodes")
+        long nodes;
+        @Label("Aborted")
+        boolean aborted;
+    }
+}
@@ -0,0 +1,79 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 SearchStatsTest Class
+ * Tests the AI search counters, their summary line and the flight recorder events of a search.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class SearchStatsTest {
+
+    @Test
+    void statsTest1() {
+        // An iterate records every iteration, and its totals match the search
+        BitBoard board = BitBoard.create(6, 7, 4);
+        board.play(3, Board.RED);
+        AlphaBetaSearch search = new AlphaBetaSearch(board, Board.BLU, Board.RED, new TranspositionTable(14));
+        search.iterate(6, 60_000);
+        SearchStats stats = search.getStats();
+        assertEquals(6, stats.getDepth());
+        assertEquals(search.getNodes(), stats.getNodes());
+        assertTrue(stats.branchingFactor() > 1);
+        if (SearchStats.ENABLED) {
+            assertTrue(stats.getCutoffs() > 0);
+        }
+        String summary = stats.summary();
+        assertTrue(summary.startsWith("AI: depth 6, " + search.getNodes() + " nodes"), summary);
+        assertTrue(summary.contains("plies 1:"), summary);
+    }
+
+    @Test
+    void statsTest2() {
+        // A copy is the same summary, and a reset is no search
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.create(5, 5, 3), Board.RED, Board.BLU);
+        search.search(4);
+        SearchStats copy = new SearchStats();
+        copy.copy(search.getStats());
+        assertEquals(search.getStats().summary(), copy.summary());
+        copy.reset();
+        assertEquals(0, copy.getNodes());
+        assertTrue(copy.summary().contains("no search"));
+    }
+
+    @Test
+    void statsTest3() {
+        // Game.AI fills in the counters of the move it made
+        int[][] board = Board.createBoard(6, 7);
+        SearchStats stats = new SearchStats();
+        Game.AI(board, Board.RED, Board.BLU, 2, 4, false, stats);
+        assertEquals(4, stats.getDepth());
+        assertTrue(stats.getNodes() > 0);
+    }
+
+    @Test
+    void eventTest1(@TempDir Path dir) throws IOException {
+        // A flight recording holds a search event and one iteration event per depth
+        Path file = dir.resolve("search.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("connectl.Search");
+            recording.enable("connectl.Iteration");
+            recording.start();
+            new AlphaBetaSearch(BitBoard.create(6, 7, 4), Board.RED, Board.BLU).iterate(3, 60_000);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("connectl.Search")).count());
+        assertEquals(3, events.stream().filter(e -> e.getEventType().getName().equals("connectl.Iteration")).count());
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * A BitBoard that packs each player's pieces into one long.
+ *
+ * Bit (column * (rows + 1) + height) is the spot at that column and height from the bottom. The extra bit on top of
+ * every column is always empty so shifting a whole board never carries a piece from one column into the next.
+ *
+ * Moving one spot in a direction is a shift of the whole long:
+ * - up a column is 1
+ * - along a row is rows + 1
+ * - up-right diagonal is rows + 2
+ * - down-right diagonal is rows
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class SingleLongBitBoard extends BitBoard {
+
+    /**
+     * Pieces of each player, RED at index 0 and BLU at index 1
+     */
+    private final long[] pieces;
+    /**
+     * Shift to move one spot along each of the four line directions
+     */
+    private final int[] steps;
+    /**
+     * Shift to move one spot perpendicular to each of the four line directions
+     */
+    private final int[] perpendiculars;
+    /**
+     * Can a line of length even fit in each of the four directions (if not that direction is skipped)
+     */
+    private final boolean[] fits;
+
+    /**
+     * An empty board of the given size and win length
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     */
+    SingleLongBitBoard(int rows, int columns, int length) {
+        super(rows, columns, length);
+        if (!fits(rows, columns)) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + columns + " does not fit in one long!");
+        }
+        pieces = new long[2];
+        int column = rows + 1;
+        //Column line, row line, up-right diagonal line, down-right diagonal line
+        steps = new int[]{1, column, column + 1, column - 1};
+        perpendiculars = new int[]{column, 1, column - 1, column + 1};
+        int diagonal = Math.min(rows, columns);
+        fits = new boolean[]{length <= rows, length <= columns, length <= diagonal, length <= diagonal};
+    }
+
+    /**
+     * Does a board of this size fit in one long (including the empty bit on top of each column)
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @return True if columns * (rows + 1) <= 64
+     */
+    public static boolean fits(int rows, int columns) {
+        return columns * (rows + 1) <= Long.SIZE;
+    }
+
+    /**
+     * The bit of a column and height
+     *
+     * @param column The column
+     * @param height The height from the bottom
+     * @return A long with only that spot set
+     */
+    private long bit(int column, int height) {
+        return 1L << (column * (rows + 1) + height);
+    }
+
+    /**
+     * All the pieces of one player (for hashing and evaluation)
+     *
+     * @param piece The piece (RED or BLU)
+     * @return The packed bits of that player
+     */
+    public long bits(int piece) {
+        return pieces[piece - 1];
+    }
+
+    @Override
+    protected void set(int column, int height, int piece) {
+        pieces[piece - 1] |= bit(column, height);
+    }
+
+    @Override
+    protected void clear(int column, int height) {
+        long keep = ~bit(column, height);
+        pieces[0] &= keep;
+        pieces[1] &= keep;
+    }
+
+    @Override
+    protected int pieceAt(int column, int height) {
+        long spot = bit(column, height);
+        if ((pieces[0] & spot) != 0) {
+            return RED;
+        } else if ((pieces[1] & spot) != 0) {
+            return BLU;
+        }
+        return EMP;
+    }
+
+    /**
+     * For each direction we find the first spot of every line of length pieces by and-ing the board with itself
+     * shifted back one step at a time. A line wins if its first or last spot has a perpendicular neighbour.
+     *
+     * @param piece The piece (RED or BLU) to check for a win
+     * @return True if piece has won
+     */
+    @Override
+    public boolean won(int piece) {
+        long board = pieces[piece - 1];
+        for (int direction = 0; direction < steps.length; direction++) {
+            if (!fits[direction]) {
+                continue;
+            }
+            int step = steps[direction];
+            //Starts of every line of length pieces in this direction
+            long starts = board;
+            for (int i = 1; i < length && starts != 0; i++) {
+                starts &= board >>> (i * step);
+            }
+            if (starts == 0) {
+                continue;
+            }
+            //Spots with a piece beside them perpendicular to this direction
+            int perpendicular = perpendiculars[direction];
+            long beside = (board << perpendicular) | (board >>> perpendicular);
+            long ends = starts << ((length - 1) * step);
+            if ((starts & beside) != 0 || (ends & beside) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BitBoard copy() {
+        SingleLongBitBoard other = new SingleLongBitBoard(rows, columns, length);
+        other.pieces[0] = pieces[0];
+        other.pieces[1] = pieces[1];
+        return copyInto(other);
+    }
+}
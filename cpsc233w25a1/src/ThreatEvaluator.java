@@ -0,0 +1,129 @@
+/**
+ * Heuristic evaluation of a Connect-L board from the windows each player can still win in
+ *
+ * A window is `length` spots in a row, column or diagonal. A window with pieces of only one player is still open for
+ * that player and scores more the more pieces it holds; a window with pieces of both players is dead and scores 0.
+ * The score is the sum of RED's open windows minus the sum of BLU's.
+ *
+ * The windows that cover each spot come from WinningWindows, so playing or removing a piece only updates those windows
+ * and the score is always ready without looking at the board.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class ThreatEvaluator {
+
+    /**
+     * Weight of a window holding k pieces is 4^(k-1), capped at 4^MAX_WEIGHT_POWER
+     */
+    private static final int MAX_WEIGHT_POWER = 6;
+
+    /**
+     * The number of rows in the board
+     */
+    private final int rows;
+    /**
+     * Every window of the board's geometry, shared with Board
+     */
+    private final WinningWindows windows;
+    /**
+     * RED pieces in each window
+     */
+    private final int[] red;
+    /**
+     * BLU pieces in each window
+     */
+    private final int[] blue;
+    /**
+     * Weight of an open window by pieces in it
+     */
+    private final int[] weights;
+    /**
+     * Sum of RED's open windows minus sum of BLU's
+     */
+    private int score;
+
+    /**
+     * Create an evaluator for a board, counting the pieces already on it
+     *
+     * @param board The packed board (not changed, and not followed after this, use play and undo)
+     */
+    public ThreatEvaluator(BitBoard board) {
+        this.rows = board.rows();
+        int columns = board.columns();
+        int length = board.length();
+        this.windows = WinningWindows.of(rows, columns, length);
+        this.red = new int[windows.count()];
+        this.blue = new int[windows.count()];
+        this.weights = new int[length + 1];
+        for (int k = 1; k <= length; k++) {
+            weights[k] = 1 << (2 * Math.min(k - 1, MAX_WEIGHT_POWER));
+        }
+        for (int column = 0; column < columns; column++) {
+            for (int height = 0; height < board.height(column); height++) {
+                play(column, height, board.get(rows - 1 - height, column));
+            }
+        }
+    }
+
+    /**
+     * Add a piece
+     *
+     * @param column The column
+     * @param height The height the piece lands at (0 is bottom)
+     * @param piece  The piece (RED or BLU)
+     */
+    public void play(int column, int height, int piece) {
+        int[] own = piece == BitBoard.RED ? red : blue;
+        int spot = windows.spot(rows - 1 - height, column);
+        for (int i = windows.spotStart[spot]; i < windows.spotStart[spot + 1]; i++) {
+            int window = windows.spotWindows[i];
+            score -= value(window);
+            own[window]++;
+            score += value(window);
+        }
+    }
+
+    /**
+     * Remove a piece added by play
+     *
+     * @param column The column
+     * @param height The height of the piece (0 is bottom)
+     * @param piece  The piece (RED or BLU)
+     */
+    public void undo(int column, int height, int piece) {
+        int[] own = piece == BitBoard.RED ? red : blue;
+        int spot = windows.spot(rows - 1 - height, column);
+        for (int i = windows.spotStart[spot]; i < windows.spotStart[spot + 1]; i++) {
+            int window = windows.spotWindows[i];
+            score -= value(window);
+            own[window]--;
+            score += value(window);
+        }
+    }
+
+    /**
+     * The evaluation for a piece
+     *
+     * @param piece The piece (RED or BLU)
+     * @return Positive if the piece has the better open windows
+     */
+    public int score(int piece) {
+        return piece == BitBoard.RED ? score : -score;
+    }
+
+    /**
+     * What a window adds to RED's score
+     *
+     * @param window The window id
+     * @return The weight for RED, minus the weight for BLU, 0 if empty or dead
+     */
+    private int value(int window) {
+        if (blue[window] == 0) {
+            return weights[red[window]];
+        } else if (red[window] == 0) {
+            return -weights[blue[window]];
+        }
+        return 0;
+    }
+}
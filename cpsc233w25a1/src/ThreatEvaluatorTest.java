@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 ThreatEvaluatorTest Class
+ * Tests the open window evaluation, its incremental updates and its use by the alpha-beta search.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class ThreatEvaluatorTest {
+
+    @Test
+    void scoreTest1() {
+        // A corner piece of a 4x4 board is in 3 windows of length 3 (row, column, one diagonal), each holding 1 piece
+        int[][] board = Board.createBoard(4, 4);
+        board[3][0] = Board.RED;
+        ThreatEvaluator evaluator = new ThreatEvaluator(BitBoard.of(board, 3));
+        assertEquals(3, evaluator.score(Board.RED));
+        assertEquals(-3, evaluator.score(Board.BLU));
+    }
+
+    @Test
+    void scoreTest2() {
+        // A 1x3 board has one window, open while only one player is in it and dead once both are
+        BitBoard board = BitBoard.create(1, 3, 3);
+        ThreatEvaluator evaluator = new ThreatEvaluator(board);
+        assertEquals(0, evaluator.score(Board.RED));
+        evaluator.play(0, 0, Board.RED);
+        assertEquals(1, evaluator.score(Board.RED));
+        evaluator.play(1, 0, Board.RED);
+        assertEquals(4, evaluator.score(Board.RED));
+        evaluator.play(2, 0, Board.BLU);
+        assertEquals(0, evaluator.score(Board.RED));
+        evaluator.undo(2, 0, Board.BLU);
+        assertEquals(4, evaluator.score(Board.RED));
+    }
+
+    @Test
+    void incrementalTest1() {
+        // Playing and undoing pieces one at a time always scores the same as counting the board from scratch
+        Random random = new Random(233);
+        BitBoard board = BitBoard.create(6, 7, 4);
+        ThreatEvaluator evaluator = new ThreatEvaluator(board);
+        int piece = Board.RED;
+        for (int i = 0; i < 2000; i++) {
+            int column = random.nextInt(7);
+            if (random.nextInt(3) > 0 && board.canPlay(column)) {
+                evaluator.play(column, board.height(column), piece);
+                board.play(column, piece);
+                piece = piece == Board.RED ? Board.BLU : Board.RED;
+            } else if (board.height(column) > 0) {
+                int height = board.height(column) - 1;
+                int removed = board.get(6 - 1 - height, column);
+                board.undo(column);
+                evaluator.undo(column, height, removed);
+            }
+            assertEquals(new ThreatEvaluator(board).score(Board.RED), evaluator.score(Board.RED));
+        }
+    }
+
+    @Test
+    void searchTest1() {
+        // With the evaluation a win is still found and scored as a win (same board as AlphaBetaSearchTest searchTest1)
+        int[][] board = Board.createBoard(6, 7);
+        board[5][2] = Board.RED;
+        board[4][2] = Board.RED;
+        board[3][2] = Board.RED;
+        board[5][6] = Board.BLU;
+        board[4][6] = Board.BLU;
+        board[5][5] = Board.BLU;
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.of(board, 3), Board.RED, Board.BLU, new TranspositionTable(12));
+        search.setEvaluation(true);
+        int[] result = search.search(4);
+        assertArrayEquals(new int[]{5, 1, AlphaBetaSearch.WIN - 2}, result);
+    }
+
+    @Test
+    void searchTest2() {
+        // On an empty board minimax scores every column 0 and takes the left-most, the evaluation prefers the center
+        // column, which is in the most windows
+        BitBoard board = BitBoard.create(6, 7, 4);
+        AlphaBetaSearch plain = new AlphaBetaSearch(board, Board.RED, Board.BLU);
+        assertArrayEquals(new int[]{5, 0, 0}, plain.search(1));
+        AlphaBetaSearch evaluated = new AlphaBetaSearch(board, Board.RED, Board.BLU);
+        evaluated.setEvaluation(true);
+        int[] result = evaluated.search(1);
+        assertEquals(3, result[1]);
+        assertTrue(result[2] > 0 && result[2] <= AlphaBetaSearch.MAX_EVALUATION);
+    }
+}
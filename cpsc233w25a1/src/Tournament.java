@@ -0,0 +1,328 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless AI vs AI tournament for Connect-L
+ *
+ * Plays every pair of the given AI levels against each other (and each level against itself) on one board size, with
+ * each level playing RED in half of the games. The games run on a thread pool without opening a window, each move made
+ * by Game.AI. Every game starts with a few random plays (from a seed) so games between the same levels differ.
+ *
+ * One CSV line is written per pair of levels: win and draw rates, and for each level the average and 99th percentile
+ * time per move and the average positions searched per move.
+ *
+ * Usage: java Tournament [--rows R] [--columns C] [--length L] [--levels 1,2,3] [--games N] [--openings K]
+ *                        [--threads T] [--seed S] [--out file.csv]
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class Tournament {
+
+    /**
+     * First line of the CSV
+     */
+    public static final String HEADER = "rows,columns,length,level_a,level_b,games,wins_a,wins_b,draws,"
+            + "win_rate_a,win_rate_b,draw_rate,moves_a,avg_ms_a,p99_ms_a,nodes_per_move_a,"
+            + "moves_b,avg_ms_b,p99_ms_b,nodes_per_move_b";
+    /**
+     * Boards with at most this many spots allow level 4, same as Game
+     */
+    private static final int MAX_CELLS_5X4 = 20;
+    /**
+     * Highest AI level (Monte Carlo tree search), same as Game
+     */
+    private static final int MAX_LEVEL = 5;
+
+    /**
+     * Run a tournament from the command line
+     *
+     * @param args Options, see the class comment
+     */
+    public static void main(String[] args) {
+        int rows = 6;
+        int columns = 7;
+        int length = 4;
+        int[] levels = {1, 2, 3};
+        int games = 100;
+        int openings = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 233L;
+        String out = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--rows" -> rows = Integer.parseInt(value);
+                    case "--columns" -> columns = Integer.parseInt(value);
+                    case "--length" -> length = Integer.parseInt(value);
+                    case "--levels" -> levels = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    case "--games" -> games = Integer.parseInt(value);
+                    case "--openings" -> openings = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--out" -> out = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            List<String> lines = run(rows, columns, length, levels, games, openings, threads, seed);
+            if (out == null) {
+                lines.forEach(System.out::println);
+            } else {
+                Files.write(Path.of(out), lines);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Play every pair of levels against each other
+     *
+     * @param rows     Board rows
+     * @param columns  Board columns
+     * @param length   Win length
+     * @param levels   AI levels to play
+     * @param games    Games per pair of levels
+     * @param openings Random plays at the start of each game
+     * @param threads  Games played at once
+     * @param seed     Seed for the random openings
+     * @return The CSV lines, header first
+     */
+    public static List<String> run(int rows, int columns, int length, int[] levels, int games, int openings,
+                                   int threads, long seed) {
+        if (rows < 1 || columns < 1 || !BitBoard.supports(rows, columns)) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + columns + " is not supported!");
+        }
+        if (length < 1 || games < 1 || openings < 0 || threads < 1) {
+            throw new IllegalArgumentException("Length, games and threads must be positive, openings not negative!");
+        }
+        for (int level : levels) {
+            if (level < 0 || level > MAX_LEVEL || (level == 4 && rows * columns > MAX_CELLS_5X4)) {
+                throw new IllegalArgumentException("AI level " + level + " is not allowed on a " + rows + "x" + columns + " board!");
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            int pair = 0;
+            for (int a = 0; a < levels.length; a++) {
+                for (int b = a; b < levels.length; b++) {
+                    List<Future<Record>> records = new ArrayList<>();
+                    for (int game = 0; game < games; game++) {
+                        //Level a is RED in even games, each game has its own random stream for the opening
+                        boolean aIsRed = game % 2 == 0;
+                        int red = aIsRed ? levels[a] : levels[b];
+                        int blue = aIsRed ? levels[b] : levels[a];
+                        SplittableRandom random = new SplittableRandom(seed + 0x9E3779B97F4A7C15L * ((long) pair * games + game));
+                        records.add(pool.submit(() -> play(rows, columns, length, red, blue, openings, random).swap(!aIsRed)));
+                    }
+                    Matchup matchup = new Matchup();
+                    for (Future<Record> record : records) {
+                        matchup.add(record.get());
+                    }
+                    lines.add(matchup.csv(rows, columns, length, levels[a], levels[b], games));
+                    pair++;
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Tournament game failed", e);
+        } finally {
+            pool.shutdown();
+        }
+        return lines;
+    }
+
+    /**
+     * Play one game, RED first
+     *
+     * @param rows     Board rows
+     * @param columns  Board columns
+     * @param length   Win length
+     * @param red      AI level of RED
+     * @param blue     AI level of BLU
+     * @param openings Random plays at the start of the game
+     * @param random   Random stream for the opening
+     * @return The result and move statistics, side a is RED
+     */
+    static Record play(int rows, int columns, int length, int red, int blue, int openings, SplittableRandom random) {
+        int[][] board;
+        int player;
+        int plays;
+        int[] last;
+        //Random opening, tried again if the random plays end the game
+        do {
+            board = Board.createBoard(rows, columns);
+            player = Game.RED;
+            plays = 0;
+            last = null;
+            for (int i = 0; i < openings && !(last != null && Board.isGameOver(board, last[0], last[1], length, plays)); i++) {
+                int column;
+                do {
+                    column = random.nextInt(columns);
+                } while (!Board.canPlay(board, column));
+                last = new int[]{Board.play(board, column, player), column};
+                plays++;
+                player = player == Game.RED ? Game.BLU : Game.RED;
+            }
+        } while (last != null && Board.isGameOver(board, last[0], last[1], length, plays));
+        Record record = new Record();
+        SearchStats stats = new SearchStats();
+        while (last == null || !Board.isGameOver(board, last[0], last[1], length, plays)) {
+            int other = player == Game.RED ? Game.BLU : Game.RED;
+            long start = System.nanoTime();
+            int[] move = Game.AI(board, player, other, player == Game.RED ? red : blue, length, false, stats);
+            long time = System.nanoTime() - start;
+            record.move(player == Game.RED ? 0 : 1, time, stats.getNodes());
+            last = new int[]{Board.play(board, move[1], player), move[1]};
+            plays++;
+            player = other;
+        }
+        if (Board.wins(board, last[0], last[1], length)) {
+            record.winner = board[last[0]][last[1]] == Game.RED ? 0 : 1;
+        }
+        return record;
+    }
+
+    /**
+     * Result of one game and its moves for sides 0 (a) and 1 (b)
+     */
+    static final class Record {
+        /**
+         * Side that won, -1 for a draw
+         */
+        int winner = -1;
+        /**
+         * Nanoseconds of each move per side
+         */
+        final long[][] times = {new long[8], new long[8]};
+        /**
+         * Moves made per side
+         */
+        final int[] moves = new int[2];
+        /**
+         * Positions searched per side
+         */
+        final long[] nodes = new long[2];
+
+        /**
+         * Record a move
+         *
+         * @param side  0 or 1
+         * @param time  Nanoseconds taken
+         * @param nodes Positions searched
+         */
+        void move(int side, long time, long nodes) {
+            if (moves[side] == times[side].length) {
+                times[side] = Arrays.copyOf(times[side], moves[side] * 2);
+            }
+            times[side][moves[side]++] = time;
+            this.nodes[side] += nodes;
+        }
+
+        /**
+         * Swap sides 0 and 1
+         *
+         * @param swap True to swap
+         * @return This record
+         */
+        Record swap(boolean swap) {
+            if (swap) {
+                winner = winner == -1 ? -1 : 1 - winner;
+                long[] time = times[0];
+                times[0] = times[1];
+                times[1] = time;
+                int move = moves[0];
+                moves[0] = moves[1];
+                moves[1] = move;
+                long node = nodes[0];
+                nodes[0] = nodes[1];
+                nodes[1] = node;
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Totals of all games between two levels
+     */
+    static final class Matchup {
+        /**
+         * Wins of side a, side b, and draws
+         */
+        final int[] results = new int[3];
+        /**
+         * Every move time per side
+         */
+        final long[][] times = {new long[0], new long[0]};
+        /**
+         * Moves per side
+         */
+        final int[] moves = new int[2];
+        /**
+         * Positions searched per side
+         */
+        final long[] nodes = new long[2];
+
+        /**
+         * Add a game
+         *
+         * @param record The game, side a as side 0
+         */
+        void add(Record record) {
+            results[record.winner == -1 ? 2 : record.winner]++;
+            for (int side = 0; side < 2; side++) {
+                int count = moves[side] + record.moves[side];
+                if (count > times[side].length) {
+                    times[side] = Arrays.copyOf(times[side], Math.max(count, times[side].length * 2));
+                }
+                System.arraycopy(record.times[side], 0, times[side], moves[side], record.moves[side]);
+                moves[side] = count;
+                nodes[side] += record.nodes[side];
+            }
+        }
+
+        /**
+         * The CSV line of these games
+         *
+         * @param rows    Board rows
+         * @param columns Board columns
+         * @param length  Win length
+         * @param levelA  Level of side a
+         * @param levelB  Level of side b
+         * @param games   Games played
+         * @return The line, columns as in HEADER
+         */
+        String csv(int rows, int columns, int length, int levelA, int levelB, int games) {
+            StringBuilder line = new StringBuilder();
+            line.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%d,%d,%.4f,%.4f,%.4f", rows, columns, length,
+                    levelA, levelB, games, results[0], results[1], results[2], (double) results[0] / games,
+                    (double) results[1] / games, (double) results[2] / games));
+            for (int side = 0; side < 2; side++) {
+                long[] sorted = Arrays.copyOf(times[side], moves[side]);
+                Arrays.sort(sorted);
+                double average = moves[side] == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6;
+                //Nearest-rank 99th percentile
+                double p99 = moves[side] == 0 ? 0 : sorted[(int) Math.ceil(0.99 * moves[side]) - 1] / 1e6;
+                double perMove = moves[side] == 0 ? 0 : (double) nodes[side] / moves[side];
+                line.append(String.format(Locale.ROOT, ",%d,%.3f,%.3f,%.1f", moves[side], average, p99, perMove));
+            }
+            return line.toString();
+        }
+    }
+}
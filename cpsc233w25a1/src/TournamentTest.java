@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 TournamentTest Class
+ * Tests the headless AI tournament plays complete games and reports one CSV line per pair of levels.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class TournamentTest {
+
+    @Test
+    void runTest1() {
+        // Levels 0 and 1 give pairs 0-0, 0-1 and 1-1, every game is counted once
+        List<String> lines = Tournament.run(4, 4, 3, new int[]{0, 1}, 6, 2, 2, 233L);
+        assertEquals(4, lines.size());
+        assertEquals(Tournament.HEADER, lines.get(0));
+        int columns = Tournament.HEADER.split(",").length;
+        for (String line : lines.subList(1, lines.size())) {
+            String[] values = line.split(",");
+            assertEquals(columns, values.length);
+            int games = Integer.parseInt(values[5]);
+            assertEquals(6, games);
+            assertEquals(games, Integer.parseInt(values[6]) + Integer.parseInt(values[7]) + Integer.parseInt(values[8]));
+        }
+    }
+
+    @Test
+    void playTest1() {
+        // A game ends in a win or a full board, and level 0 searches no positions
+        Tournament.Record record = Tournament.play(4, 5, 3, 2, 0, 0, new SplittableRandom(1));
+        assertTrue(record.winner >= -1 && record.winner <= 1);
+        assertTrue(record.moves[0] > 0);
+        assertEquals(0, record.nodes[1]);
+        assertTrue(record.moves[0] + record.moves[1] <= 20);
+    }
+
+    @Test
+    void runTest2() {
+        // Level 4 is only allowed where Game allows it
+        assertThrows(IllegalArgumentException.class, () -> Tournament.run(6, 7, 4, new int[]{4}, 2, 0, 1, 1L));
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size transposition table for the Connect-L AI search
+ *
+ * The same position can be reached by many orders of the same plays, so the search stores what it learned about each
+ * position (score, how deep it was searched, whether the score is exact or a bound, and the best move) keyed by the
+ * position's Zobrist hash and looks it up before searching it again.
+ *
+ * Memory is fixed when the table is made. Entries live in buckets of two:
+ * - the first slot keeps the deepest search of the bucket (replaced only by an equal or deeper search, or a stale entry)
+ * - the second slot is always replaced
+ *
+ * Each entry is two longs (the key XOR the data, and the data) so a reader can tell a whole entry from one that another
+ * thread is halfway through writing; it is then treated as a miss.
+ *
+ * Data is packed into one long:
+ * - bits 0-15   score (signed)
+ * - bits 16-31  draft (plays searched below the position, or FULL for searched to end of game)
+ * - bits 32-33  bound (EXACT, LOWER, UPPER)
+ * - bits 34-41  best move column + 1 (0 for none)
+ * - bits 42-49  generation (which search wrote it)
+ * - bit 50      always set, so a stored entry is never 0
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class TranspositionTable {
+
+    /**
+     * The score is exact
+     */
+    public static final int EXACT = 0;
+    /**
+     * The score is a lower bound (the search failed high)
+     */
+    public static final int LOWER = 1;
+    /**
+     * The score is an upper bound (the search failed low)
+     */
+    public static final int UPPER = 2;
+    /**
+     * Draft of a position searched to the end of the game
+     */
+    public static final int FULL = 0xFFFF;
+    /**
+     * Returned by probe when there is no entry
+     */
+    public static final long MISS = 0L;
+
+    /**
+     * Marks a stored entry so no entry is ever MISS
+     */
+    private static final long VALID = 1L << 50;
+
+    /**
+     * Key XOR data for each slot
+     */
+    private final long[] keys;
+    /**
+     * Packed data for each slot
+     */
+    private final long[] data;
+    /**
+     * Mask of the hash bits used to find a bucket
+     */
+    private final int mask;
+    /**
+     * The current search generation (entries from older generations are replaced first)
+     */
+    private int generation;
+
+    /**
+     * Create a table of 2^bits entries (each entry is 16 bytes)
+     *
+     * @param bits The log base 2 of the number of entries (at least 1)
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("Transposition table bits must be 1 <= bits <= 30 not " + bits + "!");
+        }
+        int size = 1 << bits;
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+        generation = 0;
+    }
+
+    /**
+     * Number of entries the table can hold
+     *
+     * @return The entry count
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Start a new search, entries from earlier searches become first in line to be replaced
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Look up a position
+     *
+     * @param key The Zobrist hash of the position
+     * @return The packed data of the entry, or MISS
+     */
+    public long probe(long key) {
+        int slot = (int) key & mask & ~1;
+        for (int i = slot; i <= slot + 1; i++) {
+            long entry = data[i];
+            if (entry != MISS && (keys[i] ^ entry) == key) {
+                return entry;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Store a search result for a position
+     *
+     * @param key   The Zobrist hash of the position
+     * @param score The score of the position (already made relative to the position)
+     * @param draft The plays searched below the position (or FULL)
+     * @param bound EXACT, LOWER or UPPER
+     * @param move  The best column, -1 if none
+     */
+    public void store(long key, int score, int draft, int bound, int move) {
+        long entry = VALID
+                | ((long) generation << 42)
+                | ((long) (move + 1) << 34)
+                | ((long) bound << 32)
+                | ((long) Math.min(draft, FULL) << 16)
+                | (score & 0xFFFFL);
+        int slot = (int) key & mask & ~1;
+        long deep = data[slot];
+        //Depth-preferred slot, keep the deeper search unless it is from an older search or this is the same position
+        if (deep == MISS || (keys[slot] ^ deep) == key || generation(deep) != generation || draft(deep) <= draft) {
+            data[slot] = entry;
+            keys[slot] = key ^ entry;
+        } else {
+            data[slot + 1] = entry;
+            keys[slot + 1] = key ^ entry;
+        }
+    }
+
+    /**
+     * Score of an entry
+     *
+     * @param entry Packed entry data
+     * @return The stored score
+     */
+    public static int score(long entry) {
+        return (short) (entry & 0xFFFFL);
+    }
+
+    /**
+     * Draft of an entry
+     *
+     * @param entry Packed entry data
+     * @return The plays searched below the position (or FULL)
+     */
+    public static int draft(long entry) {
+        return (int) ((entry >>> 16) & 0xFFFFL);
+    }
+
+    /**
+     * Bound of an entry
+     *
+     * @param entry Packed entry data
+     * @return EXACT, LOWER or UPPER
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> 32) & 0x3L);
+    }
+
+    /**
+     * Best move of an entry
+     *
+     * @param entry Packed entry data
+     * @return The best column, -1 if none
+     */
+    public static int move(long entry) {
+        return (int) ((entry >>> 34) & 0xFFL) - 1;
+    }
+
+    /**
+     * Generation of an entry
+     *
+     * @param entry Packed entry data
+     * @return The generation that wrote it
+     */
+    private static int generation(long entry) {
+        return (int) ((entry >>> 42) & 0xFFL);
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 TranspositionTableTest Class
+ * Tests storing, finding and replacing AI search results in the transposition table.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class TranspositionTableTest {
+
+    @Test
+    void probeTest1() {
+        // An empty table has no entries
+        TranspositionTable table = new TranspositionTable(4);
+        assertEquals(TranspositionTable.MISS, table.probe(12345L));
+    }
+
+    @Test
+    void storeTest1() {
+        // Everything stored comes back out
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(12345L, -97, 6, TranspositionTable.UPPER, 3);
+        long entry = table.probe(12345L);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(-97, TranspositionTable.score(entry));
+        assertEquals(6, TranspositionTable.draft(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(3, TranspositionTable.move(entry));
+    }
+
+    @Test
+    void storeTest2() {
+        // No move and a full draft are kept too
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(7L, 0, TranspositionTable.FULL, TranspositionTable.EXACT, -1);
+        long entry = table.probe(7L);
+        assertEquals(-1, TranspositionTable.move(entry));
+        assertEquals(TranspositionTable.FULL, TranspositionTable.draft(entry));
+    }
+
+    @Test
+    void storeTest3() {
+        // Three keys in one bucket, the deepest search is kept, the newest of the rest is kept
+        TranspositionTable table = new TranspositionTable(4);
+        long deep = 0x10L;
+        long first = 0x20L;
+        long second = 0x30L;
+        table.store(deep, 1, 10, TranspositionTable.EXACT, 0);
+        table.store(first, 2, 2, TranspositionTable.EXACT, 0);
+        table.store(second, 3, 2, TranspositionTable.EXACT, 0);
+        assertEquals(1, TranspositionTable.score(table.probe(deep)));
+        assertEquals(TranspositionTable.MISS, table.probe(first));
+        assertEquals(3, TranspositionTable.score(table.probe(second)));
+    }
+
+    @Test
+    void newSearchTest1() {
+        // A deep entry from an older search can be replaced
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(0x10L, 1, 10, TranspositionTable.EXACT, 0);
+        table.newSearch();
+        table.store(0x20L, 2, 2, TranspositionTable.EXACT, 0);
+        table.store(0x30L, 3, 2, TranspositionTable.EXACT, 0);
+        assertEquals(TranspositionTable.MISS, table.probe(0x10L));
+    }
+}
@@ -0,0 +1,392 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every winning window of one board geometry (rows, columns, win length), worked out once and shared
+ *
+ * A window is `length` spots in a row, column or diagonal. It wins for a piece when the piece fills it and also has a
+ * piece beside the first or last spot, perpendicular to the window (the L-shape). For each window this keeps its spots
+ * and the (up to four) spots beside its ends, so checking a window is a straight loop over a packed list with no
+ * bounds checks. Spots are numbered row * columns + column, row 0 at the top as in the 2D array board.
+ *
+ * Two reverse indexes list, for every spot, the windows it is in and the windows it is beside an end of. Those are the
+ * only windows a new piece can complete, so a win check after a play, or an evaluation update, only looks at them.
+ *
+ * Windows are numbered by direction (all rows, then columns, backslash and forward slash diagonals), and a window can
+ * be found from its first spot and direction. Tables are made on first use of a geometry and kept for the run.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class WinningWindows {
+
+    /**
+     * Windows along a row, left to right
+     */
+    public static final int ROW = 0;
+    /**
+     * Windows along a column, top to bottom
+     */
+    public static final int COLUMN = 1;
+    /**
+     * Windows along a backslash diagonal, top left to bottom right
+     */
+    public static final int BACKSLASH = 2;
+    /**
+     * Windows along a forward slash diagonal, bottom left to top right
+     */
+    public static final int FORWARD_SLASH = 3;
+
+    /**
+     * Each direction as {row step, column step, perpendicular row step, perpendicular column step}, same as Board
+     */
+    private static final int[][] LINES = {{0, 1, 1, 0}, {1, 0, 0, 1}, {1, 1, 1, -1}, {-1, 1, 1, 1}};
+    /**
+     * Spots beside the ends of a window (two beside the first spot, two beside the last)
+     */
+    private static final int ENDS = 4;
+    /**
+     * Tables by geometry, see key
+     */
+    private static final Map<Integer, WinningWindows> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * The number of rows in the board
+     */
+    private final int rows;
+    /**
+     * The number of columns in the board
+     */
+    private final int columns;
+    /**
+     * The length of the long side of the L-shape needed to win
+     */
+    private final int length;
+    /**
+     * The number of windows
+     */
+    private final int count;
+    /**
+     * Spots of window w, first to last, at w * length to w * length + length - 1
+     */
+    final int[] spots;
+    /**
+     * Spots beside the ends of window w at w * ENDS to w * ENDS + 3, -1 where off the board
+     */
+    final int[] ends;
+    /**
+     * The first window of each direction, and the window count last
+     */
+    final int[] directionStart;
+    /**
+     * The window of each direction starting at each spot (direction * spots + spot), -1 if none fits
+     */
+    private final int[] starts;
+    /**
+     * Row of each spot
+     */
+    private final int[] spotRow;
+    /**
+     * Column of each spot
+     */
+    private final int[] spotColumn;
+    /**
+     * The windows spot s is in are spotWindows[spotStart[s]] to spotWindows[spotStart[s + 1] - 1]
+     */
+    final int[] spotStart;
+    /**
+     * Window ids by the spots they contain, see spotStart
+     */
+    final int[] spotWindows;
+    /**
+     * The windows spot s is beside an end of are endWindows[endStart[s]] to endWindows[endStart[s + 1] - 1]
+     */
+    final int[] endStart;
+    /**
+     * Window ids by the spots beside their ends, see endStart
+     */
+    final int[] endWindows;
+
+    /**
+     * Work out every window of a geometry
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     */
+    private WinningWindows(int rows, int columns, int length) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = length;
+        int size = rows * columns;
+        this.spotRow = new int[size];
+        this.spotColumn = new int[size];
+        for (int spot = 0; spot < size; spot++) {
+            spotRow[spot] = spot / columns;
+            spotColumn[spot] = spot % columns;
+        }
+        this.starts = new int[LINES.length * size];
+        this.directionStart = new int[LINES.length + 1];
+        int id = 0;
+        for (int direction = 0; direction < LINES.length; direction++) {
+            directionStart[direction] = id;
+            int dr = LINES[direction][0];
+            int dc = LINES[direction][1];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    boolean fits = valid(row + dr * (length - 1), column + dc * (length - 1));
+                    starts[direction * size + row * columns + column] = fits ? id++ : -1;
+                }
+            }
+        }
+        directionStart[LINES.length] = id;
+        this.count = id;
+        this.spots = new int[count * length];
+        this.ends = new int[count * ENDS];
+        int[] inCount = new int[size + 1];
+        int[] besideCount = new int[size + 1];
+        for (int direction = 0; direction < LINES.length; direction++) {
+            int dr = LINES[direction][0];
+            int dc = LINES[direction][1];
+            int pr = LINES[direction][2];
+            int pc = LINES[direction][3];
+            for (int spot = 0; spot < size; spot++) {
+                int window = starts[direction * size + spot];
+                if (window == -1) {
+                    continue;
+                }
+                int row = spot / columns;
+                int column = spot % columns;
+                for (int i = 0; i < length; i++) {
+                    int s = (row + dr * i) * columns + column + dc * i;
+                    spots[window * length + i] = s;
+                    inCount[s]++;
+                }
+                int lastRow = row + dr * (length - 1);
+                int lastColumn = column + dc * (length - 1);
+                ends[window * ENDS] = spotOf(row - pr, column - pc);
+                ends[window * ENDS + 1] = spotOf(row + pr, column + pc);
+                ends[window * ENDS + 2] = spotOf(lastRow - pr, lastColumn - pc);
+                ends[window * ENDS + 3] = spotOf(lastRow + pr, lastColumn + pc);
+                for (int e = 0; e < ENDS; e++) {
+                    int beside = ends[window * ENDS + e];
+                    //The same spot can be beside both ends (length 1), it is listed once
+                    if (beside != -1 && (e < 2 || beside != ends[window * ENDS + e - 2])) {
+                        besideCount[beside]++;
+                    }
+                }
+            }
+        }
+        this.spotStart = prefixSums(inCount);
+        this.endStart = prefixSums(besideCount);
+        this.spotWindows = new int[spotStart[size]];
+        this.endWindows = new int[endStart[size]];
+        //Fill each spot's list from its start
+        int[] inNext = spotStart.clone();
+        int[] besideNext = endStart.clone();
+        for (int window = 0; window < count; window++) {
+            for (int i = 0; i < length; i++) {
+                int s = spots[window * length + i];
+                spotWindows[inNext[s]++] = window;
+            }
+            for (int e = 0; e < ENDS; e++) {
+                int beside = ends[window * ENDS + e];
+                if (beside != -1 && (e < 2 || beside != ends[window * ENDS + e - 2])) {
+                    endWindows[besideNext[beside]++] = window;
+                }
+            }
+        }
+    }
+
+    /**
+     * The windows of a geometry, made on first use
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     * @return The shared tables
+     */
+    public static WinningWindows of(int rows, int columns, int length) {
+        if (rows < 1 || columns < 1 || length < 1) {
+            throw new IllegalArgumentException("Board of " + rows + "x" + columns + " length " + length + " has no windows!");
+        }
+        return CACHE.computeIfAbsent(key(rows, columns, length), k -> new WinningWindows(rows, columns, length));
+    }
+
+    /**
+     * The windows of a 2D array board's geometry
+     *
+     * @param board  The 2D array board
+     * @param length The length of the long side of the L-shape needed to win
+     * @return The shared tables
+     */
+    public static WinningWindows of(int[][] board, int length) {
+        return of(board.length, board[0].length, length);
+    }
+
+    /**
+     * The number of windows
+     *
+     * @return The window count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * The length of every window
+     *
+     * @return The win length
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The window of a direction that starts at a spot
+     *
+     * @param direction ROW, COLUMN, BACKSLASH or FORWARD_SLASH
+     * @param row       The row of the first spot
+     * @param column    The column of the first spot
+     * @return The window id, -1 if the window would run off the board
+     */
+    public int start(int direction, int row, int column) {
+        return starts[direction * rows * columns + row * columns + column];
+    }
+
+    /**
+     * Does a piece win with a window: it fills the window and has a piece beside the first or last spot
+     *
+     * @param board  The 2D array board of this geometry
+     * @param window The window id
+     * @param piece  The piece
+     * @return True if the window makes an L-shape of piece
+     */
+    public boolean won(int[][] board, int window, int piece) {
+        for (int i = window * length; i < window * length + length; i++) {
+            if (at(board, spots[i]) != piece) {
+                return false;
+            }
+        }
+        for (int e = window * ENDS; e < window * ENDS + ENDS; e++) {
+            if (ends[e] != -1 && at(board, ends[e]) == piece) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Does a piece win with any window of a direction
+     *
+     * @param board     The 2D array board of this geometry
+     * @param direction ROW, COLUMN, BACKSLASH or FORWARD_SLASH
+     * @param piece     The piece
+     * @return True if some window of the direction makes an L-shape of piece
+     */
+    public boolean wonIn(int[][] board, int direction, int piece) {
+        for (int window = directionStart[direction]; window < directionStart[direction + 1]; window++) {
+            if (won(board, window, piece)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Does the piece at a spot make a win, as part of a window or as the piece beside a window's end
+     *
+     * @param board  The 2D array board of this geometry
+     * @param row    The row of the piece
+     * @param column The column of the piece
+     * @return True if the piece at (row, column) is part of a winning L-shape of its player
+     */
+    public boolean wins(int[][] board, int row, int column) {
+        int piece = board[row][column];
+        if (piece == Board.EMP) {
+            return false;
+        }
+        int spot = row * columns + column;
+        for (int i = spotStart[spot]; i < spotStart[spot + 1]; i++) {
+            if (won(board, spotWindows[i], piece)) {
+                return true;
+            }
+        }
+        for (int i = endStart[spot]; i < endStart[spot + 1]; i++) {
+            if (won(board, endWindows[i], piece)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The spot number of a row and column of this geometry
+     *
+     * @param row    The row, 0 at the top
+     * @param column The column
+     * @return row * columns + column
+     */
+    public int spot(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * The piece at a spot
+     *
+     * @param board The 2D array board
+     * @param spot  The spot number
+     * @return The piece there
+     */
+    private int at(int[][] board, int spot) {
+        return board[spotRow[spot]][spotColumn[spot]];
+    }
+
+    /**
+     * Is (row, column) on the board
+     *
+     * @param row    The row
+     * @param column The column
+     * @return True if inside the board
+     */
+    private boolean valid(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * The spot number of (row, column), -1 if off the board
+     *
+     * @param row    The row
+     * @param column The column
+     * @return The spot number or -1
+     */
+    private int spotOf(int row, int column) {
+        return valid(row, column) ? row * columns + column : -1;
+    }
+
+    /**
+     * Start of each spot's list from the spot counts (the last count is unused)
+     *
+     * @param counts Entries per spot
+     * @return counts summed before each spot, the total last
+     */
+    private static int[] prefixSums(int[] counts) {
+        int[] sums = new int[counts.length];
+        for (int spot = 1; spot < counts.length; spot++) {
+            sums[spot] = sums[spot - 1] + counts[spot - 1];
+        }
+        return sums;
+    }
+
+    /**
+     * The cache key of a geometry
+     *
+     * @param rows    The number of rows
+     * @param columns The number of columns
+     * @param length  The win length
+     * @return The three packed into an int
+     */
+    private static int key(int rows, int columns, int length) {
+        return rows << 20 | columns << 10 | length;
+    }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPSC 233 W25 Assignment 1 WinningWindowsTest Class
+ * Tests the window tables, their reverse indexes and that their win checks agree with the bitboard.
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public class WinningWindowsTest {
+
+    @Test
+    void countTest1() {
+        // A 6x7 board has 6*4 row, 3*7 column and 3*4 of each diagonal windows of length 4
+        WinningWindows windows = WinningWindows.of(6, 7, 4);
+        assertEquals(24 + 21 + 12 + 12, windows.count());
+        assertEquals(4, windows.length());
+        assertArrayEquals(new int[]{0, 24, 45, 57, 69}, windows.directionStart);
+        assertSame(windows, WinningWindows.of(Board.createBoard(6, 7), 4));
+    }
+
+    @Test
+    void countTest2() {
+        // No window fits when the length is longer than the board
+        WinningWindows windows = WinningWindows.of(2, 2, 3);
+        assertEquals(0, windows.count());
+        assertEquals(-1, windows.start(WinningWindows.ROW, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> WinningWindows.of(0, 7, 4));
+    }
+
+    @Test
+    void startTest1() {
+        // The row window from (5,1) on a 6x7 board is spots 36 to 38, with ends beside 35 and 38 off row 5
+        WinningWindows windows = WinningWindows.of(6, 7, 3);
+        int window = windows.start(WinningWindows.ROW, 5, 1);
+        assertArrayEquals(new int[]{36, 37, 38}, Arrays.copyOfRange(windows.spots, window * 3, window * 3 + 3));
+        assertArrayEquals(new int[]{29, -1, 31, -1}, Arrays.copyOfRange(windows.ends, window * 4, window * 4 + 4));
+        assertEquals(-1, windows.start(WinningWindows.ROW, 5, 5));
+    }
+
+    @Test
+    void indexTest1() {
+        // Every spot lists exactly the windows it is in and the windows it is beside an end of
+        WinningWindows windows = WinningWindows.of(5, 6, 3);
+        for (int spot = 0; spot < 30; spot++) {
+            for (int window = 0; window < windows.count(); window++) {
+                boolean in = false;
+                boolean beside = false;
+                for (int i = 0; i < 3; i++) {
+                    in |= windows.spots[window * 3 + i] == spot;
+                }
+                for (int e = 0; e < 4; e++) {
+                    beside |= windows.ends[window * 4 + e] == spot;
+                }
+                assertEquals(in, listed(windows.spotStart, windows.spotWindows, spot, window));
+                assertEquals(beside, listed(windows.endStart, windows.endWindows, spot, window));
+            }
+        }
+    }
+
+    @Test
+    void winsTest1() {
+        // On random boards the windows find a win exactly when the bitboard does, and wins agrees for the last piece
+        Random random = new Random(233);
+        for (int game = 0; game < 300; game++) {
+            int rows = 1 + random.nextInt(7);
+            int columns = 1 + random.nextInt(8);
+            int length = 1 + random.nextInt(4);
+            int[][] board = Board.createBoard(rows, columns);
+            BitBoard bits = BitBoard.create(rows, columns, length);
+            WinningWindows windows = WinningWindows.of(rows, columns, length);
+            int piece = Board.RED;
+            while (!bits.isGameOver()) {
+                int column = random.nextInt(columns);
+                if (!bits.canPlay(column)) {
+                    continue;
+                }
+                int row = rows - 1 - bits.height(column);
+                bits.play(column, piece);
+                board[row][column] = piece;
+                assertEquals(bits.won(piece), windows.wins(board, row, column));
+                for (int p : new int[]{Board.RED, Board.BLU}) {
+                    boolean any = false;
+                    for (int direction = 0; direction < 4; direction++) {
+                        any |= windows.wonIn(board, direction, p);
+                    }
+                    assertEquals(bits.won(p), any);
+                }
+                piece = piece == Board.RED ? Board.BLU : Board.RED;
+            }
+        }
+    }
+
+    /**
+     * Is a window in a spot's list of a reverse index
+     *
+     * @param start   Start of each spot's list
+     * @param windows The lists
+     * @param spot    The spot
+     * @param window  The window
+     * @return True if listed
+     */
+    private static boolean listed(int[] start, int[] windows, int spot, int window) {
+        for (int i = start[spot]; i < start[spot + 1]; i++) {
+            if (windows[i] == window) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
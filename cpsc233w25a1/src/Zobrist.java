@@ -0,0 +1,88 @@
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing keys for Connect-L boards
+ *
+ * Every (piece, column, height) spot has its own random 64-bit key and the hash of a board is the XOR of the keys of
+ * all pieces in it. Playing or removing a piece is then a single XOR, so BitBoard keeps its hash up to date as it goes.
+ *
+ * The keys come from a fixed seed so the same board always hashes the same between runs.
+ *
+ * @author Simrandeep Kaur
+ * @version 1.0
+ */
+public final class Zobrist {
+
+    /**
+     * Seed for the key generator (fixed so hashes are repeatable)
+     */
+    private static final long SEED = 233L;
+    /**
+     * XOR-ed into a hash when BLU is the player to move
+     */
+    public static final long SIDE;
+    /**
+     * XOR-ed into a hash searched with a heuristic evaluation, whose scores differ from a search without one
+     */
+    public static final long EVALUATED;
+    /**
+     * One key per piece per spot, RED at index 0 and BLU at index 1, spot is column * MAX_ROWS + height
+     */
+    private static final long[][] KEYS = new long[2][BitBoard.MAX_COLUMNS * BitBoard.MAX_ROWS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : KEYS) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+        SIDE = random.nextLong();
+        EVALUATED = random.nextLong();
+    }
+
+    /**
+     * No instances, only static keys
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * The key for a piece at a column and height (0 is bottom)
+     *
+     * @param piece  The piece (RED or BLU)
+     * @param column The column
+     * @param height The height from the bottom
+     * @return The 64-bit key of that piece in that spot
+     */
+    public static long key(int piece, int column, int height) {
+        return KEYS[piece - 1][column * BitBoard.MAX_ROWS + height];
+    }
+
+    /**
+     * The starting hash of an empty board of a given size and win length
+     * (so the same pieces on boards of different size or win length do not share transposition table entries)
+     *
+     * @param rows    The number of rows in the board
+     * @param columns The number of columns in the board
+     * @param length  The length of the long side of the L-shape needed to win
+     * @return The 64-bit key of the board geometry
+     */
+    public static long geometry(int rows, int columns, int length) {
+        //SplitMix64 finalizer over the packed geometry, spreads the few input bits over the whole key
+        long z = SEED + (((long) rows << 32) | ((long) columns << 16) | length) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The key for the player to move
+     *
+     * @param player The piece to move (RED or BLU)
+     * @return SIDE for BLU, 0 for RED
+     */
+    public static long side(int player) {
+        return player == BitBoard.BLU ? SIDE : 0L;
+    }
+}
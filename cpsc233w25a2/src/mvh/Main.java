@@ -26,7 +26,7 @@ public final class Main {
     /**
      * Check arguments, read world, setup logger, and start simulation
      *
-     * @param args Program arguments, Usage: Main &lt;world&gt; &lt;log&gt; &lt;seed&gt;
+     * @param args Program arguments, Usage: Main &lt;world&gt; &lt;log&gt; &lt;seed&gt; [threads]
      */
     public static void main(String[] args) {
         //Check for 3 arguments
@@ -47,19 +47,24 @@ public final class Main {
         Menu.println("Arguments: "+ Arrays.toString(args));
         World world = Reader.loadWorld(fileWorld);
 
+        //Plan each tick on threads if asked to
+        if (args.length == 4) {
+            setupParallel(world, args[2], args[3]);
+        }
+
         //Run simulation
         runSimulation(world);
     }
 
     /**
-     * Verify that program has the 3 command line arguments necessary
+     * Verify that program has the 3 command line arguments necessary (and at most the optional threads)
      *
      * @param args The program arguments
      */
     private static void checkArgument(String[] args) {
-        if (args.length != 3) {
-            System.err.println("Program requires 2 arguments!");
-            System.err.println("Usage: Main <world> <log> <seed>");
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Program requires 3 arguments!");
+            System.err.println("Usage: Main <world> <log> <seed> [threads]");
             System.exit(1);
         }
     }
@@ -78,6 +83,22 @@ public final class Main {
         }
     }
 
+    /**
+     * Advance the world in parallel, each entity drawing from its own stream of the seed
+     *
+     * @param world   The loaded world
+     * @param seed    The integer seed (already checked by setupRNG)
+     * @param threads The number of threads to plan each tick on
+     */
+    private static void setupParallel(World world, String seed, String threads) {
+        try {
+            world.setParallel(Integer.parseInt(seed), Integer.parseInt(threads));
+        } catch (IllegalArgumentException e) {
+            System.err.printf("Fourth argument %s should be a number of threads >= 1!%n", threads);
+            System.exit(1);
+        }
+    }
+
     /**
      * Verify if files exists and can be accessed properly
      * Create log file if it doesn't exist and require confirmation to overwrite past log files
@@ -2,6 +2,8 @@ package mvh.enums;
 
 import mvh.Main;
 
+import java.util.SplittableRandom;
+
 /**
  * Enumeration of directions in 2D grid
  * Helper class contains index adjustments if movement is wanted in that direction
@@ -59,6 +61,16 @@ public enum Direction {
         return Direction.values()[Main.random.nextInt(Direction.values().length)];
     }
 
+    /**
+     * Get a random direction from the set of 9 available options, drawn from a given stream instead of Main.random
+     *
+     * @param random The stream to draw from
+     * @return A random Direction from the available 9 directions
+     */
+    public static Direction getRandomDirection(SplittableRandom random) {
+        return Direction.values()[random.nextInt(Direction.values().length)];
+    }
+
     /**
      * Get direction that matches an i,j adjustment to current location
      *
@@ -1,5 +1,7 @@
 package mvh.test;
 
+import mvh.Main;
+import mvh.Menu;
 import mvh.enums.Direction;
 import mvh.enums.WeaponType;
 import mvh.util.Reader;
@@ -7,6 +9,9 @@ import mvh.world.*;
 import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -262,4 +267,219 @@ class MvHTest {
         assertNull(attackDirection, "Monster should not attack if no alive heroes are around.");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetLocalView_sameAsGetLocal() {
+        Entity.resetIDCounter();
+        World world = new World(4, 6); // A world with entities on its edges and inside
+        world.addEntity(0, 0, new Hero(10, 'H', 5, 3));
+        world.addEntity(1, 2, new Monster(10, 'M', WeaponType.SWORD));
+        world.addEntity(3, 5, new Monster(10, 'N', WeaponType.AXE));
+        world.addEntity(2, 4, new Hero(10, 'G', 5, 3));
+        // Every window shows what the copy shows, walls outside the world included
+        for (int size = 1; size <= 7; size += 2) {
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 6; column++) {
+                    assertEquals(world.getLocal(size, row, column).worldString(),
+                            world.getLocalView(size, row, column).worldString());
+                }
+            }
+        }
+        // Entities decide the same from a view as from a copy
+        Hero hero = (Hero) world.getEntity(2, 4);
+        assertEquals(hero.attackWhere(world.getLocal(3, 2, 4)), hero.attackWhere(world.getLocalView(3, 2, 4)));
+        assertEquals(hero.chooseMove(world.getLocal(5, 2, 4)), hero.chooseMove(world.getLocalView(5, 2, 4)));
+    }
+
+    @Test
+    public void testGetLocalView_readsThrough() {
+        World world = new World(5, 5);
+        world.addEntity(2, 2, new Hero(10, 'H', 5, 3));
+        LocalView view = world.getLocalView(3, 2, 2);
+        assertEquals(3, view.getRows());
+        assertEquals(3, view.getColumns());
+        // A view sees its world change and can be moved without copying
+        world.addEntity(1, 1, new Monster(10, 'M', WeaponType.SWORD));
+        assertTrue(view.isMonster(0, 0));
+        assertSame(Wall.getWall(), view.center(0, 0).getEntity(0, 0));
+        assertTrue(view.isMonster(2, 2));
+        // A view is read only
+        assertThrows(UnsupportedOperationException.class, () -> view.addEntity(0, 0, new Hero(10, 'H', 5, 3)));
+        assertThrows(IllegalArgumentException.class, () -> world.getLocalView(4, 2, 2));
+    }
+
+    @Test
+    public void testEntityStore_heroAndMonsterAreViews() {
+        Entity.resetIDCounter();
+        World world = new World(3, 3);
+        Hero hero = new Hero(10, 'H', 5, 3);
+        Monster monster = new Monster(4, 'M', WeaponType.AXE);
+        world.addEntity(0, 0, hero);
+        world.addEntity(2, 2, monster);
+        // Damage through the objects is kept in the world's arrays, and shows in every copy that borrows them
+        World copy = world.getLocal(3, 1, 1);
+        hero.damage(3);
+        monster.damage(4);
+        assertEquals(7, hero.getHealth());
+        assertTrue(hero.isAlive());
+        assertEquals(0, monster.getHealth());
+        assertTrue(monster.isDead());
+        assertTrue(copy.getEntity(2, 2).isDead());
+        assertEquals("""
+                #####
+                #H..#
+                #...#
+                #..$#
+                #####
+                NAME   \tS\tH\tSTATE\tINFO
+                Hero(1)\tH\t7\tALIVE\t5\t3
+                Mons(2)\tM\t0\tDEAD\tAXE
+                """, world.gameString());
+        // Moving keeps the entity with its stats
+        world.moveEntity(0, 0, Direction.SOUTHEAST);
+        assertSame(hero, world.getEntity(1, 1));
+        assertNull(world.getEntity(0, 0));
+        assertEquals(7, world.getEntity(1, 1).getHealth());
+    }
+
+    @Test
+    public void testAliveCounts_matchGrid() {
+        Entity.resetIDCounter();
+        World world = new World(3, 4);
+        world.addEntity(0, 0, new Hero(10, 'H', 5, 3));
+        world.addEntity(0, 3, new Hero(6, 'G', 5, 3));
+        world.addEntity(2, 3, new Monster(4, 'M', WeaponType.AXE));
+        assertEquals(2, world.getAliveCount(EntityStore.HERO));
+        assertEquals(16, world.getHealthSum(EntityStore.HERO));
+        assertEquals(1, world.getAliveCount(EntityStore.MONSTER));
+        // A death is counted at once, and a side with no one left ends the simulation
+        world.getEntity(2, 3).damage(1);
+        assertEquals(3, world.getHealthSum(EntityStore.MONSTER));
+        world.checkActive();
+        assertTrue(world.isActive());
+        world.getEntity(2, 3).damage(10);
+        assertEquals(0, world.getAliveCount(EntityStore.MONSTER));
+        assertEquals(0, world.getHealthSum(EntityStore.MONSTER));
+        world.checkActive();
+        assertFalse(world.isActive());
+        // An entity put on top of another takes it off the grid and off the counts
+        world.addEntity(0, 3, new Monster(5, 'N', WeaponType.CLUB));
+        assertEquals(1, world.getAliveCount(EntityStore.HERO));
+        assertEquals(10, world.getHealthSum(EntityStore.HERO));
+        assertEquals(1, world.getAliveCount(EntityStore.MONSTER));
+        // A copy borrowing the entities still finds both sides by looking
+        World copy = world.getLocal(5, 1, 1);
+        copy.checkActive();
+        assertTrue(copy.isActive());
+    }
+
+    @Test
+    public void testActiveSet_initiativeOrder() throws IOException {
+        File log = File.createTempFile("mvh", ".txt");
+        log.deleteOnExit();
+        Menu.setup(log);
+        // In the order added the Monster strikes first and kills the Hero before it can act
+        Main.random = new Random(2);
+        Entity.resetIDCounter();
+        World ordered = new World(1, 2);
+        Monster first = new Monster(5, 'M', WeaponType.SWORD);
+        Hero second = new Hero(1, 'H', 10, 0);
+        ordered.addEntity(0, 0, first);
+        ordered.addEntity(0, 1, second);
+        ordered.advanceSimulation();
+        assertTrue(second.isDead());
+        assertEquals(5, first.getHealth());
+        assertFalse(ordered.isActive());
+        // With the strongest weapon acting first, the same Hero kills the Monster instead
+        Main.random = new Random(2);
+        Entity.resetIDCounter();
+        World world = new World(1, 2);
+        Monster monster = new Monster(5, 'M', WeaponType.SWORD);
+        Hero hero = new Hero(1, 'H', 10, 0);
+        world.addEntity(0, 0, monster);
+        world.addEntity(0, 1, hero);
+        world.setInitiative(Entity::weaponStrength);
+        world.advanceSimulation();
+        assertTrue(monster.isDead());
+        assertTrue(hero.isAlive());
+        assertEquals(0, world.getAliveCount(EntityStore.MONSTER));
+        assertFalse(world.isActive());
+    }
+
+    @Test
+    public void testActiveSet_orderRestoresAddOrder() {
+        ActiveSet active = new ActiveSet(0);
+        active.add(3);
+        active.add(1);
+        active.add(2);
+        assertEquals(3, active.size());
+        assertEquals(3, active.get(0));
+        active.order();
+        assertEquals(1, active.get(0));
+        assertEquals(2, active.get(1));
+        assertEquals(3, active.get(2));
+    }
+
+    /**
+     * A 20x20 world of Heroes and Monsters placed by a seed, advanced in parallel on a number of threads
+     *
+     * @param threads The threads to plan each tick on
+     * @return The world after each tick
+     */
+    private static List<String> parallelRun(int threads) {
+        Random placement = new Random(3);
+        Entity.resetIDCounter();
+        World world = new World(20, 20);
+        for (int row = 0; row < 20; row++) {
+            for (int column = 0; column < 20; column++) {
+                int kind = placement.nextInt(10);
+                if (kind == 0) {
+                    world.addEntity(row, column, new Hero(5 + placement.nextInt(10), 'H', 1 + placement.nextInt(5), placement.nextInt(3)));
+                } else if (kind == 1) {
+                    world.addEntity(row, column, new Monster(5 + placement.nextInt(10), 'M', WeaponType.values()[placement.nextInt(WeaponType.values().length)]));
+                }
+            }
+        }
+        world.setParallel(3, threads);
+        List<String> ticks = new ArrayList<>();
+        for (int tick = 0; tick < 30 && world.isActive(); tick++) {
+            world.advanceSimulation();
+            ticks.add(world.gameString());
+        }
+        world.setSequential();
+        return ticks;
+    }
+
+    @Test
+    public void testParallel_sameAtAnyThreadCount() throws IOException {
+        File log = File.createTempFile("mvh", ".txt");
+        log.deleteOnExit();
+        Menu.setup(log);
+        //Main.random is not drawn from, each entity has its own stream of the seed
+        Main.random = null;
+        List<String> expected = parallelRun(1);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, parallelRun(2));
+        assertEquals(expected, parallelRun(4));
+    }
+
+    @Test
+    public void testParallel_firstTurnTakesContestedSpot() throws IOException {
+        File log = File.createTempFile("mvh", ".txt");
+        log.deleteOnExit();
+        Menu.setup(log);
+        Entity.resetIDCounter();
+        //Both Heroes see the Monster from the tick's start and plan to move into the spot between them and it
+        World world = new World(5, 5);
+        Hero first = new Hero(10, 'A', 1, 0);
+        Hero second = new Hero(10, 'B', 1, 0);
+        world.addEntity(0, 1, first);
+        world.addEntity(0, 3, second);
+        world.addEntity(2, 2, new Monster(10, 'M', WeaponType.CLUB));
+        world.setParallel(7, 2);
+        world.advanceSimulation();
+        world.setSequential();
+        //The first to take its turn gets the spot, the second finds it taken and stays
+        assertSame(first, world.getEntity(1, 2));
+        assertSame(second, world.getEntity(0, 3));
+    }
+}
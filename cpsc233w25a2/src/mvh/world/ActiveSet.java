@@ -0,0 +1,114 @@
+package mvh.world;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * The store slots of the entities that still take turns, in the order they take them.
+ * The order is the order entities were added (the order the logs rely on), or by initiative when one is given.
+ * Dead entities stay until compact is called at the end of a tick, which drops them in place keeping the order of
+ * the rest, so a tick costs as much as the entities still alive rather than all the entities ever added.
+ *
+ * @author Simrandeep Kaur
+ * @email simrandeep.simrandee@ucalgary.ca
+ * Tutorial T06
+ * Date March 16, 2025
+ * @version 1.1
+ */
+public final class ActiveSet {
+
+    /**
+     * The slots, first to act first
+     */
+    private int[] slots;
+    /**
+     * Slots used
+     */
+    private int size;
+    /**
+     * Sort keys of order, kept to not make them each tick
+     */
+    private long[] keys = new long[0];
+
+    /**
+     * An empty set with room for a number of entities before it grows
+     *
+     * @param capacity The number of entities expected
+     */
+    public ActiveSet(int capacity) {
+        slots = new int[capacity];
+    }
+
+    /**
+     * Add a slot to act last
+     *
+     * @param slot The entity's slot
+     */
+    public void add(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(16, size * 2));
+        }
+        slots[size++] = slot;
+    }
+
+    /**
+     * The number of slots
+     *
+     * @return The slots in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A slot by its turn
+     *
+     * @param index The turn, 0 acts first
+     * @return The slot
+     */
+    public int get(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Drop the slots of dead entities, keeping the order of the rest
+     *
+     * @param store The store the slots are in
+     */
+    public void compact(EntityStore store) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (store.isAlive(slots[i])) {
+                slots[kept++] = slots[i];
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Put the slots in initiative order, highest first, ties in the order entities were added (slot order)
+     *
+     * @param store      The store the slots are in
+     * @param initiative The initiative of an entity
+     */
+    public void order(EntityStore store, ToIntFunction<Entity> initiative) {
+        if (keys.length < size) {
+            keys = new long[slots.length];
+        }
+        for (int i = 0; i < size; i++) {
+            //~initiative sorts highest first and fits in the upper half, the slot breaks ties in the lower half
+            keys[i] = (long) ~initiative.applyAsInt(store.entity(slots[i])) << 32 | slots[i];
+        }
+        Arrays.sort(keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Put the slots back in the order entities were added
+     */
+    public void order() {
+        Arrays.sort(slots, 0, size);
+    }
+}
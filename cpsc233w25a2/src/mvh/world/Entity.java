@@ -44,6 +44,15 @@ public abstract class Entity {
      */
     protected static final int WALL_ID = 0;
 
+    /**
+     * The store holding this entity's health and state once it is added to a world, null before
+     */
+    private EntityStore store;
+    /**
+     * This entity's slot in store
+     */
+    private int slot;
+
     /**
      * Create entity with given symbol and health (since class is abstract, only children can be made)
      *
@@ -84,7 +93,7 @@ public abstract class Entity {
      * @return The health of entity, should be >= 0 (0 is DEAD)
      */
     public int getHealth() {
-        return health;
+        return store == null ? health : store.ownedHealth(slot);
     }
 
     /**
@@ -93,7 +102,7 @@ public abstract class Entity {
      * @return True if state is alive (health should be > 0)
      */
     public boolean isAlive() {
-        return state == State.ALIVE;
+        return store == null ? state == State.ALIVE : store.ownedAlive(slot);
     }
 
     /**
@@ -115,10 +124,43 @@ public abstract class Entity {
         if (damage < 0) {
             throw new IllegalArgumentException("Damage must be reported as positive (or zero) value (which is subtracted)!");
         }
+        if (store != null) {
+            store.damage(slot, damage);
+            return;
+        }
         this.health = Math.max(0, this.health - damage);
         checkDead();
     }
 
+    /**
+     * Get ID
+     *
+     * @return The ID of entity (0 for walls)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Is this entity's health and state kept in a world's store
+     *
+     * @return True once bound
+     */
+    boolean isBound() {
+        return store != null;
+    }
+
+    /**
+     * Keep this entity's health and state in a store from now on (they are already copied there)
+     *
+     * @param store The store of the world that owns this entity
+     * @param slot  This entity's slot in it
+     */
+    void bind(EntityStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
     /**
      * Internal function to check if entity has moved from alive to dead
      */
@@ -188,7 +230,7 @@ public abstract class Entity {
      */
     @Override
     public String toString() {
-        return shortString() + "\t" + symbol + "\t" + health + "\t" + state;
+        return shortString() + "\t" + symbol + "\t" + getHealth() + "\t" + (isAlive() ? State.ALIVE : State.DEAD);
     }
 
     /**
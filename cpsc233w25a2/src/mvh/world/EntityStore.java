@@ -0,0 +1,393 @@
+package mvh.world;
+
+import java.util.Arrays;
+
+/**
+ * The entities of a World kept as parallel primitive arrays, one slot per entity in the order they were added.
+ * Slot i of each array (id, kind, row, column, health, weapon, armor, alive) belongs to the same entity, so the
+ * simulation walks plain arrays instead of following references to objects spread over the heap, and each entity
+ * takes a known 27 bytes of primitives and one reference, plus its object.
+ *
+ * A Hero or Monster added to its first world is bound to its slot there: from then on its health and state live in
+ * the store and the object only reads and writes them (a view). A world that only borrows an entity another world
+ * already owns (the copies made by getLocal) and the Wall keep reading the entity itself.
+ *
+ * The store also keeps, per kind, how many owned entities on the grid are ALIVE and the sum of their health. These
+ * are updated as entities are added, damaged, die or are removed from the grid, so telling if both sides still
+ * stand is O(1) instead of a scan of the whole world.
+ *
+ * @author Simrandeep Kaur
+ * @email simrandeep.simrandee@ucalgary.ca
+ * Tutorial T06
+ * Date March 16, 2025
+ * @version 1.1
+ */
+public final class EntityStore {
+
+    /**
+     * Kind of a Wall (or any other entity that is not a Hero or Monster)
+     */
+    public static final byte WALL = 0;
+    /**
+     * Kind of a Hero
+     */
+    public static final byte HERO = 1;
+    /**
+     * Kind of a Monster
+     */
+    public static final byte MONSTER = 2;
+
+    /**
+     * Slots before the arrays first grow
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * ID of each entity
+     */
+    private int[] ids;
+    /**
+     * WALL, HERO or MONSTER
+     */
+    private byte[] kinds;
+    /**
+     * Row of each entity in the world
+     */
+    private int[] rows;
+    /**
+     * Column of each entity in the world
+     */
+    private int[] columns;
+    /**
+     * Health of each entity this store owns
+     */
+    private int[] healths;
+    /**
+     * Weapon strength of each entity
+     */
+    private int[] weapons;
+    /**
+     * Armor strength of each entity
+     */
+    private int[] armors;
+    /**
+     * Is each entity this store owns ALIVE
+     */
+    private boolean[] alive;
+    /**
+     * Does this store own each entity's health and state (false for borrowed entities and walls)
+     */
+    private boolean[] owned;
+    /**
+     * The object of each entity, for the entity behaviour (chooseMove, attackWhere) and for printing
+     */
+    private Entity[] entities;
+    /**
+     * Is each entity still on the grid (false once another entity was put on top of it while it was alive)
+     */
+    private boolean[] placed;
+    /**
+     * Slots used
+     */
+    private int size;
+    /**
+     * ALIVE owned entities on the grid by kind
+     */
+    private final int[] aliveCounts = new int[MONSTER + 1];
+    /**
+     * Health of the owned entities on the grid by kind
+     */
+    private final long[] healthSums = new long[MONSTER + 1];
+    /**
+     * Heroes and Monsters on the grid this store borrows (their health and state are not counted)
+     */
+    private int borrowed;
+
+    /**
+     * An empty store
+     */
+    public EntityStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * An empty store with room for a number of entities before it grows
+     *
+     * @param capacity The number of entities expected
+     */
+    public EntityStore(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be >= 0. Value given was " + capacity + "!");
+        }
+        ids = new int[capacity];
+        kinds = new byte[capacity];
+        rows = new int[capacity];
+        columns = new int[capacity];
+        healths = new int[capacity];
+        weapons = new int[capacity];
+        armors = new int[capacity];
+        alive = new boolean[capacity];
+        owned = new boolean[capacity];
+        placed = new boolean[capacity];
+        entities = new Entity[capacity];
+    }
+
+    /**
+     * Add an entity at a location, binding it to its slot if no other store owns it
+     *
+     * @param entity The entity
+     * @param row    The row of the entity in the world
+     * @param column The column of the entity in the world
+     * @return The entity's slot
+     */
+    int add(Entity entity, int row, int column) {
+        if (size == ids.length) {
+            grow();
+        }
+        int slot = size++;
+        ids[slot] = entity.getId();
+        kinds[slot] = entity instanceof Hero ? HERO : entity instanceof Monster ? MONSTER : WALL;
+        rows[slot] = row;
+        columns[slot] = column;
+        healths[slot] = entity.getHealth();
+        weapons[slot] = entity.weaponStrength();
+        armors[slot] = entity.armorStrength();
+        alive[slot] = entity.isAlive();
+        entities[slot] = entity;
+        owned[slot] = kinds[slot] != WALL && !entity.isBound();
+        if (owned[slot]) {
+            entity.bind(this, slot);
+        }
+        placed[slot] = true;
+        count(slot, 1);
+        return slot;
+    }
+
+    /**
+     * Double the room of every array
+     */
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        weapons = Arrays.copyOf(weapons, capacity);
+        armors = Arrays.copyOf(armors, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        owned = Arrays.copyOf(owned, capacity);
+        placed = Arrays.copyOf(placed, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+    }
+
+    /**
+     * The number of entities
+     *
+     * @return The slots used
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The object of an entity
+     *
+     * @param slot The entity's slot
+     * @return The entity
+     */
+    public Entity entity(int slot) {
+        return entities[slot];
+    }
+
+    /**
+     * The ID of an entity
+     *
+     * @param slot The entity's slot
+     * @return The ID
+     */
+    public int id(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * The kind of an entity
+     *
+     * @param slot The entity's slot
+     * @return WALL, HERO or MONSTER
+     */
+    public byte kind(int slot) {
+        return kinds[slot];
+    }
+
+    /**
+     * The row of an entity in the world
+     *
+     * @param slot The entity's slot
+     * @return The row
+     */
+    public int row(int slot) {
+        return rows[slot];
+    }
+
+    /**
+     * The column of an entity in the world
+     *
+     * @param slot The entity's slot
+     * @return The column
+     */
+    public int column(int slot) {
+        return columns[slot];
+    }
+
+    /**
+     * The health of an entity
+     *
+     * @param slot The entity's slot
+     * @return The health, 0 once DEAD
+     */
+    public int health(int slot) {
+        return owned[slot] ? healths[slot] : entities[slot].getHealth();
+    }
+
+    /**
+     * The weapon strength of an entity
+     *
+     * @param slot The entity's slot
+     * @return The weapon strength
+     */
+    public int weapon(int slot) {
+        return weapons[slot];
+    }
+
+    /**
+     * The armor strength of an entity
+     *
+     * @param slot The entity's slot
+     * @return The armor strength
+     */
+    public int armor(int slot) {
+        return armors[slot];
+    }
+
+    /**
+     * Is an entity ALIVE
+     *
+     * @param slot The entity's slot
+     * @return True if alive
+     */
+    public boolean isAlive(int slot) {
+        return owned[slot] ? alive[slot] : entities[slot].isAlive();
+    }
+
+    /**
+     * ALIVE entities of a kind on the grid
+     *
+     * @param kind HERO or MONSTER
+     * @return The count
+     */
+    public int aliveCount(byte kind) {
+        return aliveCounts[kind];
+    }
+
+    /**
+     * Health of the entities of a kind on the grid (DEAD entities have none)
+     *
+     * @param kind HERO or MONSTER
+     * @return The sum
+     */
+    public long healthSum(byte kind) {
+        return healthSums[kind];
+    }
+
+    /**
+     * Are the counts only for some of the Heroes and Monsters on the grid, as some are borrowed from another world
+     *
+     * @return True if aliveCount and healthSum leave out borrowed entities
+     */
+    public boolean hasBorrowed() {
+        return borrowed > 0;
+    }
+
+    /**
+     * Take an entity off the counts, as another entity was put on top of it in the grid
+     *
+     * @param slot The entity's slot
+     */
+    void remove(int slot) {
+        if (placed[slot]) {
+            count(slot, -1);
+            placed[slot] = false;
+        }
+    }
+
+    /**
+     * Add an entity on the grid to the counts, or take it off
+     *
+     * @param slot The entity's slot
+     * @param sign 1 to add, -1 to take off
+     */
+    private void count(int slot, int sign) {
+        if (owned[slot]) {
+            if (alive[slot]) {
+                aliveCounts[kinds[slot]] += sign;
+            }
+            healthSums[kinds[slot]] += sign * (long) healths[slot];
+        } else if (kinds[slot] != WALL) {
+            borrowed += sign;
+        }
+    }
+
+    /**
+     * Move an entity to another location of the world
+     *
+     * @param slot   The entity's slot
+     * @param row    The new row
+     * @param column The new column
+     */
+    void move(int slot, int row, int column) {
+        rows[slot] = row;
+        columns[slot] = column;
+    }
+
+    /**
+     * Health of an owned entity (for Entity reading its own slot)
+     *
+     * @param slot The entity's slot
+     * @return The health
+     */
+    int ownedHealth(int slot) {
+        return healths[slot];
+    }
+
+    /**
+     * State of an owned entity (for Entity reading its own slot)
+     *
+     * @param slot The entity's slot
+     * @return True if alive
+     */
+    boolean ownedAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * Damage an owned entity, it is DEAD once its health falls to 0 (for Entity.damage)
+     *
+     * @param slot   The entity's slot
+     * @param damage The damage to subtract (positive or 0)
+     */
+    void damage(int slot, int damage) {
+        int health = Math.max(0, healths[slot] - damage);
+        boolean dies = health <= 0 && alive[slot];
+        if (placed[slot]) {
+            healthSums[kinds[slot]] -= healths[slot] - health;
+            if (dies) {
+                aliveCounts[kinds[slot]]--;
+            }
+        }
+        healths[slot] = health;
+        if (dies) {
+            alive[slot] = false;
+        }
+    }
+}
@@ -106,7 +106,7 @@ public final class Hero extends Entity{
             return move;
         else {
             // If northwest is blocked, move in a random direction if possible
-            move = Direction.getRandomDirection();
+            move = local.randomDirection();
             rowToMoveOn = heroRow + move.getRowChange();
             columnToMoveOn = heroColumn + move.getColumnChange();
             if (local.canMoveOnTopOf(rowToMoveOn, columnToMoveOn) )
@@ -0,0 +1,177 @@
+package mvh.world;
+
+import mvh.enums.Direction;
+
+import java.util.SplittableRandom;
+
+/**
+ * A read-only window of another World, centred on one spot, that reads through to that world's grid.
+ * Spots of the window outside the world are the Wall, as in getLocal, but nothing is copied: the window only keeps
+ * where it starts in the world, so moving it to another entity (centre) costs nothing.
+ *
+ * Entities read a view exactly like the World made by getLocal, so chooseMove and attackWhere work unchanged.
+ * A view sees changes to its world at once, and adding or moving entities through it is not allowed.
+ *
+ * @author Simrandeep Kaur
+ * @email simrandeep.simrandee@ucalgary.ca
+ * Tutorial T06
+ * Date March 16, 2025
+ * @version 1.1
+ */
+public final class LocalView extends World {
+
+    /**
+     * The world this is a window of
+     */
+    private final World parent;
+    /**
+     * The rows and columns of the window (odd)
+     */
+    private final int size;
+    /**
+     * The row of the world at the top of the window
+     */
+    private int beginRow;
+    /**
+     * The column of the world at the left of the window
+     */
+    private int beginColumn;
+    /**
+     * The stream random moves through this window are drawn from, null for Main.random
+     */
+    private SplittableRandom random;
+
+    /**
+     * A window of a world, centred on (row, column)
+     *
+     * @param parent The world to look into
+     * @param size   The size of the window (must be an odd number)
+     * @param row    The row of the centre in the world
+     * @param column The column of the centre in the world
+     */
+    public LocalView(World parent, int size, int row, int column) {
+        super();
+        if (size < 1 || size % 2 == 0) {
+            throw new IllegalArgumentException("Size of local view must be odd and positive. Value given was " + size + "!");
+        }
+        this.parent = parent;
+        this.size = size;
+        center(row, column);
+    }
+
+    /**
+     * Move the window to be centred on another spot of the world
+     *
+     * @param row    The row of the centre in the world
+     * @param column The column of the centre in the world
+     * @return This view
+     */
+    public LocalView center(int row, int column) {
+        this.beginRow = row - (size - 1) / 2;
+        this.beginColumn = column - (size - 1) / 2;
+        return this;
+    }
+
+    /**
+     * Draw the random moves of entities looking through this window from a stream instead of Main.random
+     *
+     * @param random The stream of the entity looking, null for Main.random
+     * @return This view
+     */
+    public LocalView drawFrom(SplittableRandom random) {
+        this.random = random;
+        return this;
+    }
+
+    /**
+     * A random direction from the stream set by drawFrom, or Main.random if none is
+     *
+     * @return A random Direction from the available 9 directions
+     */
+    @Override
+    public Direction randomDirection() {
+        return random == null ? Direction.getRandomDirection() : Direction.getRandomDirection(random);
+    }
+
+    /**
+     * Get entity at a location of the window, the Wall if that is outside the world
+     *
+     * @param row    The row in the window
+     * @param column The column in the window
+     * @return The Entity at the given row, column
+     */
+    @Override
+    public Entity getEntity(int row, int column) {
+        if (row < 0 || row >= size || column < 0 || column >= size) {
+            throw new ArrayIndexOutOfBoundsException("Spot (" + row + "," + column + ") is outside the local view!");
+        }
+        int worldRow = beginRow + row;
+        int worldColumn = beginColumn + column;
+        if (worldRow < 0 || worldRow >= parent.getRows() || worldColumn < 0 || worldColumn >= parent.getColumns()) {
+            return Wall.getWall();
+        }
+        return parent.getEntity(worldRow, worldColumn);
+    }
+
+    /**
+     * A view is read only
+     *
+     * @param row    The  row location of new entity
+     * @param column The  column location of new entity
+     * @param entity The entity to add
+     */
+    @Override
+    public void addEntity(int row, int column, Entity entity) {
+        throw new UnsupportedOperationException("A local view is read only!");
+    }
+
+    /**
+     * A view is read only
+     *
+     * @param row    The  row location of existing entity
+     * @param column The  column location of existing entity
+     * @param d      The direction to move the entity in
+     */
+    @Override
+    public void moveEntity(int row, int column, Direction d) {
+        throw new UnsupportedOperationException("A local view is read only!");
+    }
+
+    /**
+     * A view does not simulate, its world does
+     */
+    @Override
+    public void advanceSimulation() {
+        throw new UnsupportedOperationException("A local view does not simulate!");
+    }
+
+    /**
+     * A view has no entity table of its own, so this is the map only
+     *
+     * @return worldString()
+     */
+    @Override
+    public String gameString() {
+        return worldString();
+    }
+
+    /**
+     * The rows of the window
+     *
+     * @return The size of the window
+     */
+    @Override
+    public int getRows() {
+        return size;
+    }
+
+    /**
+     * The columns of the window
+     *
+     * @return The size of the window
+     */
+    @Override
+    public int getColumns() {
+        return size;
+    }
+}
@@ -117,7 +117,7 @@ public final class Monster extends Entity {
             return move;
         else {
             // If southeast is blocked, move in a random direction if possible
-            move = Direction.getRandomDirection();
+            move = local.randomDirection();
             rowToMoveOn = monsterRow + move.getRowChange();
             columnToMoveOn = monsterColumn + move.getColumnChange();
             if (local.canMoveOnTopOf(rowToMoveOn, columnToMoveOn) )
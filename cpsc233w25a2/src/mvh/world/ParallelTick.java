@@ -0,0 +1,265 @@
+package mvh.world;
+
+import mvh.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Advances a World one tick with the entities deciding in parallel, giving the same log for a seed at any thread count.
+ *
+ * A tick has two phases:
+ * - Plan: the world is split into square tiles and the entities of each tile decide where to attack or move on one
+ *   of the threads. Nothing changes while they do, so every entity sees the world as it was at the start of the tick.
+ * - Resolve: the plans are carried out one by one on the calling thread in the order of turns. A plan that no longer
+ *   fits the world is logged as not possible, like in the sequential tick: a move into a spot an earlier entity just
+ *   moved into, or an attack on an entity that died or moved away. Entities killed earlier in the tick do nothing.
+ *
+ * Each entity draws its random moves and damage from its own SplittableRandom stream, split from the seed in the
+ * order entities were added, instead of the shared Main.random. So what an entity draws does not depend on which
+ * thread planned it or when.
+ *
+ * @author Simrandeep Kaur
+ * @email simrandeep.simrandee@ucalgary.ca
+ * Tutorial T06
+ * Date March 16, 2025
+ * @version 1.1
+ */
+final class ParallelTick {
+
+    /**
+     * Rows and columns of a tile
+     */
+    private static final int TILE_SIZE = 16;
+    /**
+     * The local view of world will be 3x3 grid for attacking
+     */
+    private static final int ATTACK_WORLD_SIZE = 3;
+    /**
+     * The local view of world will be 5x5 grid for moving
+     */
+    private static final int MOVE_WORLD_SIZE = 5;
+
+    /**
+     * The stream every entity's stream is split from
+     */
+    private final SplittableRandom seed;
+    /**
+     * Each entity's stream by store slot
+     */
+    private SplittableRandom[] streams = new SplittableRandom[0];
+    /**
+     * Streams split so far (one per slot, in slot order)
+     */
+    private int split;
+    /**
+     * The threads tiles are planned on, null to plan them on the calling thread
+     */
+    private final ExecutorService pool;
+
+    /**
+     * The turns of each tile, tile by tile
+     */
+    private int[] tileTurns = new int[0];
+    /**
+     * Where each tile's turns start in tileTurns (one more than the tiles, the last is the end)
+     */
+    private int[] tileStarts = new int[0];
+    /**
+     * Where each turn plans to attack, null if it moves
+     */
+    private Direction[] attacks = new Direction[0];
+    /**
+     * The entity each turn plans to attack
+     */
+    private Entity[] targets = new Entity[0];
+    /**
+     * Where each turn plans to move
+     */
+    private Direction[] moves = new Direction[0];
+
+    /**
+     * A parallel tick
+     *
+     * @param seed    The seed the entities' streams are split from
+     * @param threads The threads to plan on (1 plans on the calling thread)
+     */
+    ParallelTick(long seed, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be >= 1. Value given was " + threads + "!");
+        }
+        this.seed = new SplittableRandom(seed);
+        this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mvh-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Plan every turn in parallel, then carry the plans out in order of turns
+     *
+     * @param world  The world to advance
+     * @param store  The world's entities
+     * @param active The turns of the tick, in order
+     */
+    void advance(World world, EntityStore store, ActiveSet active) {
+        //Entities added since the last tick get their stream, in the order they were added
+        if (streams.length < store.size()) {
+            streams = Arrays.copyOf(streams, store.size());
+        }
+        while (split < store.size()) {
+            streams[split++] = seed.split();
+        }
+        int turns = active.size();
+        if (attacks.length < turns) {
+            attacks = new Direction[turns];
+            targets = new Entity[turns];
+            moves = new Direction[turns];
+            tileTurns = new int[turns];
+        }
+        int tiles = (world.getRows() + TILE_SIZE - 1) / TILE_SIZE * ((world.getColumns() + TILE_SIZE - 1) / TILE_SIZE);
+        bucket(store, active, world, tiles);
+        plan(world, store, active, tiles);
+        for (int turn = 0; turn < turns; turn++) {
+            int slot = active.get(turn);
+            //Killed by an earlier turn of this tick
+            if (!store.isAlive(slot)) {
+                continue;
+            }
+            if (attacks[turn] != null) {
+                world.attack(slot, attacks[turn], targets[turn], streams[slot]);
+            } else {
+                world.move(slot, moves[turn]);
+            }
+        }
+        //Let go of the entities planned on
+        Arrays.fill(targets, 0, turns, null);
+    }
+
+    /**
+     * The tile a spot of the world is in, counting tiles across each row of tiles
+     *
+     * @param row    The row of the spot
+     * @param column The column of the spot
+     * @param world  The world
+     * @return The tile
+     */
+    private static int tile(int row, int column, World world) {
+        int across = (world.getColumns() + TILE_SIZE - 1) / TILE_SIZE;
+        return row / TILE_SIZE * across + column / TILE_SIZE;
+    }
+
+    /**
+     * Sort the turns by the tile their entity is in, keeping the order of turns in each tile
+     *
+     * @param store  The world's entities
+     * @param active The turns of the tick
+     * @param world  The world
+     * @param tiles  The number of tiles
+     */
+    private void bucket(EntityStore store, ActiveSet active, World world, int tiles) {
+        if (tileStarts.length < tiles + 1) {
+            tileStarts = new int[tiles + 1];
+        }
+        Arrays.fill(tileStarts, 0, tiles + 1, 0);
+        //Count the turns in each tile, then make the counts into where each tile starts
+        for (int turn = 0; turn < active.size(); turn++) {
+            int slot = active.get(turn);
+            tileStarts[tile(store.row(slot), store.column(slot), world) + 1]++;
+        }
+        for (int t = 0; t < tiles; t++) {
+            tileStarts[t + 1] += tileStarts[t];
+        }
+        //Fill each tile from its start, leaving the starts moved on to the ends
+        for (int turn = 0; turn < active.size(); turn++) {
+            int slot = active.get(turn);
+            tileTurns[tileStarts[tile(store.row(slot), store.column(slot), world)]++] = turn;
+        }
+        //Move the ends back to starts
+        System.arraycopy(tileStarts, 0, tileStarts, 1, tiles);
+        tileStarts[0] = 0;
+    }
+
+    /**
+     * Plan the turns of every tile, on the threads if there are any
+     *
+     * @param world  The world
+     * @param store  The world's entities
+     * @param active The turns of the tick
+     * @param tiles  The number of tiles
+     */
+    private void plan(World world, EntityStore store, ActiveSet active, int tiles) {
+        if (pool == null) {
+            planTiles(world, store, active, 0, tiles);
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < tiles; t++) {
+            if (tileStarts[t] < tileStarts[t + 1]) {
+                int tile = t;
+                tasks.add(() -> {
+                    planTiles(world, store, active, tile, tile + 1);
+                    return null;
+                });
+            }
+        }
+        try {
+            //invokeAll waits for every tile, and what the tasks wrote is seen here after it returns
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning a tick!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Plan the turns of a run of tiles, through windows of the world made for this run
+     *
+     * @param world  The world
+     * @param store  The world's entities
+     * @param active The turns of the tick
+     * @param first  The first tile
+     * @param end    The tile after the last
+     */
+    private void planTiles(World world, EntityStore store, ActiveSet active, int first, int end) {
+        LocalView attackView = new LocalView(world, ATTACK_WORLD_SIZE, 0, 0);
+        LocalView moveView = new LocalView(world, MOVE_WORLD_SIZE, 0, 0);
+        for (int i = tileStarts[first]; i < tileStarts[end]; i++) {
+            int turn = tileTurns[i];
+            int slot = active.get(turn);
+            Entity entity = store.entity(slot);
+            int row = store.row(slot);
+            int column = store.column(slot);
+            attacks[turn] = entity.attackWhere(attackView.center(row, column).drawFrom(streams[slot]));
+            if (attacks[turn] != null) {
+                targets[turn] = world.getEntity(row, column, attacks[turn]);
+            } else {
+                moves[turn] = entity.chooseMove(moveView.center(row, column).drawFrom(streams[slot]));
+            }
+        }
+    }
+
+    /**
+     * Stop the threads
+     */
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
@@ -4,8 +4,8 @@ import mvh.Main;
 import mvh.Menu;
 import mvh.enums.Direction;
 import mvh.enums.Symbol;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
 
 /**
  * Represents a 2D grid-based world containing entities such as Heroes and Monsters.
@@ -34,19 +34,27 @@ public class World {
      */
     private State state;
     /**
-     * The storage of entities in World, floor is null, Dead entities can be moved on top of (deleting them essentially from the map)
+     * The storage of entities in World as their store slot + 1, floor is 0, Dead entities can be moved on top of (deleting them essentially from the map)
      */
-    private final Entity[][] world;
+    private final int[][] grid;
     /**
-     * We track the order that entities were added (this is used to determine order of actions each turn)
-     * Entities remain in this list (Even if DEAD) ,unlike the world Entity[][] where they can be moved on top of causing deletion.
+     * We track the entities in the order they were added (this is used to determine order of actions each turn)
+     * Entities remain in the store (Even if DEAD), unlike the grid where they can be moved on top of causing deletion.
+     * The store also tracks each entity's location in world, updated every time an Entity is shifted in the grid
      */
-    private final ArrayList<Entity> entities;
+    private final EntityStore store;
     /**
-     * We use a HashMap to track entity location in world {row, column}
-     * We will update this every time an Entity is shifted in the world Entity[][]
+     * The slots of the entities still taking turns, dead ones are dropped at the end of each tick
      */
-    private final HashMap<Entity, Integer[]> locations;
+    private final ActiveSet active;
+    /**
+     * Orders turns highest first when set, otherwise entities act in the order they were added
+     */
+    private ToIntFunction<Entity> initiative;
+    /**
+     * Plans turns in parallel when set, otherwise entities take their turns one by one
+     */
+    private ParallelTick parallel;
 
     /**
      * The local view of world will be 3x3 grid for attacking
@@ -59,6 +67,15 @@ public class World {
 
     private static final int STARTING_INDEX = 0;
 
+    /**
+     * The 3x3 window each entity attacks from, moved to each entity in turn (made on first use)
+     */
+    private LocalView attackView;
+    /**
+     * The 5x5 window each entity moves from, moved to each entity in turn (made on first use)
+     */
+    private LocalView moveView;
+
 
     /**
      * A new world of ROWSxCOLUMNS in size
@@ -67,9 +84,30 @@ public class World {
      * @param columns The 2D of the 2D world (columns)
      */
     public World(int rows, int columns) {
-        world = new Entity[rows][columns];
-        entities = new ArrayList<>();
-        locations = new HashMap<>();
+        this(rows, columns, 0);
+    }
+
+    /**
+     * A new world of ROWSxCOLUMNS in size with room for a number of entities (so a big world is sized once)
+     *
+     * @param rows     The 1D of the 2D world (rows)
+     * @param columns  The 2D of the 2D world (columns)
+     * @param capacity The number of entities expected
+     */
+    public World(int rows, int columns, int capacity) {
+        grid = new int[rows][columns];
+        store = new EntityStore(capacity);
+        active = new ActiveSet(capacity);
+        state = State.ACTIVE;
+    }
+
+    /**
+     * A world with no grid of its own, for a LocalView that reads another world's grid
+     */
+    World() {
+        grid = null;
+        store = null;
+        active = null;
         state = State.ACTIVE;
     }
 
@@ -89,6 +127,44 @@ public class World {
         this.state = State.INACTIVE;
     }
 
+    /**
+     * Order each tick's turns by an initiative, highest first and ties in the order entities were added
+     * The initiative is worked out at the start of each tick, so it can depend on health.
+     *
+     * @param initiative The initiative of an entity, null for the order entities were added
+     */
+    public void setInitiative(ToIntFunction<Entity> initiative) {
+        this.initiative = initiative;
+        if (initiative == null) {
+            active.order();
+        }
+    }
+
+    /**
+     * Advance each tick in parallel: every entity plans its turn on one of the threads from the world as it was at the
+     * start of the tick, then the plans are carried out in the order of turns, dropping those that no longer fit.
+     * Each entity draws from its own stream split from the seed, so a seed gives the same log at any thread count
+     * (a different log than the sequential tick, which draws from Main.random).
+     *
+     * @param seed    The seed of the entities' streams
+     * @param threads The threads to plan on (1 plans on the calling thread)
+     */
+    public void setParallel(long seed, int threads) {
+        ParallelTick tick = new ParallelTick(seed, threads);
+        setSequential();
+        parallel = tick;
+    }
+
+    /**
+     * Advance each tick one entity at a time, the default
+     */
+    public void setSequential() {
+        if (parallel != null) {
+            parallel.shutdown();
+            parallel = null;
+        }
+    }
+
     /**
      * Advance the simulation one step
      */
@@ -97,61 +173,104 @@ public class World {
         if (state == State.INACTIVE) {
             return;
         }
-        //If not done go through all entities (this will be in order read and added from file)
-        for (Entity entity : entities) {
-            //If entity is something that is ALIVE, we want to give it a turn to ATTACK or MOVE
-            if (entity.isAlive()) {
-                //Get location of entity (only the world knows this, the entity does not itself)
-                Integer[] location = locations.get(entity);
-                //Pull out row,column
-                int row = location[0];
-                int column = location[1];
-                //Determine if/where an entity wants to attack
-                World attackWorld3X3 = getLocal(ATTACK_WORLD_SIZE, row, column);
-                Direction attackWhere = entity.attackWhere(attackWorld3X3);
-                //System.out.println("AttackWhere = "+attackWhere);
-                //If I don't attack, then I must be moving
-                if (attackWhere == null) {
-                    //Figure out where entity wants to move
-                    World moveWorld5x5 = getLocal(MOVE_WORLD_SIZE, row, column);
-                    Direction moveWhere = entity.chooseMove(moveWorld5x5);
-                    //Log moving
-                    Menu.println(String.format("%s moving %s", entity.shortString(), moveWhere));
-                    //If this move is valid, then move it
-                    if (canMoveOnTopOf(row, column, moveWhere)) {
-                        moveEntity(row, column, moveWhere);
-                    } else {
-                        //Otherwise, indicate an invalid attempt to move
-                        Menu.println(String.format("%s  tried to move somewhere it could not!", entity.shortString()));
-                    }
-                } else {
-                    //If we are here our earlier attack question was not null, and we are attacking a nearby entity
-                    //Get the entity we are attacking
-//                    System.out.println(getEntity(row, column));
-//                    System.out.println(getEntity(row, column, attackWhere));
-                      Entity attacked = getEntity(row, column, attackWhere);
-//                    System.out.println(attackWhere);
-                    Menu.println(String.format("%s attacking %s in direction %s", entity.shortString(), attackWhere, attacked.shortString()));
-                    //Can we attack this entity
-                    if (canBeAttacked(row, column, attackWhere)) {
-                        //Determine damage using RNG
-                        int damage = 1 + Main.random.nextInt(entity.weaponStrength());
-                        int true_damage = Math.max(0, damage - attacked.armorStrength());
-                        Menu.println(String.format("%s attacked %s for %d damage against %d defense for %d", entity.shortString(), attacked.shortString(), damage, attacked.armorStrength(), true_damage));
-                        attacked.damage(true_damage);
-                        if (!attacked.isAlive()) {
-                            locations.remove(attacked);
-                            Menu.println(String.format("%s died!", attacked.shortString()));
-                        }
+        //Entities look through windows of this world, not copies of it
+        if (attackView == null) {
+            attackView = new LocalView(this, ATTACK_WORLD_SIZE, 0, 0);
+            moveView = new LocalView(this, MOVE_WORLD_SIZE, 0, 0);
+        }
+        if (initiative != null) {
+            active.order(store, initiative);
+        }
+        if (parallel != null) {
+            parallel.advance(this, store, active);
+        } else {
+            //If not done go through the entities still alive (this will be in order read and added from file)
+            for (int turn = 0; turn < active.size(); turn++) {
+                int slot = active.get(turn);
+                //If entity is still ALIVE (it may have died this tick), we want to give it a turn to ATTACK or MOVE
+                if (store.isAlive(slot)) {
+                    Entity entity = store.entity(slot);
+                    //Get location of entity (only the world knows this, the entity does not itself)
+                    int row = store.row(slot);
+                    int column = store.column(slot);
+                    //Determine if/where an entity wants to attack
+                    World attackWorld3X3 = attackView.center(row, column);
+                    Direction attackWhere = entity.attackWhere(attackWorld3X3);
+                    //If I don't attack, then I must be moving
+                    if (attackWhere == null) {
+                        //Figure out where entity wants to move
+                        World moveWorld5x5 = moveView.center(row, column);
+                        move(slot, entity.chooseMove(moveWorld5x5));
                     } else {
-                        Menu.println(String.format("%s  tried to attack somewhere it could not!", entity.shortString()));
+                        //If we are here our earlier attack question was not null, and we are attacking a nearby entity
+                        attack(slot, attackWhere, getEntity(row, column, attackWhere), null);
                     }
                 }
             }
         }
+        //Entities that died this tick take no more turns
+        active.compact(store);
         checkActive();
     }
 
+    /**
+     * Move an entity a direction if it can, logging the attempt
+     *
+     * @param slot      The entity's slot
+     * @param moveWhere The direction it wants to move
+     */
+    void move(int slot, Direction moveWhere) {
+        Entity entity = store.entity(slot);
+        int row = store.row(slot);
+        int column = store.column(slot);
+        //Log moving
+        Menu.println(String.format("%s moving %s", entity.shortString(), moveWhere));
+        //If this move is valid, then move it
+        if (canMoveOnTopOf(row, column, moveWhere)) {
+            moveEntity(row, column, moveWhere);
+        } else {
+            //Otherwise, indicate an invalid attempt to move
+            Menu.println(String.format("%s  tried to move somewhere it could not!", entity.shortString()));
+        }
+    }
+
+    /**
+     * Attack an entity next to an entity if it can still be attacked there, logging the attempt and the damage
+     *
+     * @param slot        The attacker's slot
+     * @param attackWhere The direction of the attacked
+     * @param attacked    The entity it wants to attack (the one in that direction, unless it moved or was removed)
+     * @param random      The stream to roll damage from, null for Main.random
+     */
+    void attack(int slot, Direction attackWhere, Entity attacked, SplittableRandom random) {
+        Entity entity = store.entity(slot);
+        int row = store.row(slot);
+        int column = store.column(slot);
+        Menu.println(String.format("%s attacking %s in direction %s", entity.shortString(), attackWhere, attacked.shortString()));
+        //Can we attack this entity
+        if (getEntity(row, column, attackWhere) == attacked && canBeAttacked(row, column, attackWhere)) {
+            //Determine damage using RNG
+            int damage = 1 + (random == null ? Main.random.nextInt(store.weapon(slot)) : random.nextInt(store.weapon(slot)));
+            int true_damage = Math.max(0, damage - attacked.armorStrength());
+            Menu.println(String.format("%s attacked %s for %d damage against %d defense for %d", entity.shortString(), attacked.shortString(), damage, attacked.armorStrength(), true_damage));
+            attacked.damage(true_damage);
+            if (!attacked.isAlive()) {
+                Menu.println(String.format("%s died!", attacked.shortString()));
+            }
+        } else {
+            Menu.println(String.format("%s  tried to attack somewhere it could not!", entity.shortString()));
+        }
+    }
+
+    /**
+     * A random direction for an entity looking at this world to move
+     *
+     * @return A random Direction from Main.random
+     */
+    public Direction randomDirection() {
+        return Direction.getRandomDirection();
+    }
+
     /**
      * Retrieves a smaller local portion of the world centered around an entity.
      *
@@ -196,18 +315,37 @@ public class World {
         return newWorld;
     }
 
+    /**
+     * A window of the world centred around a spot, reading through to this world instead of copying it.
+     * It shows the same as getLocal, and keeps showing this world as it changes.
+     *
+     * @param size   The size of the local view (must be an odd number).
+     * @param row    The row index of the center.
+     * @param column The column index of the center.
+     * @return A {@code LocalView} of this world.
+     */
+    public LocalView getLocalView(int size, int row, int column) {
+        return new LocalView(this, size, row, column);
+    }
+
     /**
      * Check if simulation has now ended (only one of two versus Entity types is alive)
      */
     public void checkActive() {
+        //The store counts the living of each side as they change, unless some are borrowed from another world
+        if (store != null && !store.hasBorrowed()) {
+            if (store.aliveCount(EntityStore.HERO) == 0 || store.aliveCount(EntityStore.MONSTER) == 0)
+                state = State.INACTIVE;
+            return;
+        }
         boolean foundActiveHero = false; // Flag to track if there is an active hero
         boolean foundActiveMonster = false; // Flag to track if there is an active monster
         // Loop through the world grid
         for (int i = 0; i < getRows() ; i++){ // Iterate through rows
             for (int j = 0; j < getColumns() ; j++){ // Iterate through columns
-                if (isHero(i, j) && world[i][j].isAlive())
+                if (isHero(i, j) && getEntity(i, j).isAlive())
                     foundActiveHero = true; // Set flag to true if an active hero is found
-                if (isMonster(i, j) && world[i][j].isAlive())
+                if (isMonster(i, j) && getEntity(i, j).isAlive())
                     foundActiveMonster = true; // Set flag to true if an active monster is found
             }
         }
@@ -224,12 +362,23 @@ public class World {
      * @param d      The direction to move the entity in
      */
     public void moveEntity(int row, int column, Direction d) {
-        Entity entity = getEntity(row, column);
+        int slot = grid[row][column] - 1;
         int moveRow = row + d.getRowChange();
         int moveColumn = column + d.getColumnChange();
-        this.world[moveRow][moveColumn] = entity;
-        this.world[row][column] = null;
-        this.locations.put(entity, new Integer[]{moveRow, moveColumn});
+        //Whatever was moved on top of is gone from the grid
+        int under = grid[moveRow][moveColumn] - 1;
+        if (under >= 0 && under != slot) {
+            store.remove(under);
+        }
+        this.grid[moveRow][moveColumn] = slot + 1;
+        this.grid[row][column] = 0;
+        if (slot >= 0) {
+            store.move(slot, moveRow, moveColumn);
+            //Staying put clears the spot just filled, as it always has
+            if (moveRow == row && moveColumn == column) {
+                store.remove(slot);
+            }
+        }
     }
 
     /**
@@ -240,9 +389,16 @@ public class World {
      * @param entity The entity to add
      */
     public void addEntity(int row, int column, Entity entity) {
-        this.world[row][column] = entity;
-        this.entities.add(entity);
-        locations.put(entity, new Integer[]{row, column});
+        //Whatever was here is gone from the grid
+        if (grid[row][column] != 0) {
+            store.remove(grid[row][column] - 1);
+        }
+        int slot = store.add(entity, row, column);
+        this.grid[row][column] = slot + 1;
+        //Walls never take turns
+        if (store.kind(slot) != EntityStore.WALL && store.isAlive(slot)) {
+            active.add(slot);
+        }
     }
 
     /**
@@ -253,7 +409,8 @@ public class World {
      * @return The Entity at the given row, column
      */
     public Entity getEntity(int row, int column) {
-        return this.world[row][column];
+        int slot = this.grid[row][column] - 1;
+        return slot < 0 ? null : store.entity(slot);
     }
 
     /**
@@ -355,6 +512,26 @@ public class World {
         return entity instanceof Monster;
     }
 
+    /**
+     * ALIVE entities of a side still on the grid, kept up to date as entities are added, damaged and removed
+     *
+     * @param kind EntityStore.HERO or EntityStore.MONSTER
+     * @return The count (0 for a LocalView, which has no entities of its own)
+     */
+    public int getAliveCount(byte kind) {
+        return store == null ? 0 : store.aliveCount(kind);
+    }
+
+    /**
+     * Health of a side still on the grid, kept up to date as entities are added, damaged and removed
+     *
+     * @param kind EntityStore.HERO or EntityStore.MONSTER
+     * @return The sum of the side's health (0 for a LocalView, which has no entities of its own)
+     */
+    public long getHealthSum(byte kind) {
+        return store == null ? 0 : store.healthSum(kind);
+    }
+
     /**
      * Generates a string representation of the world for debugging or display purposes.
      *
@@ -377,15 +554,16 @@ public class World {
             for (int j = STARTING_INDEX; j < getColumns(); j++){
 
                 // If there is no entity, add a floor symbol
-                if (world[i][j] == null)
+                Entity entity = getEntity(i, j);
+                if (entity == null)
                     output.append(Symbol.FLOOR.getSymbol());
 
                 // If the entity is not null, add its symbol
-                else if ((isHero(i, j) && world[i][j].isDead() || isMonster(i, j) && world[i][j].isDead())){
+                else if ((isHero(i, j) && entity.isDead() || isMonster(i, j) && entity.isDead())){
                     output.append(Symbol.DEAD.getSymbol());
                 }
                 else
-                    output.append(world[i][j].getSymbol());
+                    output.append(entity.getSymbol());
             }
             // Add the right border wall for the current row
             output.append(Symbol.WALL.getSymbol());
@@ -417,11 +595,11 @@ public class World {
         // Add a header for the entity information table
         output.append("NAME   \tS\tH\tSTATE\tINFO\n");
 
-        // Loop through each entity in the entities
-        for (Entity entity: entities){
+        // Loop through each entity in the order they were added
+        for (int slot = 0; slot < store.size(); slot++){
 
             // Append the string representation of each entity (using its overridden toString method)
-            output.append(entity.toString()).append("\n");
+            output.append(store.entity(slot).toString()).append("\n");
         }
         // Return the final constructed string which includes the world and the entity info table
         return output.toString();
@@ -437,7 +615,7 @@ public class World {
      * @return The rows of the world
      */
     public int getRows(){
-        return world.length;
+        return grid.length;
     }
 
     /**
@@ -445,7 +623,7 @@ public class World {
      * @return The columns of the world
      */
     public int getColumns(){
-        return world[0].length;
+        return grid[0].length;
     }
 
 }